@@ -0,0 +1,93 @@
+package com.webstore.benchmark;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.enums.whatsapp.ThreadMode;
+import com.webstore.implementation.webhook.StripedExecutor;
+import com.webstore.service.whatsapp.core.InteractionExecutor;
+import com.webstore.service.whatsapp.core.TaskScope;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A burst of interactions from distinct senders, each shaped like the product
+ * details flow: two independent lookups forked in a {@link TaskScope}, then a
+ * blocking send. Sleeps stand in for JDBC and Graph API round trips, which is
+ * where the platform pool runs out of threads and virtual threads do not.
+ * VIRTUAL silently falls back to PLATFORM on a JVM older than 21.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class InteractionDispatchBenchmark {
+
+    private static final int STRIPES = 256;
+
+    @Param({"PLATFORM", "VIRTUAL"})
+    private ThreadMode threadMode;
+
+    @Param({"64", "512"})
+    private int interactions;
+
+    @Param({"2"})
+    private int lookupMillis;
+
+    private InteractionExecutor interactionExecutor;
+    private ExecutorService workers;
+    private StripedExecutor lanes;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        WhatsAppConfiguration config = new WhatsAppConfiguration();
+        config.getWebhook().getIngestion().setThreadMode(threadMode);
+        interactionExecutor = new InteractionExecutor(config);
+        workers = interactionExecutor.newExecutor("bench-worker-",
+                config.getWebhook().getIngestion().getWorkerThreads());
+        lanes = new StripedExecutor(STRIPES, interactions, workers);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        workers.shutdownNow();
+        interactionExecutor.shutdown();
+    }
+
+    @Benchmark
+    public void burst() throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(interactions);
+        for (int i = 0; i < interactions; i++) {
+            lanes.execute("9199999" + i, () -> {
+                handleInteraction();
+                done.countDown();
+            });
+        }
+        done.await();
+    }
+
+    private void handleInteraction() {
+        try (TaskScope scope = interactionExecutor.openScope()) {
+            TaskScope.Subtask<Integer> product = scope.fork(() -> blockingLookup(1));
+            TaskScope.Subtask<Integer> price = scope.fork(() -> blockingLookup(2));
+            scope.join();
+            blockingLookup(product.get() + price.get());    // the Graph API send
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int blockingLookup(int value) throws InterruptedException {
+        Thread.sleep(lookupMillis);
+        return value;
+    }
+}
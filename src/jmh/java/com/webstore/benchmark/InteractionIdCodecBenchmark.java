@@ -0,0 +1,59 @@
+package com.webstore.benchmark;
+
+import com.webstore.util.InteractionIdCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Building and reading a product row id: the {@code String.format} and
+ * {@code split}/Base64 round trip the flows used before, versus
+ * {@link InteractionIdCodec}. Run with {@code ./gradlew jmh -Pjmh.profilers=gc}
+ * to compare bytes allocated per op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class InteractionIdCodecBenchmark {
+
+    private static final String CATEGORY_NAME = "Home & Kitchen";
+
+    private final int page = 3;
+    private final int productId = 1_284;
+    private final int categoryId = 17;
+    private final String legacyId = String.format("prod_p%d_i%d_c%s", page, productId,
+            Base64.getEncoder().encodeToString(CATEGORY_NAME.getBytes()));
+    private final String codecId = InteractionIdCodec.product(page, productId, categoryId);
+
+    @Benchmark
+    public String encodeLegacy() {
+        return String.format("prod_p%d_i%d_c%s", page, productId,
+                Base64.getEncoder().encodeToString(CATEGORY_NAME.getBytes()));
+    }
+
+    @Benchmark
+    public String encodeCodec() {
+        return InteractionIdCodec.product(page, productId, categoryId);
+    }
+
+    @Benchmark
+    public int decodeLegacy() {
+        String[] parts = legacyId.split("_");
+        int id = Integer.parseInt(parts[2].substring(1));
+        String categoryName = new String(Base64.getDecoder().decode(parts[3].substring(1)), StandardCharsets.UTF_8);
+        return id + categoryName.length();
+    }
+
+    @Benchmark
+    public int decodeCodec() {
+        InteractionIdCodec.InteractionId id = InteractionIdCodec.decode(codecId);
+        return id.getProductId() + id.getCategoryId();
+    }
+}
@@ -0,0 +1,88 @@
+package com.webstore.benchmark;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webstore.dto.request.WebhookRequestDto;
+import com.webstore.implementation.webhook.InboundMessage;
+import com.webstore.implementation.webhook.WebhookPayloadParser;
+import com.webstore.implementation.webhook.WebhookValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Binding the full {@link WebhookRequestDto} tree and walking it, versus the
+ * single streaming pass in {@link WebhookPayloadParser}. Run with
+ * {@code ./gradlew jmh -Pjmh.profilers=gc} to compare bytes allocated per op.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class WebhookParsingBenchmark {
+
+    @Param({"1", "50"})
+    private int messagesPerPayload;
+
+    private ObjectMapper objectMapper;
+    private WebhookValidator webhookValidator;
+    private WebhookPayloadParser payloadParser;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() {
+        // Same leniency as the mapper Spring Boot configures for @RequestBody
+        objectMapper = new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        // extractMessages only walks the DTO, so the handlers are never touched
+        webhookValidator = new WebhookValidator(null, null, null, null, null);
+        payloadParser = new WebhookPayloadParser(objectMapper);
+        payload = buildPayload(messagesPerPayload);
+    }
+
+    @Benchmark
+    public List<InboundMessage> databind() throws IOException {
+        WebhookRequestDto dto = objectMapper.readValue(payload, WebhookRequestDto.class);
+        return webhookValidator.extractMessages(dto);
+    }
+
+    @Benchmark
+    public List<InboundMessage> streaming() throws IOException {
+        return payloadParser.parse(payload).getMessages();
+    }
+
+    // A realistic Cloud API batch: contacts block, text messages and list replies mixed
+    private static byte[] buildPayload(int messages) {
+        StringBuilder json = new StringBuilder()
+                .append("{\"object\":\"whatsapp_business_account\",\"entry\":[{\"id\":\"102290129340398\",")
+                .append("\"changes\":[{\"field\":\"messages\",\"value\":{\"messaging_product\":\"whatsapp\",")
+                .append("\"metadata\":{\"display_phone_number\":\"15550783881\",\"phone_number_id\":\"106540352242922\"},")
+                .append("\"contacts\":[{\"profile\":{\"name\":\"Customer\"},\"wa_id\":\"919999999999\"}],")
+                .append("\"messages\":[");
+        for (int i = 0; i < messages; i++) {
+            if (i > 0) {
+                json.append(',');
+            }
+            json.append("{\"from\":\"91999999").append(1000 + i).append("\",")
+                    .append("\"id\":\"wamid.HBgLMTY0NjcwNDM1OTUVAgASGBQzQTRBNjU5OUFFRTAzODEwMTQ0RgA").append(i).append("\",")
+                    .append("\"timestamp\":\"1749416383\",");
+            if (i % 2 == 0) {
+                json.append("\"type\":\"text\",\"text\":{\"body\":\"hi\"}}");
+            } else {
+                json.append("\"type\":\"interactive\",\"interactive\":{\"type\":\"list_reply\",")
+                        .append("\"list_reply\":{\"id\":\"cat_").append(i).append("\",\"title\":\"Shoes\",")
+                        .append("\"description\":\"Browse shoes\"}}}");
+            }
+        }
+        json.append("]}}]}]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,43 @@
+package com.webstore.loadtest;
+
+import java.util.Arrays;
+
+/**
+ * Collects raw latency samples for one interaction type. The harness runs for
+ * minutes, not days, so keeping every sample and sorting once at the end is
+ * simpler and more exact than a histogram.
+ */
+class LatencyRecorder {
+
+    private long[] samples = new long[1024];
+    private int count;
+
+    synchronized void record(long nanos) {
+        if (count == samples.length) {
+            samples = Arrays.copyOf(samples, count * 2);
+        }
+        samples[count++] = nanos;
+    }
+
+    synchronized int count() {
+        return count;
+    }
+
+    /**
+     * @return percentiles in milliseconds, in the order requested; NaN when empty
+     */
+    synchronized double[] percentilesMillis(double... percentiles) {
+        double[] result = new double[percentiles.length];
+        if (count == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        for (int i = 0; i < percentiles.length; i++) {
+            int index = (int) Math.ceil(percentiles[i] / 100.0 * count) - 1;
+            result[i] = sorted[Math.max(0, Math.min(count - 1, index))] / 1_000_000.0;
+        }
+        return result;
+    }
+}
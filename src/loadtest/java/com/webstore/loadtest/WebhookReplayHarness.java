@@ -0,0 +1,311 @@
+package com.webstore.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.service.whatsapp.stub.GraphApiStandIn;
+import com.webstore.service.whatsapp.stub.ReceivedMessage;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays webhook payloads captured by {@code WebhookCaptureRecorder} against
+ * a running instance at a fixed rate, and reports per interaction type:
+ * <ul>
+ *   <li>ack latency: POST / until the 200 comes back</li>
+ *   <li>reply latency: POST / until the app's first Graph API send to that sender</li>
+ *   <li>HTTP errors and webhooks that never produced a reply</li>
+ * </ul>
+ * Everything runs on one box: the harness starts its own {@link GraphApiStandIn},
+ * answering after a fixed {@code --stub-delay-ms}, so the app under test only
+ * needs {@code --whatsapp.api.graph-url=http://127.0.0.1:8089}.
+ * <p>
+ * Latencies are measured from each request's scheduled start, not its actual
+ * start, so a stalled server is not hidden by the harness backing off.
+ * <pre>
+ * ./gradlew replayWebhooks -PreplayArgs="--file=data/webhook-capture.ndjson --rate=200 --concurrency=64 --seconds=60"
+ * </pre>
+ */
+public class WebhookReplayHarness {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Map<String, String> options;
+    private final Map<String, TypeStats> statsByType = new ConcurrentHashMap<>();
+    private final Map<String, Queue<Pending>> pendingBySender = new ConcurrentHashMap<>();
+
+    public static void main(String[] args) throws Exception {
+        new WebhookReplayHarness(parseOptions(args)).run();
+    }
+
+    WebhookReplayHarness(Map<String, String> options) {
+        this.options = options;
+    }
+
+    void run() throws Exception {
+        Path file = Paths.get(required("file"));
+        URI target = URI.create(option("target", "http://127.0.0.1:8080/"));
+        double rate = Double.parseDouble(option("rate", "50"));
+        int concurrency = Integer.parseInt(option("concurrency", "32"));
+        long durationNanos = TimeUnit.SECONDS.toNanos(Long.parseLong(option("seconds", "60")));
+        long replyTimeoutMillis = Long.parseLong(option("reply-timeout-ms", "10000"));
+
+        List<Template> templates = load(file);
+        if (templates.isEmpty()) {
+            throw new IllegalArgumentException("No payloads in " + file);
+        }
+        System.out.printf("Replaying %d captured payloads against %s at %.0f/s, concurrency %d%n",
+                templates.size(), target, rate, concurrency);
+
+        GraphApiStandIn stub = Boolean.parseBoolean(option("stub", "true")) ? startStub() : null;
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        Semaphore permits = new Semaphore(concurrency);
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / rate);
+        long start = System.nanoTime();
+        long next = start;
+        long sequence = 0;
+        try {
+            while (next - start < durationNanos) {
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                permits.acquire();
+                send(client, target, templates.get((int) (sequence % templates.size())), sequence, next, permits);
+                next += interval;
+                sequence++;
+            }
+            permits.acquire(concurrency);
+            long elapsed = System.nanoTime() - start;
+            awaitReplies(replyTimeoutMillis);
+            report(sequence, elapsed, stub);
+        } finally {
+            if (stub != null) {
+                stub.close();
+            }
+        }
+    }
+
+    private GraphApiStandIn startStub() {
+        WhatsAppConfiguration.GraphStub config = new WhatsAppConfiguration.GraphStub();
+        config.setPort(Integer.parseInt(option("stub-port", "8089")));
+        config.setThreads(Integer.parseInt(option("stub-threads", "8")));
+        Duration delay = Duration.ofMillis(Long.parseLong(option("stub-delay-ms", "0")));
+        config.setLatencyMedian(delay);
+        config.setLatencyP99(delay);
+        // Replies are matched as they arrive; the bodies themselves are not needed
+        config.setRecordCapacity(1024);
+        GraphApiStandIn stub = new GraphApiStandIn(config, MAPPER, () -> 0.5);
+        stub.onReceived(this::onReply);
+        return stub;
+    }
+
+    private void send(HttpClient client, URI target, Template template, long sequence,
+                      long scheduledAt, Semaphore permits) throws IOException {
+        List<Pending> pending = new ArrayList<>(template.messages.size());
+        for (MessageInfo message : template.messages) {
+            TypeStats stats = stats(message.type);
+            stats.sent.increment();
+            if (message.from != null) {
+                Pending entry = new Pending(message.from, stats, scheduledAt);
+                pendingBySender.computeIfAbsent(message.from, key -> new ConcurrentLinkedQueue<>()).add(entry);
+                pending.add(entry);
+            }
+        }
+        HttpRequest request = HttpRequest.newBuilder(target)
+                .timeout(Duration.ofSeconds(30))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(template.render(sequence)))
+                .build();
+
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding()).whenComplete((response, failure) -> {
+            permits.release();
+            long latency = System.nanoTime() - scheduledAt;
+            boolean failed = failure != null || response.statusCode() >= 300;
+            for (MessageInfo message : template.messages) {
+                TypeStats stats = stats(message.type);
+                if (failed) {
+                    stats.errors.increment();
+                } else {
+                    stats.ack.record(latency);
+                }
+            }
+            if (failed) {
+                // No reply will come for a refused webhook; do not count it twice
+                for (Pending entry : pending) {
+                    pendingBySender.get(entry.sender).remove(entry);
+                }
+            }
+        });
+    }
+
+    private void onReply(ReceivedMessage reply) {
+        Queue<Pending> queue = pendingBySender.get(reply.getRecipient());
+        Pending pending = queue != null ? queue.poll() : null;
+        if (pending != null) {
+            pending.stats.reply.record(System.nanoTime() - pending.scheduledAt);
+        }
+    }
+
+    private void awaitReplies(long timeoutMillis) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis);
+        while (System.nanoTime() < deadline && pendingBySender.values().stream().anyMatch(queue -> !queue.isEmpty())) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+        }
+        for (Queue<Pending> queue : pendingBySender.values()) {
+            Pending pending;
+            while ((pending = queue.poll()) != null) {
+                pending.stats.noReply.increment();
+            }
+        }
+    }
+
+    private void report(long requests, long elapsedNanos, GraphApiStandIn stub) {
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("%nSent %d webhooks in %.1fs (%.1f/s)", requests, seconds, requests / seconds);
+        if (stub != null) {
+            System.out.printf(", Graph API stub received %d sends", stub.getReceivedCount());
+        }
+        System.out.println();
+        System.out.printf("%n%-14s %8s %7s %9s   %-26s %-26s%n", "type", "messages", "errors", "no-reply",
+                "ack p50/p95/p99 ms", "reply p50/p95/p99 ms");
+        for (Map.Entry<String, TypeStats> entry : new TreeMap<>(statsByType).entrySet()) {
+            TypeStats stats = entry.getValue();
+            System.out.printf("%-14s %8d %7d %9d   %-26s %-26s%n", entry.getKey(), stats.sent.sum(),
+                    stats.errors.sum(), stats.noReply.sum(), format(stats.ack), format(stats.reply));
+        }
+    }
+
+    private static String format(LatencyRecorder recorder) {
+        double[] p = recorder.percentilesMillis(50, 95, 99);
+        return Double.isNaN(p[0]) ? "-" : String.format("%.1f / %.1f / %.1f", p[0], p[1], p[2]);
+    }
+
+    private TypeStats stats(String type) {
+        return statsByType.computeIfAbsent(type, key -> new TypeStats());
+    }
+
+    private static List<Template> load(Path file) throws IOException {
+        List<Template> templates = new ArrayList<>();
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            if (!line.isBlank()) {
+                templates.add(new Template(MAPPER.readTree(line)));
+            }
+        }
+        return templates;
+    }
+
+    private String required(String name) {
+        String value = options.get(name);
+        if (value == null) {
+            throw new IllegalArgumentException("Missing --" + name + "=...");
+        }
+        return value;
+    }
+
+    private String option(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+
+    static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                int equals = arg.indexOf('=');
+                if (equals > 0) {
+                    options.put(arg.substring(2, equals), arg.substring(equals + 1));
+                } else {
+                    options.put(arg.substring(2), "true");
+                }
+            }
+        }
+        return options;
+    }
+
+    /**
+     * One captured payload. Message ids are rewritten on every send so the
+     * app's de-duplication does not drop the second lap through the file.
+     */
+    static final class Template {
+
+        private final JsonNode tree;
+        private final List<MessageInfo> messages = new ArrayList<>();
+
+        Template(JsonNode tree) {
+            this.tree = tree;
+            for (JsonNode entry : tree.path("entry")) {
+                for (JsonNode change : entry.path("changes")) {
+                    JsonNode value = change.path("value");
+                    for (JsonNode message : value.path("messages")) {
+                        messages.add(new MessageInfo(message.path("from").asText(null), typeOf(message)));
+                    }
+                    if (!value.path("messages").isArray() && value.path("statuses").isArray()) {
+                        messages.add(new MessageInfo(null, "status"));
+                    }
+                }
+            }
+        }
+
+        byte[] render(long sequence) throws IOException {
+            JsonNode copy = tree.deepCopy();
+            for (JsonNode entry : copy.path("entry")) {
+                for (JsonNode change : entry.path("changes")) {
+                    for (JsonNode message : change.path("value").path("messages")) {
+                        if (message instanceof ObjectNode object && object.hasNonNull("id")) {
+                            object.put("id", object.get("id").asText() + ".r" + sequence);
+                        }
+                    }
+                }
+            }
+            return MAPPER.writeValueAsBytes(copy);
+        }
+
+        private static String typeOf(JsonNode message) {
+            String type = message.path("type").asText("unknown");
+            if ("interactive".equals(type)) {
+                return message.path("interactive").path("type").asText("interactive");
+            }
+            return type;
+        }
+    }
+
+    record MessageInfo(String from, String type) {
+    }
+
+    record Pending(String sender, TypeStats stats, long scheduledAt) {
+    }
+
+    static final class TypeStats {
+        private final LongAdder sent = new LongAdder();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder noReply = new LongAdder();
+        private final LatencyRecorder ack = new LatencyRecorder();
+        private final LatencyRecorder reply = new LatencyRecorder();
+    }
+}
@@ -1,21 +1,21 @@
 package com.webstore.configuration;
 
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.domain.AuditorAware;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.web.SecurityFilterChain;
-import org.springframework.web.client.RestTemplate;
 
 import java.util.Optional;
 
 @Configuration
+@EnableScheduling
 @EnableJpaAuditing(auditorAwareRef = "auditorProvider")
 public class ApplicationConfiguration {
 
@@ -37,12 +37,6 @@ public class ApplicationConfiguration {
         }
     }
 
-    @Bean
-    @Profile("!local")
-    public RestTemplate restTemplate(RestTemplateBuilder builder) {
-        return builder.build();
-    }
-
     @Configuration
     @EnableWebSecurity
     @Profile("!local")
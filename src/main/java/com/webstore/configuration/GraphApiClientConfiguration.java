@@ -0,0 +1,72 @@
+package com.webstore.configuration;
+
+import com.webstore.util.TimerWheel;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.OkHttpClient;
+import okhttp3.Protocol;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One shared OkHttp client for every Graph API send. Connections are pooled
+ * and kept alive between sends, and HTTP/2 is negotiated over TLS so
+ * concurrent sends multiplex over one connection instead of each paying for
+ * its own handshake.
+ */
+@Configuration
+public class GraphApiClientConfiguration {
+
+    @Bean
+    public OkHttpClient graphApiHttpClient(WhatsAppConfiguration whatsAppConfig,
+                                           ObjectProvider<GraphApiHttpClientCustomizer> customizers,
+                                           MeterRegistry meterRegistry) {
+        WhatsAppConfiguration.Http http = whatsAppConfig.getApi().getHttp();
+
+        ConnectionPool connectionPool = new ConnectionPool(
+                http.getMaxIdleConnections(), http.getKeepAlive().toMillis(), TimeUnit.MILLISECONDS);
+        Dispatcher dispatcher = new Dispatcher();
+        dispatcher.setMaxRequests(http.getMaxRequests());
+        dispatcher.setMaxRequestsPerHost(http.getMaxRequestsPerHost());
+        GraphApiHttpClientMetrics metrics = new GraphApiHttpClientMetrics(connectionPool, dispatcher);
+        metrics.bindTo(meterRegistry);
+
+        OkHttpClient.Builder builder = new OkHttpClient.Builder()
+                .connectionPool(connectionPool)
+                .dispatcher(dispatcher)
+                .eventListener(metrics)
+                .protocols(http.isHttp2()
+                        ? List.of(Protocol.HTTP_2, Protocol.HTTP_1_1)
+                        : List.of(Protocol.HTTP_1_1))
+                .connectTimeout(http.getConnectTimeout())
+                .readTimeout(http.getReadTimeout())
+                .writeTimeout(http.getWriteTimeout())
+                .callTimeout(http.getCallTimeout())
+                .retryOnConnectionFailure(true);
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder.build();
+    }
+
+    /**
+     * Timers for send retries and circuit breaker probes; one thread for all of them.
+     */
+    @Bean(destroyMethod = "close")
+    public TimerWheel graphApiTimerWheel(WhatsAppConfiguration whatsAppConfig) {
+        WhatsAppConfiguration.Retry retry = whatsAppConfig.getApi().getRetry();
+        return new TimerWheel("graph-api-timer", retry.getTick().toNanos(), TimeUnit.NANOSECONDS, retry.getWheelSize());
+    }
+
+    @Bean
+    public DisposableBean graphApiHttpClientShutdown(OkHttpClient graphApiHttpClient) {
+        return () -> {
+            graphApiHttpClient.dispatcher().executorService().shutdown();
+            graphApiHttpClient.connectionPool().evictAll();
+        };
+    }
+}
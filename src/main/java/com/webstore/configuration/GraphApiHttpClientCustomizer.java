@@ -0,0 +1,13 @@
+package com.webstore.configuration;
+
+import okhttp3.OkHttpClient;
+
+/**
+ * Adjusts the Graph API client before it is built, e.g. to relax TLS checks
+ * in the local profile. Applied in bean order after the pool and timeouts.
+ */
+@FunctionalInterface
+public interface GraphApiHttpClientCustomizer {
+
+    void customize(OkHttpClient.Builder builder);
+}
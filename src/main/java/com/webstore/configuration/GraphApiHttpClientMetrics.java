@@ -0,0 +1,90 @@
+package com.webstore.configuration;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import okhttp3.Call;
+import okhttp3.Connection;
+import okhttp3.ConnectionPool;
+import okhttp3.Dispatcher;
+import okhttp3.EventListener;
+import okhttp3.Protocol;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Proxy;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool utilization for the Graph API client. Gauges read the live pool and
+ * dispatcher; the counters come from OkHttp call events, so
+ * {@code acquired - opened} is the number of sends that reused a warm
+ * connection instead of paying for TCP and TLS setup.
+ */
+public class GraphApiHttpClientMetrics extends EventListener implements MeterBinder {
+
+    private final ConnectionPool connectionPool;
+    private final Dispatcher dispatcher;
+    private final LongAdder opened = new LongAdder();
+    private final LongAdder acquired = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    public GraphApiHttpClientMetrics(ConnectionPool connectionPool, Dispatcher dispatcher) {
+        this.connectionPool = connectionPool;
+        this.dispatcher = dispatcher;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("whatsapp.graph.pool.connections", connectionPool, ConnectionPool::connectionCount)
+                .description("Open connections to the Graph API")
+                .tag("state", "total")
+                .register(registry);
+        Gauge.builder("whatsapp.graph.pool.connections", connectionPool, ConnectionPool::idleConnectionCount)
+                .description("Open connections to the Graph API")
+                .tag("state", "idle")
+                .register(registry);
+        Gauge.builder("whatsapp.graph.requests", dispatcher, Dispatcher::runningCallsCount)
+                .description("Graph API calls in flight")
+                .tag("state", "running")
+                .register(registry);
+        Gauge.builder("whatsapp.graph.requests", dispatcher, Dispatcher::queuedCallsCount)
+                .description("Asynchronous Graph API calls waiting for a dispatcher slot")
+                .tag("state", "queued")
+                .register(registry);
+        FunctionCounter.builder("whatsapp.graph.connections.opened", opened, LongAdder::sum)
+                .description("New connections established, each paying TCP and TLS setup")
+                .register(registry);
+        FunctionCounter.builder("whatsapp.graph.connections.acquired", acquired, LongAdder::sum)
+                .description("Connections handed to a call, new or reused from the pool")
+                .register(registry);
+        FunctionCounter.builder("whatsapp.graph.connections.failed", failed, LongAdder::sum)
+                .description("Connection attempts that failed")
+                .register(registry);
+    }
+
+    @Override
+    public void connectStart(Call call, InetSocketAddress inetSocketAddress, Proxy proxy) {
+        opened.increment();
+    }
+
+    @Override
+    public void connectFailed(Call call, InetSocketAddress inetSocketAddress,
+                              Proxy proxy, Protocol protocol, IOException ioe) {
+        failed.increment();
+    }
+
+    @Override
+    public void connectionAcquired(Call call, Connection connection) {
+        acquired.increment();
+    }
+
+    public long getOpenedCount() {
+        return opened.sum();
+    }
+
+    public long getAcquiredCount() {
+        return acquired.sum();
+    }
+}
@@ -1,8 +1,14 @@
 package com.webstore.configuration;
 
+import com.webstore.enums.whatsapp.ThreadMode;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.context.annotation.Configuration;
 import lombok.Data;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
 
 @Configuration
 @ConfigurationProperties(prefix = "whatsapp")
@@ -11,10 +17,70 @@ public class WhatsAppConfiguration {
 
     private Webhook webhook = new Webhook();
     private Api api = new Api();
+    private Outbox outbox = new Outbox();
+    private PayloadCache payloadCache = new PayloadCache();
+    private GraphStub graphStub = new GraphStub();
+    private Session session = new Session();
+    private CatalogCounts catalogCounts = new CatalogCounts();
 
     @Data
     public static class Webhook {
         private String verifyToken;
+        private Ingestion ingestion = new Ingestion();
+        private Dedup dedup = new Dedup();
+        private Delivery delivery = new Delivery();
+        private Journal journal = new Journal();
+        private Capture capture = new Capture();
+    }
+
+    @Data
+    public static class Ingestion {
+        // VIRTUAL runs every interaction and its lookups on virtual threads (Java 21+), PLATFORM on fixed pools
+        private ThreadMode threadMode = ThreadMode.PLATFORM;
+        // Platform mode only; virtual mode starts a thread per lane run
+        private int workerThreads = Runtime.getRuntime().availableProcessors() * 2;
+        // Platform mode only; threads shared by the parallel lookups inside interactions
+        private int fanOutThreads = Runtime.getRuntime().availableProcessors() * 4;
+        // Per-sender ordering lanes; keep well above workerThreads so senders rarely share a lane
+        private int stripes = 64;
+        // Messages a single lane may hold, including the one running
+        private int laneCapacity = 32;
+    }
+
+    @Data
+    public static class Dedup {
+        // "memory" for a single node, "postgres" when several nodes share the webhook URL
+        private String store = "memory";
+        private int capacity = 100_000;
+        private Duration ttl = Duration.ofHours(24);
+        private Duration purgeInterval = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Delivery {
+        // Outbound messages awaiting their "delivered" callback; beyond this latency is not sampled
+        private int pendingCapacity = 50_000;
+        private Duration pendingTtl = Duration.ofHours(1);
+        private Duration purgeInterval = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class Journal {
+        private boolean enabled = true;
+        private String directory = "data/webhook-journal";
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        // Appends are flushed to disk at most this long after they are acknowledged; zero flushes every append
+        private Duration syncInterval = Duration.ofMillis(10);
+        // ...or as soon as this many appends are waiting, whichever comes first
+        private int syncBatch = 256;
+    }
+
+    @Data
+    public static class Capture {
+        // Records sanitized webhook bodies for the replay harness; keep off in production unless investigating
+        private boolean enabled = false;
+        private String file = "data/webhook-capture.ndjson";
+        private int queueCapacity = 10_000;
     }
 
     @Data
@@ -24,5 +90,171 @@ public class WhatsAppConfiguration {
         private String baseUrl;
         private String phoneNumberId;
         private String graphUrl;
+        // Hold short confirmations and prepend them to the recipient's next interactive message, saving a round trip
+        private boolean mergeConfirmations = true;
+        private Http http = new Http();
+        private RateLimit rateLimit = new RateLimit();
+        private Retry retry = new Retry();
+        private CircuitBreaker circuitBreaker = new CircuitBreaker();
+        private Audit audit = new Audit();
+    }
+
+    @Data
+    public static class Http {
+        // Idle keep-alive connections kept per client; the Graph API sits behind one host, so this bounds reuse
+        private int maxIdleConnections = 32;
+        // Idle connections older than this are evicted from the pool
+        private Duration keepAlive = Duration.ofMinutes(5);
+        private Duration connectTimeout = Duration.ofSeconds(5);
+        private Duration readTimeout = Duration.ofSeconds(15);
+        private Duration writeTimeout = Duration.ofSeconds(15);
+        // Whole call including retries and redirects; zero means no limit
+        private Duration callTimeout = Duration.ofSeconds(30);
+        // Concurrent asynchronous calls; synchronous sends are bounded by the calling threads
+        private int maxRequests = 128;
+        private int maxRequestsPerHost = 64;
+        // Sends accepted but not yet answered, running or queued; beyond this a send fails fast instead of piling up
+        private int maxInFlight = 1024;
+        // Negotiate HTTP/2 over TLS, multiplexing sends onto a single connection
+        private boolean http2 = true;
+    }
+
+    @Data
+    public static class RateLimit {
+        private boolean enabled = true;
+        private Tier defaultTier = new Tier();
+        // Keyed by phoneNumberId, for numbers on a different throughput tier than the default
+        private Map<String, Tier> tiers = new HashMap<>();
+        // A send that would wait longer than this for a token fails instead of queueing
+        private Duration maxWait = Duration.ofSeconds(2);
+        // On a 429 the rate is multiplied by this, then climbs back by a tenth of the tier every recoveryStep
+        private double backoffFactor = 0.5;
+        private Duration recoveryStep = Duration.ofSeconds(5);
+        // Pause applied when a 429 carries no Retry-After
+        private Duration defaultRetryAfter = Duration.ofSeconds(1);
+        // Throttled sends go back through the limiter this many times before failing
+        private int maxThrottleRetries = 3;
+    }
+
+    @Data
+    public static class Tier {
+        // Cloud API default throughput per business phone number
+        private double messagesPerSecond = 80;
+        private int burst = 80;
+    }
+
+    @Data
+    public static class Retry {
+        private boolean enabled = true;
+        // Including the first attempt
+        private int maxAttempts = 4;
+        private Duration initialBackoff = Duration.ofMillis(500);
+        private double multiplier = 2.0;
+        private Duration maxBackoff = Duration.ofSeconds(5);
+        // No retry is scheduled past this much time since the first attempt
+        private Duration maxTotalDelay = Duration.ofSeconds(15);
+        // Resolution of the timer wheel shared with the circuit breaker; delays are rounded up to a whole tick
+        private Duration tick = Duration.ofMillis(10);
+        private int wheelSize = 512;
+    }
+
+    @Data
+    public static class CircuitBreaker {
+        private boolean enabled = true;
+        // Outcomes of the most recent calls that the failure rate is computed over
+        private int windowSize = 50;
+        // The breaker does not trip before this many calls have been seen
+        private int minimumCalls = 20;
+        // Percentage of failed or slow calls in the window that opens the breaker
+        private int failureRateThreshold = 50;
+        // A call slower than this counts as a failure even if it succeeds
+        private Duration slowCallThreshold = Duration.ofSeconds(5);
+        // Time spent open before probe calls are let through
+        private Duration openDuration = Duration.ofSeconds(30);
+        private int probeCalls = 3;
+        // Sends held while the breaker is open; beyond this, or after maxParkTime, they fail
+        private int parkCapacity = 1000;
+        private Duration maxParkTime = Duration.ofSeconds(60);
+        // Report DOWN on the health endpoint while open. Off by default: every node shares the
+        // same Graph API, so an outage would take all of them out of the load balancer at once
+        private boolean healthDownWhenOpen = false;
+    }
+
+    @Data
+    public static class Audit {
+        private boolean enabled = true;
+        // Fraction of successful sends recorded; failed sends are always recorded
+        private double sampleRate = 1.0;
+        // Payload bytes kept per record; longer payloads are truncated
+        private DataSize maxPayloadSize = DataSize.ofKilobytes(4);
+        // Records kept in memory for lookups, rounded up to a power of two; the oldest are overwritten
+        private int capacity = 4096;
+        // Also append records to rolling binary files, read back with OutboundAuditSink.read
+        private boolean fileEnabled = false;
+        private String directory = "data/outbound-audit";
+        private DataSize segmentSize = DataSize.ofMegabytes(64);
+        private int maxSegments = 8;
+        private Duration flushInterval = Duration.ofMillis(200);
+    }
+
+    @Data
+    public static class Outbox {
+        // Runs the drain worker on this node; rows are still written when off
+        private boolean enabled = true;
+        private int batchSize = 100;
+        private Duration pollInterval = Duration.ofMillis(500);
+        // A claimed row becomes claimable again after this, in case the node died mid-send
+        private Duration lease = Duration.ofMinutes(5);
+        // Drain passes per row; each pass already includes the sender's own retries
+        private int maxAttempts = 5;
+        private Duration retryDelay = Duration.ofSeconds(30);
+        private Duration retention = Duration.ofDays(7);
+        private Duration purgeInterval = Duration.ofHours(1);
+    }
+
+    @Data
+    public static class PayloadCache {
+        private boolean enabled = true;
+        // Rebuild entries at least this often, so catalog changes made through another node show up
+        private Duration maxAge = Duration.ofMinutes(5);
+        // Message kinds held at once; beyond this, stale and then least recently used kinds are dropped
+        private int maxEntries = 256;
+    }
+
+    @Data
+    public static class GraphStub {
+        // Only read under the graph-stub profile, which also points whatsapp.api.graph-url here
+        private int port = 8089;
+        private int threads = 8;
+        // Response latency is log-normal with this median and 99th percentile
+        private Duration latencyMedian = Duration.ofMillis(80);
+        private Duration latencyP99 = Duration.ofMillis(400);
+        // Fractions of requests answered with a 500, and with a 429 carrying error code 130429
+        private double errorRate = 0.0;
+        private double throttleRate = 0.0;
+        private Duration retryAfter = Duration.ofSeconds(1);
+        // Fraction of successful responses whose body is written in chunks, chunkDelay apart
+        private double slowDripRate = 0.0;
+        private int slowDripChunks = 8;
+        private Duration slowDripChunkDelay = Duration.ofMillis(250);
+        // Received payloads kept for assertions; the oldest are discarded beyond this
+        private int recordCapacity = 100_000;
+    }
+
+    @Data
+    public static class Session {
+        // "memory" keeps sessions on this node only, "postgres" also writes them through to an UNLOGGED table
+        private String store = "memory";
+        // Sessions held in memory; the least recently used are dropped beyond this
+        private int capacity = 100_000;
+        // Matches WhatsApp's customer service window, after which the conversation starts over anyway
+        private Duration ttl = Duration.ofHours(24);
+        private Duration purgeInterval = Duration.ofMinutes(10);
+    }
+
+    @Data
+    public static class CatalogCounts {
+        // Reload counts at least this often, so catalog changes made through another node show up
+        private Duration maxAge = Duration.ofMinutes(5);
     }
-}
\ No newline at end of file
+}
@@ -13,6 +13,9 @@ public class WhatsAppConstants {
     // Webhook
     public static final String MODE_SUBSCRIBE = "subscribe";
 
+    // Limits
+    public static final int MAX_INTERACTIVE_BODY_LENGTH = 1024;
+
     private WhatsAppConstants() {
         // prevent instantiation
     }
@@ -1,9 +1,9 @@
 package com.webstore.controller.whatsapp;
 
 import com.webstore.dto.request.WhatsAppRequestDto;
-import com.webstore.dto.request.WebhookRequestDto;
 import com.webstore.service.WhatsAppService;
-import com.webstore.implementation.webhook.WebhookValidator;
+import com.webstore.implementation.webhook.WebhookCaptureRecorder;
+import com.webstore.implementation.webhook.WebhookIngestionService;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -12,19 +12,28 @@ import org.springframework.web.bind.annotation.*;
 public class WhatsAppController {
 
     private final WhatsAppService whatsAppService;
-    private final WebhookValidator webhookValidator;
+    private final WebhookIngestionService webhookIngestionService;
+    private final WebhookCaptureRecorder webhookCaptureRecorder;
 
-    public WhatsAppController(WhatsAppService whatsAppService, WebhookValidator webhookValidator) {
+    public WhatsAppController(WhatsAppService whatsAppService, WebhookIngestionService webhookIngestionService,
+                              WebhookCaptureRecorder webhookCaptureRecorder) {
         this.whatsAppService = whatsAppService;
-        this.webhookValidator = webhookValidator;
+        this.webhookIngestionService = webhookIngestionService;
+        this.webhookCaptureRecorder = webhookCaptureRecorder;
     }
 
     /**
-     * Handles incoming webhook messages from WhatsApp
+     * Handles incoming webhook messages from WhatsApp.
+     * Acknowledges immediately; processing happens on the webhook worker pool.
+     * Answers 503 when the queue is full so Meta redelivers later.
+     * The body is taken as raw bytes and read by the streaming payload parser.
      */
     @PostMapping("/")
-    public ResponseEntity<Void> receiveMessage(@RequestBody WebhookRequestDto webhookData) {
-        webhookValidator.processIncomingMessage(webhookData);
+    public ResponseEntity<Void> receiveMessage(@RequestBody byte[] body) {
+        webhookCaptureRecorder.record(body);
+        if (!webhookIngestionService.submit(body)) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
         return ResponseEntity.ok().build();
     }
 
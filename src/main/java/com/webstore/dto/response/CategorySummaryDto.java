@@ -0,0 +1,17 @@
+package com.webstore.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * One row of the category list: the category with its product count, which
+ * comes from {@link com.webstore.service.whatsapp.business.CatalogCounts}
+ * rather than from loading the category's products.
+ */
+@Data
+@AllArgsConstructor
+public class CategorySummaryDto {
+    private Integer categoryId;
+    private String categoryName;
+    private Long productCount;
+}
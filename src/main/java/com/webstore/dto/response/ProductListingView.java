@@ -0,0 +1,16 @@
+package com.webstore.dto.response;
+
+import java.math.BigDecimal;
+
+/**
+ * One product of a category page as the WhatsApp lists show it, with the
+ * price in the preferred currency already picked. Read by a single native
+ * query, so this is a projection rather than a class.
+ */
+public interface ProductListingView {
+    Integer getProductId();
+    String getProductName();
+    String getProductDescription();
+    BigDecimal getPriceAmount();        // minor units; null when the product has no price
+    String getCurrencySymbol();
+}
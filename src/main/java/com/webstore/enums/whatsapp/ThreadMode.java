@@ -0,0 +1,6 @@
+package com.webstore.enums.whatsapp;
+
+public enum ThreadMode {
+    PLATFORM,
+    VIRTUAL
+}
@@ -0,0 +1,24 @@
+package com.webstore.exception;
+
+/**
+ * The Graph API answered a send with a non-2xx status.
+ */
+public class GraphApiException extends WhatsAppFlowException {
+
+    private final int statusCode;
+    private final String responseBody;
+
+    public GraphApiException(int statusCode, String responseBody) {
+        super("Graph API returned " + statusCode + ": " + responseBody);
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+
+    public int getStatusCode() {
+        return statusCode;
+    }
+
+    public String getResponseBody() {
+        return responseBody;
+    }
+}
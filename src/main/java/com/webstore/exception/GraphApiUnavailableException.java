@@ -0,0 +1,12 @@
+package com.webstore.exception;
+
+/**
+ * A send was not attempted because the circuit breaker around the Graph API
+ * is open and the send could not be held until it closes.
+ */
+public class GraphApiUnavailableException extends WhatsAppFlowException {
+
+    public GraphApiUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -5,6 +5,7 @@ import com.webstore.dto.response.CategoryResponseDto;
 import com.webstore.entity.Category;
 import com.webstore.repository.CategoryRepository;
 import com.webstore.service.CategoryService;
+import com.webstore.service.whatsapp.business.CatalogVersion;
 import com.webstore.util.AuthUtils;
 import jakarta.persistence.EntityNotFoundException;
 import jakarta.persistence.EntityExistsException;
@@ -23,9 +24,11 @@ public class CategoryServiceImplementation implements CategoryService {
 
     @Autowired
     private final CategoryRepository categoryRepository;
+    private final CatalogVersion catalogVersion;
 
-    public CategoryServiceImplementation(CategoryRepository categoryRepository) {
+    public CategoryServiceImplementation(CategoryRepository categoryRepository, CatalogVersion catalogVersion) {
         this.categoryRepository = categoryRepository;
+        this.catalogVersion = catalogVersion;
     }
 
     @Override
@@ -42,7 +45,9 @@ public class CategoryServiceImplementation implements CategoryService {
         category.setCreatedBy(currentUser);
         category.setUpdatedBy(currentUser);
 
-        return mapToResponse(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        catalogVersion.bump();
+        return mapToResponse(saved);
     }
 
     @Override
@@ -76,7 +81,9 @@ public class CategoryServiceImplementation implements CategoryService {
         category.setCategoryDescription(dto.getCategoryDescription());
         category.setUpdatedBy(AuthUtils.getCurrentUsername());
 
-        return mapToResponse(categoryRepository.save(category));
+        Category saved = categoryRepository.save(category);
+        catalogVersion.bump();
+        return mapToResponse(saved);
     }
 
     @Override
@@ -85,6 +92,7 @@ public class CategoryServiceImplementation implements CategoryService {
             throw new EntityNotFoundException("Category not found with ID: " + id);
         }
         categoryRepository.deleteById(id);
+        catalogVersion.bump();
     }
 
     private CategoryResponseDto mapToResponse(Category category) {
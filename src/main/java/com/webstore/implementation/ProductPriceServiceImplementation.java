@@ -7,6 +7,7 @@ import com.webstore.entity.Product;
 import com.webstore.entity.ProductPrice;
 import com.webstore.repository.*;
 import com.webstore.service.ProductPriceService;
+import com.webstore.service.whatsapp.business.CatalogVersion;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -26,13 +27,15 @@ public class ProductPriceServiceImplementation implements ProductPriceService {
     private final ProductRepository productRepository;
     private final CurrencyRepository currencyRepository;
     private final CategoryRepository categoryRepository;
+    private final CatalogVersion catalogVersion;
 
     @Autowired
-    public ProductPriceServiceImplementation(ProductPriceRepository productPriceRepository, ProductRepository productRepository, CurrencyRepository currencyRepository, CategoryRepository categoryRepository) {
+    public ProductPriceServiceImplementation(ProductPriceRepository productPriceRepository, ProductRepository productRepository, CurrencyRepository currencyRepository, CategoryRepository categoryRepository, CatalogVersion catalogVersion) {
         this.productPriceRepository = productPriceRepository;
         this.productRepository = productRepository;
         this.currencyRepository = currencyRepository;
         this.categoryRepository = categoryRepository;
+        this.catalogVersion = catalogVersion;
     }
 
     @Override
@@ -63,6 +66,7 @@ public class ProductPriceServiceImplementation implements ProductPriceService {
         productPrice.setPriceAmount(request.getPriceAmount());
 
         ProductPrice savedProductPrice = productPriceRepository.save(productPrice);
+        catalogVersion.bump();
         log.info("Product price created with id={}", savedProductPrice.getProductPriceId());
 
         return mapToResponseDto(savedProductPrice);
@@ -93,6 +97,7 @@ public class ProductPriceServiceImplementation implements ProductPriceService {
 
         productPrice.setPriceAmount(priceAmount);
         ProductPrice updatedProductPrice = productPriceRepository.save(productPrice);
+        catalogVersion.bump();
 
         log.info("Updated price for productPriceId={} successfully", id);
         return mapToResponseDto(updatedProductPrice);
@@ -107,6 +112,7 @@ public class ProductPriceServiceImplementation implements ProductPriceService {
         }
 
         productPriceRepository.deleteById(id);
+        catalogVersion.bump();
 
         log.info("Product price with id={} has been deleted", id);
     }
@@ -8,6 +8,7 @@ import com.webstore.entity.Product;
 import com.webstore.repository.CategoryRepository;
 import com.webstore.repository.ProductRepository;
 import com.webstore.service.ProductService;
+import com.webstore.service.whatsapp.business.CatalogVersion;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +28,7 @@ public class ProductServiceImplementation implements ProductService {
 
     private final ProductRepository productRepository;
     private final CategoryRepository categoryRepository;
+    private final CatalogVersion catalogVersion;
 
     @Override
     @Transactional
@@ -44,6 +46,7 @@ public class ProductServiceImplementation implements ProductService {
         product.setUpdatedAt(LocalDateTime.now());
 
         Product saved = productRepository.save(product);
+        catalogVersion.bump();
         log.info("Product created with ID: {}", saved.getProductId());
 
         return convertToDto(saved);
@@ -88,6 +91,7 @@ public class ProductServiceImplementation implements ProductService {
         product.setUpdatedAt(LocalDateTime.now());
 
         Product updated = productRepository.save(product);
+        catalogVersion.bump();
         log.info("Product with ID: {} updated successfully", id);
 
         return convertToDto(updated);
@@ -102,6 +106,7 @@ public class ProductServiceImplementation implements ProductService {
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found with ID: " + id));
 
         productRepository.delete(product);
+        catalogVersion.bump();
         log.info("Product with ID: {} has been deleted", id);
     }
 
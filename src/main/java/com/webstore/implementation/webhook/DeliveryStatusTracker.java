@@ -0,0 +1,151 @@
+package com.webstore.implementation.webhook;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Aggregates status callbacks per business phone number and measures how long
+ * the Graph API takes to get a message from "sent" to "delivered".
+ * <p>
+ * Everything here runs on the request thread, so it sticks to lock-free
+ * structures: {@link LongAdder} counters and a {@link ConcurrentHashMap} of
+ * sent timestamps waiting for their delivered callback.
+ */
+@Component
+public class DeliveryStatusTracker {
+
+    static final String UNKNOWN_PHONE_NUMBER = "unknown";
+
+    enum DeliveryState {
+        SENT, DELIVERED, READ, FAILED, OTHER;
+
+        static DeliveryState of(String status) {
+            return switch (status) {
+                case "sent" -> SENT;
+                case "delivered" -> DELIVERED;
+                case "read" -> READ;
+                case "failed" -> FAILED;
+                default -> OTHER;
+            };
+        }
+    }
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, PhoneNumberStats> statsByPhoneNumber = new ConcurrentHashMap<>();
+    // wamid -> epoch seconds; positive when "sent" arrived first, negative when "delivered" beat it
+    private final Map<String, Long> pending = new ConcurrentHashMap<>();
+    private final int pendingCapacity;
+    private final long pendingTtlSeconds;
+    private final LongSupplier epochSeconds;
+
+    @Autowired
+    public DeliveryStatusTracker(WhatsAppConfiguration whatsAppConfig, MeterRegistry meterRegistry) {
+        this(whatsAppConfig.getWebhook().getDelivery().getPendingCapacity(),
+                whatsAppConfig.getWebhook().getDelivery().getPendingTtl(),
+                meterRegistry, () -> System.currentTimeMillis() / 1000);
+    }
+
+    public DeliveryStatusTracker(int pendingCapacity, Duration pendingTtl,
+                                 MeterRegistry meterRegistry, LongSupplier epochSeconds) {
+        this.meterRegistry = meterRegistry;
+        this.pendingCapacity = pendingCapacity;
+        this.pendingTtlSeconds = pendingTtl.toSeconds();
+        this.epochSeconds = epochSeconds;
+
+        Gauge.builder("whatsapp.delivery.pending", pending, Map::size)
+                .description("Sent messages still waiting for their delivered callback")
+                .register(meterRegistry);
+    }
+
+    public void record(InboundStatus status) {
+        String phoneNumberId = status.getPhoneNumberId() != null ? status.getPhoneNumberId() : UNKNOWN_PHONE_NUMBER;
+        PhoneNumberStats stats = statsByPhoneNumber.computeIfAbsent(phoneNumberId, PhoneNumberStats::new);
+        DeliveryState state = DeliveryState.of(status.getStatus());
+        stats.counts[state.ordinal()].increment();
+
+        String messageId = status.getMessageId();
+        if (messageId == null || status.getTimestamp() <= 0) {
+            return;
+        }
+        switch (state) {
+            case SENT -> pair(stats, messageId, status.getTimestamp());
+            case DELIVERED -> pair(stats, messageId, -status.getTimestamp());
+            case FAILED -> pending.remove(messageId);
+            default -> {
+                // "read" implies delivered; a missing delivered callback is left to the purge
+            }
+        }
+    }
+
+    /**
+     * Stores this half of the sent/delivered pair, or completes the pair if
+     * the other half is already waiting. Callbacks can arrive in either order.
+     */
+    private void pair(PhoneNumberStats stats, String messageId, long signedTimestamp) {
+        Long other = pending.size() < pendingCapacity
+                ? pending.putIfAbsent(messageId, signedTimestamp)
+                : pending.get(messageId);
+        if (other == null || Long.signum(other) == Long.signum(signedTimestamp)) {
+            return;     // first half, or a redelivered callback
+        }
+        if (pending.remove(messageId, other)) {
+            long sentAt = Math.max(other, signedTimestamp);
+            long deliveredAt = -Math.min(other, signedTimestamp);
+            stats.deliveryLatency.record(Math.max(0, deliveredAt - sentAt), TimeUnit.SECONDS);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${whatsapp.webhook.delivery.purge-interval:PT10M}")
+    public void purgeExpired() {
+        long cutoff = epochSeconds.getAsLong() - pendingTtlSeconds;
+        pending.values().removeIf(timestamp -> Math.abs(timestamp) < cutoff);
+    }
+
+    public long getCount(String phoneNumberId, String status) {
+        PhoneNumberStats stats = statsByPhoneNumber.get(phoneNumberId);
+        return stats == null ? 0 : stats.counts[DeliveryState.of(status).ordinal()].sum();
+    }
+
+    public int getPendingCount() {
+        return pending.size();
+    }
+
+    private final class PhoneNumberStats {
+
+        private final LongAdder[] counts = new LongAdder[DeliveryState.values().length];
+        private final Timer deliveryLatency;
+
+        PhoneNumberStats(String phoneNumberId) {
+            for (DeliveryState state : DeliveryState.values()) {
+                LongAdder count = new LongAdder();
+                counts[state.ordinal()] = count;
+                FunctionCounter.builder("whatsapp.status.callbacks", count, LongAdder::sum)
+                        .description("Status callbacks received from the Graph API")
+                        .tag("phone_number_id", phoneNumberId)
+                        .tag("status", state.name().toLowerCase(Locale.ROOT))
+                        .register(meterRegistry);
+            }
+            this.deliveryLatency = Timer.builder("whatsapp.delivery.latency")
+                    .description("Time from the sent callback to the delivered callback")
+                    .tag("phone_number_id", phoneNumberId)
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofSeconds(1))
+                    .maximumExpectedValue(Duration.ofMinutes(30))
+                    .register(meterRegistry);
+        }
+    }
+}
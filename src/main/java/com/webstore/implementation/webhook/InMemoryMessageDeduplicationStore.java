@@ -0,0 +1,164 @@
+package com.webstore.implementation.webhook;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded, time-windowed de-duplication held entirely in memory.
+ * <p>
+ * Ids are reduced to 64-bit hashes and kept in lock-striped segments. Each
+ * segment is a ring buffer (oldest entry is evicted first) indexed by an
+ * open-addressing table of primitive ints, so a lookup allocates nothing and
+ * memory stays fixed at roughly 20 bytes per remembered id.
+ */
+@Component
+@ConditionalOnProperty(prefix = "whatsapp.webhook.dedup", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryMessageDeduplicationStore implements MessageDeduplicationStore {
+
+    private static final int SEGMENTS = 16;
+    private static final int MIN_SEGMENT_CAPACITY = 16;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    @Autowired
+    public InMemoryMessageDeduplicationStore(WhatsAppConfiguration whatsAppConfig) {
+        this(whatsAppConfig.getWebhook().getDedup().getCapacity(),
+                whatsAppConfig.getWebhook().getDedup().getTtl(), System::nanoTime);
+    }
+
+    public InMemoryMessageDeduplicationStore(int capacity, Duration ttl, LongSupplier clock) {
+        int segmentCapacity = Math.max(MIN_SEGMENT_CAPACITY, Integer.highestOneBit(Math.max(1, capacity / SEGMENTS - 1)) << 1);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    @Override
+    public boolean markIfNew(String messageId) {
+        if (messageId == null) {
+            return true;
+        }
+        long hash = hash(messageId);
+        return segments[(int) (hash >>> 60)].markIfNew(hash, clock.getAsLong());
+    }
+
+    public int getCapacity() {
+        return SEGMENTS * segments[0].ringHash.length;
+    }
+
+    /**
+     * FNV-1a over the chars followed by a murmur finaliser. Never returns 0,
+     * which marks an empty ring slot.
+     */
+    static long hash(CharSequence value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h == 0 ? 1 : h;
+    }
+
+    private final class Segment {
+
+        // Insertion-ordered ring: the slot at head is the oldest and is evicted next
+        private final long[] ringHash;
+        private final long[] ringTime;
+        private final int ringMask;
+        private int head;
+
+        // Linear-probing index into the ring, storing ring position + 1 (0 = empty)
+        private final int[] table;
+        private final int tableMask;
+
+        Segment(int capacity) {
+            this.ringHash = new long[capacity];
+            this.ringTime = new long[capacity];
+            this.ringMask = capacity - 1;
+            this.table = new int[capacity * 2];
+            this.tableMask = table.length - 1;
+        }
+
+        synchronized boolean markIfNew(long hash, long now) {
+            int slot = find(hash);
+            if (slot >= 0) {
+                int position = table[slot] - 1;
+                if (now - ringTime[position] < ttlNanos) {
+                    return false;
+                }
+                ringTime[position] = now;
+                return true;
+            }
+
+            if (ringHash[head] != 0) {
+                remove(ringHash[head]);
+            }
+            ringHash[head] = hash;
+            ringTime[head] = now;
+            insert(hash, head);
+            head = (head + 1) & ringMask;
+            return true;
+        }
+
+        private int home(long hash) {
+            return (int) hash & tableMask;
+        }
+
+        private int find(long hash) {
+            for (int i = home(hash); ; i = (i + 1) & tableMask) {
+                int entry = table[i];
+                if (entry == 0) {
+                    return -1;
+                }
+                if (ringHash[entry - 1] == hash) {
+                    return i;
+                }
+            }
+        }
+
+        private void insert(long hash, int position) {
+            int i = home(hash);
+            while (table[i] != 0) {
+                i = (i + 1) & tableMask;
+            }
+            table[i] = position + 1;
+        }
+
+        // Backward-shift deletion keeps probe chains intact without tombstones
+        private void remove(long hash) {
+            int i = find(hash);
+            if (i < 0) {
+                return;
+            }
+            int j = i;
+            while (true) {
+                j = (j + 1) & tableMask;
+                int entry = table[j];
+                if (entry == 0) {
+                    break;
+                }
+                int k = home(ringHash[entry - 1]);
+                boolean reachable = (j > i) ? (k > i && k <= j) : (k > i || k <= j);
+                if (!reachable) {
+                    table[i] = entry;
+                    i = j;
+                }
+            }
+            table[i] = 0;
+        }
+    }
+}
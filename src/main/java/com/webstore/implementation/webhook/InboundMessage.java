@@ -0,0 +1,23 @@
+package com.webstore.implementation.webhook;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * One customer interaction pulled out of a webhook batch, flattened to the
+ * fields the handlers actually read.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class InboundMessage {
+
+    private final String phoneNumberId;
+    private final String from;
+    private final String messageId;
+    private final String type;              // "text" or "interactive"
+    private final String textBody;          // text messages only
+    private final String interactiveType;   // "button_reply" or "list_reply"
+    private final String replyId;           // button or list row id
+}
@@ -0,0 +1,21 @@
+package com.webstore.implementation.webhook;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * One delivery status callback for a message we sent (sent, delivered,
+ * read or failed), as reported by the Graph API.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class InboundStatus {
+
+    private final String phoneNumberId;
+    private final String messageId;         // wamid of our outbound message
+    private final String recipientId;
+    private final String status;
+    private final long timestamp;           // epoch seconds, 0 when absent
+}
@@ -0,0 +1,71 @@
+package com.webstore.implementation.webhook;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * De-duplication shared by every node behind the webhook URL, backed by the
+ * {@code processed_message} table. A node-local in-memory store sits in front
+ * so repeats that hit the same node never reach the database.
+ */
+@Component
+@ConditionalOnProperty(prefix = "whatsapp.webhook.dedup", name = "store", havingValue = "postgres")
+public class JdbcMessageDeduplicationStore implements MessageDeduplicationStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcMessageDeduplicationStore.class);
+
+    // Inserts a new id, or re-arms one whose window expired; touches 0 rows for a live repeat
+    private static final String MARK_SQL =
+            "INSERT INTO web_store.processed_message (message_id, received_at) VALUES (?, ?) " +
+            "ON CONFLICT (message_id) DO UPDATE SET received_at = EXCLUDED.received_at " +
+            "WHERE web_store.processed_message.received_at < ?";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM web_store.processed_message WHERE received_at < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MessageDeduplicationStore localStore;
+    private final Duration ttl;
+
+    public JdbcMessageDeduplicationStore(JdbcTemplate jdbcTemplate, WhatsAppConfiguration whatsAppConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.localStore = new InMemoryMessageDeduplicationStore(whatsAppConfig);
+        this.ttl = whatsAppConfig.getWebhook().getDedup().getTtl();
+    }
+
+    @Override
+    public boolean markIfNew(String messageId) {
+        if (messageId == null) {
+            return true;
+        }
+        if (!localStore.markIfNew(messageId)) {
+            return false;
+        }
+
+        Instant now = Instant.now();
+        try {
+            return jdbcTemplate.update(MARK_SQL, messageId,
+                    Timestamp.from(now), Timestamp.from(now.minus(ttl))) > 0;
+        } catch (DataAccessException e) {
+            // Fail open: handling a message twice beats dropping it
+            logger.warn("De-duplication lookup failed for {}: {}", messageId, e.getMessage());
+            return true;
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${whatsapp.webhook.dedup.purge-interval:PT10M}")
+    public void purgeExpired() {
+        int removed = jdbcTemplate.update(PURGE_SQL, Timestamp.from(Instant.now().minus(ttl)));
+        logger.debug("Purged {} expired message ids", removed);
+    }
+}
@@ -0,0 +1,16 @@
+package com.webstore.implementation.webhook;
+
+/**
+ * Remembers WhatsApp message ids for a time window so that Meta redeliveries
+ * are dropped before any handler runs.
+ */
+public interface MessageDeduplicationStore {
+
+    /**
+     * Records the id and reports whether it was seen before inside the window.
+     *
+     * @return true the first time an id is seen (or once its window expired),
+     * false for a repeat that should be dropped
+     */
+    boolean markIfNew(String messageId);
+}
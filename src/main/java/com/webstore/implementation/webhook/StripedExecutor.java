@@ -0,0 +1,168 @@
+package com.webstore.implementation.webhook;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Queue;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Runs tasks that share a key one after another, in submission order, while
+ * tasks for different keys run in parallel on the backing executor.
+ * <p>
+ * Keys are hashed onto a fixed number of lanes. A lane is a serial queue that
+ * occupies at most one backing thread at a time, so with more lanes than
+ * threads every core stays busy as long as there are distinct senders.
+ * <p>
+ * A task submitted with {@link #executeAsync} holds its lane until the stage
+ * it returns completes, but not the thread: the lane gives the thread back
+ * and resumes on whichever thread completes the stage.
+ */
+public class StripedExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(StripedExecutor.class);
+
+    // Tasks a lane runs before yielding its thread to other lanes
+    private static final int DRAIN_BATCH = 32;
+
+    private final Lane[] lanes;
+    private final int laneCapacity;
+    private final Executor executor;
+
+    public StripedExecutor(int stripes, int laneCapacity, Executor executor) {
+        if (stripes < 1 || laneCapacity < 1) {
+            throw new IllegalArgumentException("Stripes and lane capacity must be positive");
+        }
+        this.lanes = new Lane[stripes];
+        for (int i = 0; i < stripes; i++) {
+            lanes[i] = new Lane();
+        }
+        this.laneCapacity = laneCapacity;
+        this.executor = executor;
+    }
+
+    /**
+     * @throws RejectedExecutionException when the key's lane already holds
+     * {@code laneCapacity} tasks, counting the one currently running
+     */
+    public void execute(Object key, Runnable task) {
+        lanes[laneIndex(key)].submit(() -> {
+            task.run();
+            return null;
+        });
+    }
+
+    /**
+     * Like {@link #execute}, but the key's next task only starts once the
+     * stage returned by {@code task} has completed, normally or not. A null
+     * stage counts as already complete.
+     */
+    public void executeAsync(Object key, Supplier<? extends CompletionStage<?>> task) {
+        lanes[laneIndex(key)].submit(task);
+    }
+
+    public int laneIndex(Object key) {
+        int h = key == null ? 0 : key.hashCode();
+        h ^= (h >>> 16);
+        return (h & 0x7fffffff) % lanes.length;
+    }
+
+    public int getStripeCount() {
+        return lanes.length;
+    }
+
+    public int getLaneCapacity() {
+        return laneCapacity;
+    }
+
+    public int getQueuedTasks() {
+        int total = 0;
+        for (Lane lane : lanes) {
+            total += lane.depth.get();
+        }
+        return total;
+    }
+
+    public int getMaxLaneDepth() {
+        int max = 0;
+        for (Lane lane : lanes) {
+            max = Math.max(max, lane.depth.get());
+        }
+        return max;
+    }
+
+    public int getBusyLanes() {
+        int busy = 0;
+        for (Lane lane : lanes) {
+            if (lane.scheduled.get()) {
+                busy++;
+            }
+        }
+        return busy;
+    }
+
+    private final class Lane implements Runnable {
+
+        private final Queue<Supplier<? extends CompletionStage<?>>> tasks = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger depth = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        void submit(Supplier<? extends CompletionStage<?>> task) {
+            if (depth.incrementAndGet() > laneCapacity) {
+                depth.decrementAndGet();
+                throw new RejectedExecutionException("Lane is full (" + laneCapacity + " tasks)");
+            }
+            tasks.offer(task);
+            schedule();
+        }
+
+        private void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                executor.execute(this);
+            }
+        }
+
+        private void resume() {
+            try {
+                executor.execute(this);
+            } catch (RejectedExecutionException e) {
+                // Shutting down; the remaining tasks stay uncommitted in the journal and are replayed on restart
+                logger.warn("Lane not resumed, {} tasks left: {}", depth.get(), e.getMessage());
+            }
+        }
+
+        @Override
+        public void run() {
+            Supplier<? extends CompletionStage<?>> task;
+            int budget = DRAIN_BATCH;
+            while (budget-- > 0 && (task = tasks.poll()) != null) {
+                CompletionStage<?> pending = null;
+                try {
+                    pending = task.get();
+                } catch (RuntimeException e) {
+                    logger.error("Lane task failed: {}", e.getMessage(), e);
+                }
+                if (pending != null && !pending.toCompletableFuture().isDone()) {
+                    // The lane stays scheduled, so nothing else starts it; it resumes when the stage completes
+                    pending.whenComplete((result, failure) -> {
+                        depth.decrementAndGet();
+                        resume();
+                    });
+                    return;
+                }
+                depth.decrementAndGet();
+            }
+            scheduled.set(false);
+            // A task may have arrived after the last poll but before the flag was cleared
+            if (!tasks.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
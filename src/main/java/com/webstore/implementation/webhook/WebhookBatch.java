@@ -0,0 +1,22 @@
+package com.webstore.implementation.webhook;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Everything one webhook delivery carried: customer messages, which go to
+ * the handlers, and status callbacks, which only feed delivery metrics.
+ */
+@Getter
+@RequiredArgsConstructor
+public class WebhookBatch {
+
+    private final List<InboundMessage> messages;
+    private final List<InboundStatus> statuses;
+
+    public boolean isEmpty() {
+        return messages.isEmpty() && statuses.isEmpty();
+    }
+}
@@ -0,0 +1,97 @@
+package com.webstore.implementation.webhook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webstore.configuration.WhatsAppConfiguration;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Appends sanitized webhook bodies to a newline-delimited JSON file for the
+ * load harness in {@code src/loadtest}. Writing happens on its own thread
+ * behind a bounded queue; when the queue is full the capture is dropped
+ * rather than slowing down the webhook.
+ */
+@Component
+public class WebhookCaptureRecorder {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookCaptureRecorder.class);
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final Path file;
+    private final ThreadPoolExecutor writerThread;
+    private BufferedWriter writer;
+
+    public WebhookCaptureRecorder(WhatsAppConfiguration whatsAppConfig, ObjectMapper objectMapper) {
+        WhatsAppConfiguration.Capture capture = whatsAppConfig.getWebhook().getCapture();
+        this.objectMapper = objectMapper;
+        this.enabled = capture.isEnabled();
+        this.file = Paths.get(capture.getFile());
+        this.writerThread = enabled
+                ? new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(capture.getQueueCapacity()),
+                        new CustomizableThreadFactory("webhook-capture-"))
+                : null;
+        if (enabled) {
+            logger.warn("Webhook capture is on, writing sanitized payloads to {}", file.toAbsolutePath());
+        }
+    }
+
+    public void record(byte[] body) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            writerThread.execute(() -> write(body));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Capture queue full, dropping one payload");
+        }
+    }
+
+    private void write(byte[] body) {
+        try {
+            JsonNode tree = objectMapper.readTree(body);
+            WebhookPayloadSanitizer.sanitize(tree);
+            if (writer == null) {
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                        StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            }
+            writer.write(objectMapper.writeValueAsString(tree));
+            writer.newLine();
+            writer.flush();
+        } catch (IOException e) {
+            logger.warn("Could not capture webhook payload: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException, IOException {
+        if (!enabled) {
+            return;
+        }
+        writerThread.shutdown();
+        writerThread.awaitTermination(5, TimeUnit.SECONDS);
+        if (writer != null) {
+            writer.close();
+        }
+    }
+}
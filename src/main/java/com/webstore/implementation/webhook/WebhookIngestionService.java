@@ -0,0 +1,204 @@
+package com.webstore.implementation.webhook;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.service.whatsapp.core.InteractionExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Accepts webhook payloads on the servlet thread and hands them to a dedicated
+ * worker pool, so Meta gets its 200 before any database or Graph API work runs.
+ * <p>
+ * Messages are queued on per-sender lanes keyed by the {@code from} number:
+ * two taps from the same phone never race, different phones run in parallel.
+ * A handler queues its replies and returns its worker to the pool at once;
+ * the lane waits for the replies to be answered, without a thread, before it
+ * starts the sender's next message.
+ * Status callbacks skip the lanes entirely and are only counted.
+ * <p>
+ * Every message is written to the {@link WebhookJournal} before it is queued
+ * and committed once handled, so taps acknowledged just before a crash are
+ * replayed on the next start.
+ */
+@Service
+public class WebhookIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookIngestionService.class);
+
+    private final WebhookPayloadParser payloadParser;
+    private final WebhookValidator webhookValidator;
+    private final MessageDeduplicationStore deduplicationStore;
+    private final DeliveryStatusTracker deliveryStatusTracker;
+    private final WebhookJournal journal;
+    private final ExecutorService workers;
+    private final StripedExecutor lanes;
+
+    private final Counter acceptedCounter;
+    private final Counter rejectedCounter;
+    private final Counter invalidCounter;
+    private final Counter duplicateCounter;
+    private final Timer queueWaitTimer;
+
+    public WebhookIngestionService(WhatsAppConfiguration whatsAppConfig,
+                                   WebhookPayloadParser payloadParser,
+                                   WebhookValidator webhookValidator,
+                                   MessageDeduplicationStore deduplicationStore,
+                                   DeliveryStatusTracker deliveryStatusTracker,
+                                   WebhookJournal journal,
+                                   InteractionExecutor interactionExecutor,
+                                   MeterRegistry meterRegistry) {
+        this.payloadParser = payloadParser;
+        this.webhookValidator = webhookValidator;
+        this.deduplicationStore = deduplicationStore;
+        this.deliveryStatusTracker = deliveryStatusTracker;
+        this.journal = journal;
+
+        WhatsAppConfiguration.Ingestion ingestion = whatsAppConfig.getWebhook().getIngestion();
+        // Each lane occupies at most one worker at a time, so at most one thread or queued run per stripe
+        this.workers = interactionExecutor.newExecutor("webhook-worker-", ingestion.getWorkerThreads());
+        this.lanes = new StripedExecutor(ingestion.getStripes(), ingestion.getLaneCapacity(), workers);
+
+        Gauge.builder("whatsapp.webhook.queue.depth", lanes, StripedExecutor::getQueuedTasks)
+                .description("Messages queued or running across all sender lanes")
+                .register(meterRegistry);
+        Gauge.builder("whatsapp.webhook.lanes.busy", lanes, StripedExecutor::getBusyLanes)
+                .description("Sender lanes currently holding a worker or waiting for their replies to be answered")
+                .register(meterRegistry);
+        Gauge.builder("whatsapp.webhook.lanes.max.depth", lanes, StripedExecutor::getMaxLaneDepth)
+                .description("Deepest sender lane; compare with the lane capacity")
+                .register(meterRegistry);
+        this.acceptedCounter = Counter.builder("whatsapp.webhook.accepted")
+                .description("Inbound messages queued for handling")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("whatsapp.webhook.rejected")
+                .description("Inbound messages refused because their lane was full")
+                .register(meterRegistry);
+        this.invalidCounter = Counter.builder("whatsapp.webhook.invalid")
+                .description("Webhook bodies that were not well-formed JSON")
+                .register(meterRegistry);
+        this.duplicateCounter = Counter.builder("whatsapp.webhook.duplicate")
+                .description("Redelivered messages dropped by message id")
+                .register(meterRegistry);
+        this.queueWaitTimer = Timer.builder("whatsapp.webhook.queue.wait")
+                .description("Time between acknowledging a webhook and a worker picking it up")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Extracts the messages from the raw webhook body and queues each one on
+     * its sender's lane. Status callbacks are recorded inline, since they
+     * cost a couple of counter updates and never touch a handler.
+     *
+     * @return false when at least one message was refused because its lane
+     * is full, in which case the caller should let Meta redeliver the batch
+     * @throws IllegalArgumentException when the body is not well-formed JSON
+     */
+    public boolean submit(byte[] payload) {
+        WebhookBatch batch;
+        try {
+            batch = payloadParser.parse(payload);
+        } catch (IOException e) {
+            invalidCounter.increment();
+            throw new IllegalArgumentException("Malformed webhook payload", e);
+        }
+        for (InboundStatus status : batch.getStatuses()) {
+            deliveryStatusTracker.record(status);
+        }
+        if (batch.isEmpty()) {
+            logger.debug("Webhook carried no messages or statuses");
+            return true;
+        }
+
+        boolean allAccepted = true;
+        for (InboundMessage message : batch.getMessages()) {
+            allAccepted &= enqueue(message);
+        }
+        return allAccepted;
+    }
+
+    /**
+     * Replays messages the previous run acknowledged but never finished. They
+     * run here, in journal order, before the lanes see much live traffic.
+     * The previous run already marked them in the de-duplication store, which
+     * outlives a restart when it is backed by Postgres, so they are dispatched
+     * whatever it answers.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void replayJournal() {
+        List<WebhookJournal.Entry> entries = journal.drainRecovered();
+        if (entries.isEmpty()) {
+            return;
+        }
+        logger.info("Replaying {} journaled messages", entries.size());
+        for (WebhookJournal.Entry entry : entries) {
+            try {
+                process(entry.getMessage(), true).join();
+            } finally {
+                journal.commit(entry.getOffset());
+            }
+        }
+    }
+
+    private boolean enqueue(InboundMessage message) {
+        long journalOffset = journal.append(message);
+        long enqueuedAt = System.nanoTime();
+        try {
+            lanes.executeAsync(message.getFrom(), () -> {
+                queueWaitTimer.record(System.nanoTime() - enqueuedAt, TimeUnit.NANOSECONDS);
+                // Committed once the replies were answered, so a crash before that replays the message
+                return process(message, false).whenComplete((ignored, failure) -> journal.commit(journalOffset));
+            });
+            acceptedCounter.increment();
+            return true;
+        } catch (RejectedExecutionException e) {
+            // Meta redelivers the batch after the 503, so this copy is not needed
+            journal.commit(journalOffset);
+            rejectedCounter.increment();
+            logger.warn("Sender lane full, rejecting message {}", message.getMessageId());
+            return false;
+        }
+    }
+
+    /**
+     * @param replayed the message comes from the journal; it is still marked, so a
+     *                 redelivery by Meta is dropped, but never dropped itself
+     * @return completes once the message's replies have been answered; never exceptionally
+     */
+    private CompletableFuture<Void> process(InboundMessage message, boolean replayed) {
+        // Checked on the worker, not at enqueue time, so a message refused by a full lane is not remembered
+        if (!deduplicationStore.markIfNew(message.getMessageId()) && !replayed) {
+            duplicateCounter.increment();
+            logger.info("Dropping redelivered message {}", message.getMessageId());
+            return CompletableFuture.completedFuture(null);
+        }
+        try {
+            return webhookValidator.dispatch(message);
+        } catch (Exception e) {
+            logger.error("Failed to process message {}: {}", message.getMessageId(), e.getMessage(), e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        workers.shutdown();
+        if (!workers.awaitTermination(10, TimeUnit.SECONDS)) {
+            logger.warn("Webhook workers did not drain in time, {} lanes dropped", workers.shutdownNow().size());
+        }
+    }
+}
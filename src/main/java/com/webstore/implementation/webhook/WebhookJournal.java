@@ -0,0 +1,373 @@
+package com.webstore.implementation.webhook;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * Append-only, memory-mapped journal of accepted inbound messages, so a
+ * webhook can be acknowledged before it is handled without losing the tap if
+ * the process dies in between.
+ * <p>
+ * The journal is a directory of fixed-size segment files named after the
+ * offset of their first byte. Each record is laid out as
+ * {@code [length:int][crc32c:int][state:int][body]}; a zero length marks the
+ * end of written data. Committing a record flips its state in place, and a
+ * rolled segment is deleted once every record in it is committed. On startup,
+ * records still pending are handed back for replay.
+ * <p>
+ * Appends land in the page cache and survive a process crash immediately;
+ * {@code sync-interval} and {@code sync-batch} bound how much an OS crash or
+ * power loss can take with it. Replay is at-least-once: a commit that had not
+ * reached the disk replays its message again.
+ */
+@Component
+public class WebhookJournal {
+
+    private static final Logger logger = LoggerFactory.getLogger(WebhookJournal.class);
+
+    private static final String SUFFIX = ".journal";
+    private static final int HEADER_SIZE = 12;
+    private static final int STATE_PENDING = 1;
+    private static final int STATE_COMMITTED = 2;
+
+    /** Offset returned by {@link #append} when journaling is switched off. */
+    public static final long NOT_JOURNALED = -1;
+
+    private final boolean enabled;
+    private final Path directory;
+    private final int segmentSize;
+    private final long syncIntervalNanos;
+    private final int syncBatch;
+
+    private final ConcurrentSkipListMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+    private final List<Entry> recovered = new ArrayList<>();
+    private final Object appendLock = new Object();
+    private Segment active;
+    private int unsynced;
+    private ScheduledExecutorService syncer;
+
+    @Autowired
+    public WebhookJournal(WhatsAppConfiguration whatsAppConfig) {
+        this(whatsAppConfig.getWebhook().getJournal().isEnabled(),
+                Paths.get(whatsAppConfig.getWebhook().getJournal().getDirectory()),
+                (int) whatsAppConfig.getWebhook().getJournal().getSegmentSize().toBytes(),
+                whatsAppConfig.getWebhook().getJournal().getSyncInterval(),
+                whatsAppConfig.getWebhook().getJournal().getSyncBatch());
+    }
+
+    public WebhookJournal(boolean enabled, Path directory, int segmentSize, Duration syncInterval, int syncBatch) {
+        this.enabled = enabled;
+        this.directory = directory;
+        this.segmentSize = segmentSize;
+        this.syncIntervalNanos = syncInterval.toNanos();
+        this.syncBatch = Math.max(1, syncBatch);
+        if (!enabled) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            recover();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open webhook journal in " + directory, e);
+        }
+        if (syncIntervalNanos > 0) {
+            syncer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "webhook-journal-sync");
+                thread.setDaemon(true);
+                return thread;
+            });
+            syncer.scheduleWithFixedDelay(this::sync, syncIntervalNanos, syncIntervalNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Durably records the message before it is queued.
+     *
+     * @return the record offset to pass to {@link #commit}, or
+     * {@link #NOT_JOURNALED} when the journal is disabled
+     */
+    public long append(InboundMessage message) {
+        if (!enabled) {
+            return NOT_JOURNALED;
+        }
+        byte[] body = encode(message);
+        int recordSize = HEADER_SIZE + body.length;
+        if (recordSize + 4 > segmentSize) {
+            throw new IllegalArgumentException("Message " + message.getMessageId() + " does not fit a journal segment");
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(body);
+
+        Segment segment;
+        long offset;
+        boolean flush;
+        synchronized (appendLock) {
+            // Keep 4 bytes spare so the zero end marker always fits after the last record
+            if (active.writePosition + recordSize + 4 > segmentSize) {
+                roll();
+            }
+            segment = active;
+            int position = segment.writePosition;
+            segment.pending.incrementAndGet();
+            segment.buffer.put(position + HEADER_SIZE, body);
+            segment.buffer.putInt(position + 4, (int) crc.getValue());
+            segment.buffer.putInt(position + 8, STATE_PENDING);
+            // Length goes last: a torn record reads as zero length or fails its CRC
+            segment.buffer.putInt(position, body.length);
+            segment.writePosition = position + recordSize;
+            offset = segment.baseOffset + position;
+
+            flush = syncIntervalNanos == 0 || ++unsynced >= syncBatch;
+            if (flush) {
+                unsynced = 0;
+            }
+        }
+        // Flushed outside the lock so other appends are not held up by the disk
+        if (flush) {
+            segment.buffer.force();
+        }
+        return offset;
+    }
+
+    /**
+     * Marks the record as handled. Once every record of a rolled segment is
+     * committed, the segment file is deleted.
+     */
+    public void commit(long offset) {
+        if (offset == NOT_JOURNALED) {
+            return;
+        }
+        Map.Entry<Long, Segment> floor = segments.floorEntry(offset);
+        if (floor == null) {
+            logger.warn("Commit for unknown journal offset {}", offset);
+            return;
+        }
+        Segment segment = floor.getValue();
+        segment.buffer.putInt((int) (offset - segment.baseOffset) + 8, STATE_COMMITTED);
+        if (segment.pending.decrementAndGet() == 0 && segment.sealed) {
+            delete(segment);
+        }
+    }
+
+    /**
+     * @return messages that were journaled but never committed before the last
+     * shutdown, in append order; each is returned only once
+     */
+    public List<Entry> drainRecovered() {
+        synchronized (recovered) {
+            List<Entry> entries = new ArrayList<>(recovered);
+            recovered.clear();
+            return entries;
+        }
+    }
+
+    public int getSegmentCount() {
+        return segments.size();
+    }
+
+    public void sync() {
+        Segment segment;
+        synchronized (appendLock) {
+            if (unsynced == 0 || active == null) {
+                return;
+            }
+            segment = active;
+            unsynced = 0;
+        }
+        segment.buffer.force();
+    }
+
+    @PreDestroy
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        if (syncer != null) {
+            syncer.shutdownNow();
+        }
+        synchronized (appendLock) {
+            active.buffer.force();
+        }
+    }
+
+    private void recover() throws IOException {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(directory)) {
+            files = listing.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+
+        long nextBase = 0;
+        for (Path file : files) {
+            Segment segment = openSegment(file, parseBaseOffset(file), (int) Files.size(file));
+            segment.sealed = true;
+            segments.put(segment.baseOffset, segment);
+            nextBase = Math.max(nextBase, segment.baseOffset + segment.buffer.capacity());
+            scan(segment);
+            if (segment.pending.get() == 0) {
+                delete(segment);
+            }
+        }
+        if (!recovered.isEmpty()) {
+            logger.warn("Webhook journal holds {} unprocessed messages from the previous run", recovered.size());
+        }
+        active = createSegment(nextBase);
+    }
+
+    private void scan(Segment segment) {
+        ByteBuffer buffer = segment.buffer;
+        int position = 0;
+        while (position + HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length <= 0 || position + HEADER_SIZE + length > buffer.capacity()) {
+                break;
+            }
+            byte[] body = new byte[length];
+            buffer.get(position + HEADER_SIZE, body);
+            CRC32C crc = new CRC32C();
+            crc.update(body);
+            if ((int) crc.getValue() != buffer.getInt(position + 4)) {
+                logger.warn("Torn record at offset {} in {}, ignoring the rest of the segment",
+                        segment.baseOffset + position, segment.path.getFileName());
+                break;
+            }
+            if (buffer.getInt(position + 8) == STATE_PENDING) {
+                segment.pending.incrementAndGet();
+                recovered.add(new Entry(segment.baseOffset + position, decode(body)));
+            }
+            position += HEADER_SIZE + length;
+        }
+        segment.writePosition = position;
+    }
+
+    private void roll() {
+        Segment previous = active;
+        previous.buffer.force();
+        unsynced = 0;
+        active = createSegment(previous.baseOffset + segmentSize);
+        previous.sealed = true;
+        if (previous.pending.get() == 0) {
+            delete(previous);
+        }
+    }
+
+    private Segment createSegment(long baseOffset) {
+        Path file = directory.resolve(String.format("%020d%s", baseOffset, SUFFIX));
+        try {
+            Segment segment = openSegment(file, baseOffset, segmentSize);
+            segments.put(baseOffset, segment);
+            return segment;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create journal segment " + file, e);
+        }
+    }
+
+    private Segment openSegment(Path file, long baseOffset, int size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            // The mapping stays valid after the channel is closed
+            return new Segment(baseOffset, file, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+    }
+
+    private void delete(Segment segment) {
+        if (!segment.deleted.compareAndSet(false, true)) {
+            return;
+        }
+        segments.remove(segment.baseOffset);
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            logger.warn("Could not delete journal segment {}: {}", segment.path, e.getMessage());
+        }
+    }
+
+    private static long parseBaseOffset(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+    }
+
+    static byte[] encode(InboundMessage message) {
+        String[] fields = {message.getPhoneNumberId(), message.getFrom(), message.getMessageId(),
+                message.getType(), message.getTextBody(), message.getInteractiveType(), message.getReplyId()};
+        byte[][] encoded = new byte[fields.length][];
+        int size = 0;
+        for (int i = 0; i < fields.length; i++) {
+            encoded[i] = fields[i] == null ? null : fields[i].getBytes(StandardCharsets.UTF_8);
+            size += 4 + (encoded[i] == null ? 0 : encoded[i].length);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] field : encoded) {
+            buffer.putInt(field == null ? -1 : field.length);
+            if (field != null) {
+                buffer.put(field);
+            }
+        }
+        return buffer.array();
+    }
+
+    static InboundMessage decode(byte[] body) {
+        ByteBuffer buffer = ByteBuffer.wrap(body);
+        String[] fields = new String[7];
+        for (int i = 0; i < fields.length; i++) {
+            int length = buffer.getInt();
+            if (length >= 0) {
+                fields[i] = new String(body, buffer.position(), length, StandardCharsets.UTF_8);
+                buffer.position(buffer.position() + length);
+            }
+        }
+        return new InboundMessage(fields[0], fields[1], fields[2], fields[3], fields[4], fields[5], fields[6]);
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Entry {
+        private final long offset;
+        private final InboundMessage message;
+    }
+
+    private static final class Segment {
+
+        private final long baseOffset;
+        private final Path path;
+        private final MappedByteBuffer buffer;
+        private final AtomicInteger pending = new AtomicInteger();
+        private final AtomicBoolean deleted = new AtomicBoolean();
+        private int writePosition;
+        private volatile boolean sealed;
+
+        Segment(long baseOffset, Path path, MappedByteBuffer buffer) {
+            this.baseOffset = baseOffset;
+            this.path = path;
+            this.buffer = buffer;
+        }
+    }
+}
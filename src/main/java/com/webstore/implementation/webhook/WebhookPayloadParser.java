@@ -0,0 +1,247 @@
+package com.webstore.implementation.webhook;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pulls the handful of fields the handlers need straight out of the raw
+ * webhook bytes in a single streaming pass, without binding the full
+ * {@code WebhookRequestDto} tree. Everything else in the payload (contacts,
+ * profile names, pricing, unknown fields) is skipped token by token.
+ * <p>
+ * Status callbacks come back in the same pass, so the common "delivered" and
+ * "read" deliveries never reach message handling at all.
+ */
+@Component
+public class WebhookPayloadParser {
+
+    private final JsonFactory jsonFactory;
+
+    public WebhookPayloadParser(ObjectMapper objectMapper) {
+        this.jsonFactory = objectMapper.getFactory();
+    }
+
+    /**
+     * @return every message and status in the batch, in payload order
+     * @throws IOException when the body is not well-formed JSON
+     */
+    public WebhookBatch parse(byte[] body) throws IOException {
+        WebhookBatch result = new WebhookBatch(new ArrayList<>(), new ArrayList<>());
+        try (JsonParser parser = jsonFactory.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return result;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_ARRAY && "entry".equals(field)) {
+                    parseEntries(parser, result);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return result;
+    }
+
+    private void parseEntries(JsonParser parser, WebhookBatch result) throws IOException {
+        while (nextArrayObject(parser)) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_ARRAY && "changes".equals(field)) {
+                    parseChanges(parser, result);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void parseChanges(JsonParser parser, WebhookBatch result) throws IOException {
+        while (nextArrayObject(parser)) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_OBJECT && "value".equals(field)) {
+                    parseValue(parser, result);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+    }
+
+    private void parseValue(JsonParser parser, WebhookBatch result) throws IOException {
+        String phoneNumberId = null;
+        List<MessageFields> messages = null;
+        List<StatusFields> statuses = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_OBJECT && "metadata".equals(field)) {
+                phoneNumberId = parsePhoneNumberId(parser);
+            } else if (token == JsonToken.START_ARRAY && "messages".equals(field)) {
+                messages = parseMessages(parser);
+            } else if (token == JsonToken.START_ARRAY && "statuses".equals(field)) {
+                statuses = parseStatuses(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        // metadata may appear after messages, so the phone number id is attached once the value is closed
+        if (messages != null) {
+            for (MessageFields message : messages) {
+                result.getMessages().add(message.toInboundMessage(phoneNumberId));
+            }
+        }
+        if (statuses != null) {
+            for (StatusFields status : statuses) {
+                result.getStatuses().add(status.toInboundStatus(phoneNumberId));
+            }
+        }
+    }
+
+    private String parsePhoneNumberId(JsonParser parser) throws IOException {
+        String phoneNumberId = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if ("phone_number_id".equals(field)) {
+                phoneNumberId = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return phoneNumberId;
+    }
+
+    private List<MessageFields> parseMessages(JsonParser parser) throws IOException {
+        List<MessageFields> messages = new ArrayList<>(1);
+        while (nextArrayObject(parser)) {
+            MessageFields message = new MessageFields();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken token = parser.nextToken();
+                switch (field) {
+                    case "from" -> message.from = parser.getValueAsString();
+                    case "id" -> message.id = parser.getValueAsString();
+                    case "type" -> message.type = parser.getValueAsString();
+                    case "text" -> {
+                        if (token == JsonToken.START_OBJECT) {
+                            message.textBody = parseSingleField(parser, "body");
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    case "interactive" -> {
+                        if (token == JsonToken.START_OBJECT) {
+                            parseInteractive(parser, message);
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                    default -> parser.skipChildren();
+                }
+            }
+            if (message.from != null) {
+                messages.add(message);
+            }
+        }
+        return messages;
+    }
+
+    private List<StatusFields> parseStatuses(JsonParser parser) throws IOException {
+        List<StatusFields> statuses = new ArrayList<>(1);
+        while (nextArrayObject(parser)) {
+            StatusFields status = new StatusFields();
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                parser.nextToken();
+                switch (field) {
+                    case "id" -> status.id = parser.getValueAsString();
+                    case "status" -> status.status = parser.getValueAsString();
+                    case "timestamp" -> status.timestamp = parser.getValueAsLong();
+                    case "recipient_id" -> status.recipientId = parser.getValueAsString();
+                    default -> parser.skipChildren();
+                }
+            }
+            if (status.status != null) {
+                statuses.add(status);
+            }
+        }
+        return statuses;
+    }
+
+    private void parseInteractive(JsonParser parser, MessageFields message) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken token = parser.nextToken();
+            if ("type".equals(field)) {
+                message.interactiveType = parser.getValueAsString();
+            } else if (token == JsonToken.START_OBJECT
+                    && ("button_reply".equals(field) || "list_reply".equals(field))) {
+                message.replyId = parseSingleField(parser, "id");
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    // Advances to the next object element of the current array, skipping anything that is not an object
+    private boolean nextArrayObject(JsonParser parser) throws IOException {
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY && token != null) {
+            if (token == JsonToken.START_OBJECT) {
+                return true;
+            }
+            parser.skipChildren();
+        }
+        return false;
+    }
+
+    // Reads one scalar field out of the current object and skips the rest of it
+    private String parseSingleField(JsonParser parser, String wanted) throws IOException {
+        String value = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            parser.nextToken();
+            if (wanted.equals(field)) {
+                value = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return value;
+    }
+
+    private static final class MessageFields {
+        private String from;
+        private String id;
+        private String type;
+        private String textBody;
+        private String interactiveType;
+        private String replyId;
+
+        InboundMessage toInboundMessage(String phoneNumberId) {
+            return new InboundMessage(phoneNumberId, from, id, type, textBody, interactiveType, replyId);
+        }
+    }
+
+    private static final class StatusFields {
+        private String id;
+        private String status;
+        private String recipientId;
+        private long timestamp;
+
+        InboundStatus toInboundStatus(String phoneNumberId) {
+            return new InboundStatus(phoneNumberId, id, recipientId, status, timestamp);
+        }
+    }
+}
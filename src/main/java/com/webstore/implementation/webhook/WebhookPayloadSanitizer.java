@@ -0,0 +1,64 @@
+package com.webstore.implementation.webhook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.zip.CRC32C;
+
+/**
+ * Strips customer data from a webhook tree so it can be kept on disk for
+ * replay. Customer phone numbers become stable fake numbers (the same sender
+ * keeps the same fake number, so per-sender ordering survives), profile names
+ * are blanked, and long digit runs and e-mail addresses in free text are
+ * masked. Business ids and reply ids are kept because routing depends on them.
+ */
+public final class WebhookPayloadSanitizer {
+
+    private static final Set<String> CUSTOMER_NUMBER_FIELDS = Set.of("from", "wa_id", "recipient_id");
+    private static final Pattern EMAIL = Pattern.compile("[\\w.+-]+@[\\w-]+\\.[\\w.]+");
+    private static final Pattern LONG_NUMBER = Pattern.compile("\\d{5,}");
+
+    private WebhookPayloadSanitizer() {
+    }
+
+    public static void sanitize(JsonNode node) {
+        if (node instanceof ObjectNode object) {
+            Iterator<Map.Entry<String, JsonNode>> fields = object.fields();
+            while (fields.hasNext()) {
+                Map.Entry<String, JsonNode> field = fields.next();
+                String name = field.getKey();
+                JsonNode value = field.getValue();
+                if (value.isTextual() && CUSTOMER_NUMBER_FIELDS.contains(name)) {
+                    field.setValue(object.textNode(fakeNumber(value.asText())));
+                } else if (value.isTextual() && "name".equals(name)) {
+                    field.setValue(object.textNode("Customer"));
+                } else if (value.isTextual() && "body".equals(name)) {
+                    field.setValue(object.textNode(maskFreeText(value.asText())));
+                } else {
+                    sanitize(value);
+                }
+            }
+        } else if (node instanceof ArrayNode array) {
+            for (JsonNode element : array) {
+                sanitize(element);
+            }
+        }
+    }
+
+    static String fakeNumber(String number) {
+        CRC32C crc = new CRC32C();
+        crc.update(number.getBytes(StandardCharsets.UTF_8));
+        return String.format("1555%08d", crc.getValue() % 100_000_000L);
+    }
+
+    static String maskFreeText(String text) {
+        String masked = EMAIL.matcher(text).replaceAll("user@example.com");
+        return LONG_NUMBER.matcher(masked).replaceAll("00000");
+    }
+}
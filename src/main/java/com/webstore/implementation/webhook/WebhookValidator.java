@@ -2,6 +2,7 @@ package com.webstore.implementation.webhook;
 
 import com.webstore.configuration.WhatsAppConfiguration;
 import com.webstore.dto.request.WebhookRequestDto;
+import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import com.webstore.service.whatsapp.handler.impl.ButtonInteractionHandler;
 import com.webstore.service.whatsapp.handler.impl.ListInteractionHandler;
 import com.webstore.service.whatsapp.handler.impl.TextMessageHandler;
@@ -9,6 +10,10 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @Service
 public class WebhookValidator {
 
@@ -18,14 +23,17 @@ public class WebhookValidator {
     private final ButtonInteractionHandler buttonHandler;
     private final ListInteractionHandler listHandler;
     private final TextMessageHandler textHandler;
+    private final WhatsAppMessageSender messageSender;
 
     public WebhookValidator(WhatsAppConfiguration whatsAppConfig,                              ButtonInteractionHandler buttonHandler,
                             ListInteractionHandler listHandler,
-                            TextMessageHandler textHandler) {
+                            TextMessageHandler textHandler,
+                            WhatsAppMessageSender messageSender) {
         this.whatsAppConfig = whatsAppConfig;
         this.buttonHandler = buttonHandler;
         this.listHandler = listHandler;
         this.textHandler = textHandler;
+        this.messageSender = messageSender;
     }
 
     public void processIncomingMessage(WebhookRequestDto webhookData) {
@@ -36,35 +44,44 @@ public class WebhookValidator {
             return;
         }
 
-        WebhookRequestDto.Message message = extractMessage(webhookData);
-        if (message == null) {
+        List<InboundMessage> messages = extractMessages(webhookData);
+        if (messages.isEmpty()) {
             logger.warn("No message found in webhook data");
             return;
         }
 
-        String phoneNumberId = extractPhoneNumberId(webhookData);
+        messages.forEach(this::dispatch);
+    }
+
+    /**
+     * Routes a single interaction to its handler based on type. Handlers queue
+     * their messages and return without waiting for any of them.
+     *
+     * @return completes once the interaction's messages have been answered;
+     * the sender's next message should not be handled before that
+     */
+    public CompletableFuture<Void> dispatch(InboundMessage message) {
+        String phoneNumberId = message.getPhoneNumberId();
         String from = message.getFrom();
 
-        // Route message based on type
-        if ("text".equals(message.getType()) && message.getText() != null) {
-            textHandler.handle(phoneNumberId, from, message.getText().getBody());
-        } else if ("interactive".equals(message.getType()) && message.getInteractive() != null) {
-            handleInteractiveMessage(phoneNumberId, from, message.getInteractive());
+        if ("text".equals(message.getType()) && message.getTextBody() != null) {
+            textHandler.handle(phoneNumberId, from, message.getTextBody());
+        } else if ("interactive".equals(message.getType()) && message.getReplyId() != null) {
+            handleInteractiveMessage(phoneNumberId, from, message.getInteractiveType(), message.getReplyId());
         }
+        return messageSender.whenDelivered(from);
     }
 
     private void handleInteractiveMessage(String phoneNumberId, String from,
-                                          WebhookRequestDto.Interactive interactive) {
-        logger.info("Processing interactive message type: {}", interactive.getType());
-
-        if ("button_reply".equals(interactive.getType())) {
-            String buttonId = interactive.getButtonReply().getId();
-            logger.info("Button clicked: {}", buttonId);
-            buttonHandler.handle(phoneNumberId, from, buttonId);
-        } else if ("list_reply".equals(interactive.getType())) {
-            String listId = interactive.getListReply().getId();
-            logger.info("List item selected: {}", listId);
-            listHandler.handle(phoneNumberId, from, listId);
+                                          String interactiveType, String replyId) {
+        logger.info("Processing interactive message type: {}", interactiveType);
+
+        if ("button_reply".equals(interactiveType)) {
+            logger.info("Button clicked: {}", replyId);
+            buttonHandler.handle(phoneNumberId, from, replyId);
+        } else if ("list_reply".equals(interactiveType)) {
+            logger.info("List item selected: {}", replyId);
+            listHandler.handle(phoneNumberId, from, replyId);
         }
     }
 
@@ -78,28 +95,56 @@ public class WebhookValidator {
     }
 
     public boolean isValidWebhookData(WebhookRequestDto webhookData) {
-        return webhookData.getEntry() != null && !webhookData.getEntry().isEmpty() &&
-                webhookData.getEntry().get(0).getChanges() != null &&
-                !webhookData.getEntry().get(0).getChanges().isEmpty();
+        return webhookData != null && webhookData.getEntry() != null && !webhookData.getEntry().isEmpty();
     }
 
-    public WebhookRequestDto.Message extractMessage(WebhookRequestDto webhookData) {
+    /**
+     * Walks every entry, change and message in the batch, in payload order.
+     * Meta groups several messages into one POST under load, so reading only
+     * the first one drops the rest.
+     */
+    public List<InboundMessage> extractMessages(WebhookRequestDto webhookData) {
+        List<InboundMessage> result = new ArrayList<>();
         if (!isValidWebhookData(webhookData)) {
-            return null;
+            return result;
         }
 
-        WebhookRequestDto.Value value = webhookData.getEntry().get(0)
-                .getChanges().get(0).getValue();
-        return (value.getMessages() != null && !value.getMessages().isEmpty())
-                ? value.getMessages().get(0) : null;
+        for (WebhookRequestDto.Entry entry : webhookData.getEntry()) {
+            if (entry == null || entry.getChanges() == null) {
+                continue;
+            }
+            for (WebhookRequestDto.Change change : entry.getChanges()) {
+                WebhookRequestDto.Value value = change != null ? change.getValue() : null;
+                if (value == null || value.getMessages() == null) {
+                    continue;
+                }
+                String phoneNumberId = value.getMetadata() != null ? value.getMetadata().getPhoneNumberId() : null;
+                for (WebhookRequestDto.Message message : value.getMessages()) {
+                    if (message != null && message.getFrom() != null) {
+                        result.add(toInboundMessage(phoneNumberId, message));
+                    }
+                }
+            }
+        }
+        return result;
     }
 
-    public String extractPhoneNumberId(WebhookRequestDto webhookData) {
-        if (!isValidWebhookData(webhookData)) {
-            return null;
+    private InboundMessage toInboundMessage(String phoneNumberId, WebhookRequestDto.Message message) {
+        String textBody = message.getText() != null ? message.getText().getBody() : null;
+        String interactiveType = null;
+        String replyId = null;
+
+        WebhookRequestDto.Interactive interactive = message.getInteractive();
+        if (interactive != null) {
+            interactiveType = interactive.getType();
+            if (interactive.getButtonReply() != null) {
+                replyId = interactive.getButtonReply().getId();
+            } else if (interactive.getListReply() != null) {
+                replyId = interactive.getListReply().getId();
+            }
         }
 
-        return webhookData.getEntry().get(0).getChanges().get(0)
-                .getValue().getMetadata().getPhoneNumberId();
+        return new InboundMessage(phoneNumberId, message.getFrom(), message.getId(),
+                message.getType(), textBody, interactiveType, replyId);
     }
-}
\ No newline at end of file
+}
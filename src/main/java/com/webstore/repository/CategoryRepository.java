@@ -1,6 +1,7 @@
 package com.webstore.repository;
 
 import com.webstore.entity.Category;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -24,4 +25,9 @@ public interface CategoryRepository extends JpaRepository<Category, Integer> {
 
     @Query("SELECT c.categoryName FROM Category c")
     List<String> findAllCategoryNames();
+
+    // Keyset pages of the category list, in id order either side of a key
+    List<Category> findByCategoryIdGreaterThanOrderByCategoryIdAsc(Integer categoryId, Limit limit);
+
+    List<Category> findByCategoryIdLessThanOrderByCategoryIdDesc(Integer categoryId, Limit limit);
 }
@@ -13,7 +13,9 @@ import java.util.Optional;
 @Repository
 public interface ProductPriceRepository extends JpaRepository<ProductPrice, Integer> {
 
-        List<ProductPrice> findByProductProductId(Integer productId);
+        // Read on webhook workers, outside any open-in-view session: the currency must come with the price
+        @Query("SELECT pp FROM ProductPrice pp JOIN FETCH pp.currency c WHERE pp.product.productId = :productId")
+        List<ProductPrice> findByProductProductId(@Param("productId") Integer productId);
 
         Optional<ProductPrice> findByProductProductIdAndCurrencyCurrencyId(Integer productId, Integer currencyId);
 
@@ -1,12 +1,15 @@
 package com.webstore.repository;
 
+import com.webstore.dto.response.ProductListingView;
 import com.webstore.entity.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProductRepository extends JpaRepository<Product, Integer> {
@@ -30,4 +33,47 @@ public interface ProductRepository extends JpaRepository<Product, Integer> {
     // Find product ID by product name - FIXED: Use Java property names
     @Query("SELECT p.productId FROM Product p WHERE p.productName = :productName")
     Integer findProductIdByProductName(@Param("productName") String productName);
+
+    // Products with one price each: the given currency's, or else the oldest price.
+    // Aliases are quoted so PostgreSQL keeps the case the projection getters need.
+    String LISTING_SELECT = "SELECT p.product_id AS \"productId\", p.product_name AS \"productName\", " +
+            "p.product_description AS \"productDescription\", price.price_amount AS \"priceAmount\", " +
+            "price.currency_symbol AS \"currencySymbol\" " +
+            "FROM web_store.product p " +
+            "LEFT JOIN LATERAL (" +
+            "  SELECT pp.price_amount, c.currency_symbol FROM web_store.product_price pp " +
+            "  JOIN web_store.currency c ON c.currency_id = pp.currency_id " +
+            "  WHERE pp.product_id = p.product_id " +
+            "  ORDER BY (c.currency_code = :currencyCode) DESC, pp.product_price_id LIMIT 1) price ON TRUE ";
+
+    // Keyset pages over idx_product_category_product: the index range is entered at the key, whatever the page
+    @Query(value = LISTING_SELECT +
+            "WHERE p.category_id = :categoryId AND p.product_id > :afterId ORDER BY p.product_id LIMIT :limit",
+            nativeQuery = true)
+    List<ProductListingView> findProductListingsAfter(@Param("categoryId") Integer categoryId,
+                                                      @Param("afterId") int afterId,
+                                                      @Param("currencyCode") String currencyCode,
+                                                      @Param("limit") int limit);
+
+    @Query(value = LISTING_SELECT +
+            "WHERE p.category_id = :categoryId AND p.product_id < :beforeId ORDER BY p.product_id DESC LIMIT :limit",
+            nativeQuery = true)
+    List<ProductListingView> findProductListingsBefore(@Param("categoryId") Integer categoryId,
+                                                       @Param("beforeId") int beforeId,
+                                                       @Param("currencyCode") String currencyCode,
+                                                       @Param("limit") int limit);
+
+    // No entities, so nothing lazy: safe on threads that share no Hibernate session with the caller
+    @Query(value = LISTING_SELECT + "WHERE p.product_id = :productId", nativeQuery = true)
+    Optional<ProductListingView> findProductListing(@Param("productId") Integer productId,
+                                                    @Param("currencyCode") String currencyCode);
+
+    interface CategoryProductCount {
+        Integer getCategoryId();
+        Long getProductCount();
+    }
+
+    @Query("SELECT p.category.categoryId AS categoryId, COUNT(p) AS productCount FROM Product p " +
+            "WHERE p.category.categoryId IN :categoryIds GROUP BY p.category.categoryId")
+    List<CategoryProductCount> countByCategoryIds(@Param("categoryIds") Collection<Integer> categoryIds);
 }
@@ -0,0 +1,118 @@
+package com.webstore.service.whatsapp.business;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.repository.CategoryRepository;
+import com.webstore.repository.ProductRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Number of categories and of products per category, as shown in the
+ * WhatsApp lists. Counting is the only part of a list page that grows with
+ * the catalog, so counts are held under the {@link CatalogVersion} they were
+ * loaded at and reloaded once it moves on, or after {@code maxAge} for
+ * changes made through another node.
+ * <p>
+ * Product counts are loaded for the categories asked about, several at a
+ * time in one grouped query, and kept at one entry per category.
+ */
+@Component
+public class CatalogCounts {
+
+    private final CategoryRepository categoryRepository;
+    private final ProductRepository productRepository;
+    private final CatalogVersion catalogVersion;
+    private final long maxAgeNanos;
+    private final LongSupplier nanoTime;
+    private volatile Snapshot snapshot;
+
+    @Autowired
+    public CatalogCounts(CategoryRepository categoryRepository, ProductRepository productRepository,
+                         CatalogVersion catalogVersion, WhatsAppConfiguration whatsAppConfig) {
+        this(categoryRepository, productRepository, catalogVersion,
+                whatsAppConfig.getCatalogCounts().getMaxAge(), System::nanoTime);
+    }
+
+    public CatalogCounts(CategoryRepository categoryRepository, ProductRepository productRepository,
+                         CatalogVersion catalogVersion, Duration maxAge, LongSupplier nanoTime) {
+        this.categoryRepository = categoryRepository;
+        this.productRepository = productRepository;
+        this.catalogVersion = catalogVersion;
+        this.maxAgeNanos = maxAge.toNanos();
+        this.nanoTime = nanoTime;
+    }
+
+    public long categoryCount() {
+        Snapshot current = current();
+        long count = current.categoryCount.get();
+        if (count < 0) {
+            count = categoryRepository.count();
+            current.categoryCount.set(count);
+        }
+        return count;
+    }
+
+    public long productCount(Integer categoryId) {
+        return productCounts(List.of(categoryId)).get(categoryId);
+    }
+
+    /** Product count of each category, 0 for categories without products or that do not exist. */
+    public Map<Integer, Long> productCounts(Collection<Integer> categoryIds) {
+        Snapshot current = current();
+        List<Integer> missing = new ArrayList<>();
+        for (Integer categoryId : categoryIds) {
+            if (!current.productCounts.containsKey(categoryId)) {
+                missing.add(categoryId);
+            }
+        }
+        if (!missing.isEmpty()) {
+            // Categories without products have no row in the grouped result
+            Map<Integer, Long> loaded = new HashMap<>();
+            missing.forEach(categoryId -> loaded.put(categoryId, 0L));
+            for (ProductRepository.CategoryProductCount row : productRepository.countByCategoryIds(missing)) {
+                loaded.put(row.getCategoryId(), row.getProductCount());
+            }
+            current.productCounts.putAll(loaded);
+        }
+
+        Map<Integer, Long> counts = new HashMap<>();
+        for (Integer categoryId : categoryIds) {
+            counts.put(categoryId, current.productCounts.get(categoryId));
+        }
+        return counts;
+    }
+
+    // Counts loaded under an older version land in the snapshot they were read for, which is no longer served
+    private Snapshot current() {
+        long version = catalogVersion.current();
+        long now = nanoTime.getAsLong();
+        Snapshot current = snapshot;
+        if (current == null || current.version != version || now - current.loadedAt >= maxAgeNanos) {
+            current = new Snapshot(version, now);
+            snapshot = current;
+        }
+        return current;
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final long loadedAt;
+        private final AtomicLong categoryCount = new AtomicLong(-1);
+        private final Map<Integer, Long> productCounts = new ConcurrentHashMap<>();
+
+        Snapshot(long version, long loadedAt) {
+            this.version = version;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.webstore.service.whatsapp.business;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Counter bumped whenever categories, products or prices change, so anything
+ * rendered from the catalog can be cached under the version it was built
+ * from and rebuilt once the version moves on.
+ * <p>
+ * The version is local to this node; caches keyed by it also expire by age
+ * so a change made through another node is picked up eventually.
+ */
+@Component
+public class CatalogVersion {
+
+    private final AtomicLong version = new AtomicLong();
+
+    public long current() {
+        return version.get();
+    }
+
+    /**
+     * Moves to a new version. Inside a transaction this happens after commit,
+     * so nothing is rebuilt from rows that are not visible yet.
+     */
+    public void bump() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+}
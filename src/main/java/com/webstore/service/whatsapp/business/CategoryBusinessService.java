@@ -1,17 +1,31 @@
 package com.webstore.service.whatsapp.business;
 
+import com.webstore.dto.response.CategorySummaryDto;
+import com.webstore.entity.Category;
 import com.webstore.repository.CategoryRepository;
+import com.webstore.util.PaginationUtil;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 public class CategoryBusinessService {
 
     private final CategoryRepository categoryRepository;
+    private final PaginationUtil paginationUtil;
+    private final CatalogCounts catalogCounts;
 
-    public CategoryBusinessService(CategoryRepository categoryRepository) {
+    public CategoryBusinessService(CategoryRepository categoryRepository, PaginationUtil paginationUtil,
+                                   CatalogCounts catalogCounts) {
         this.categoryRepository = categoryRepository;
+        this.paginationUtil = paginationUtil;
+        this.catalogCounts = catalogCounts;
     }
 
     public List<String> getAllCategoryNames() {
@@ -27,13 +41,59 @@ public class CategoryBusinessService {
     }
 
     public long getTotalCategoryCount() {
-        return categoryRepository.count();
+        return catalogCounts.categoryCount();
     }
 
     public Integer getCategoryIdByName(String categoryName) {
         return categoryRepository.findCategoryIdByCategoryName(categoryName);
     }
 
+    public String getCategoryNameById(Integer categoryId) {
+        return categoryRepository.findById(categoryId).map(Category::getCategoryName).orElse(null);
+    }
+
+    // One page of the category list: a keyset query for the page's categories, counts from the cache
+    public PaginationUtil.PaginationResult<CategorySummaryDto> getCategorySummaryPage(PaginationUtil.PageCursor cursor) {
+        PaginationUtil.PaginationResult<Category> page = paginationUtil.paginate(getTotalCategoryCount(), cursor,
+                (afterId, limit) -> categoryRepository.findByCategoryIdGreaterThanOrderByCategoryIdAsc(afterId, Limit.of(limit)),
+                (beforeId, limit) -> categoryRepository.findByCategoryIdLessThanOrderByCategoryIdDesc(beforeId, Limit.of(limit)));
+        return page.withItems(summarize(page.getItems()));
+    }
+
+    public Optional<CategorySummaryDto> getCategorySummary(Integer categoryId) {
+        return categoryRepository.findById(categoryId).map(this::summarize);
+    }
+
+    public Optional<CategorySummaryDto> getCategorySummaryByName(String categoryName) {
+        return categoryRepository.findByCategoryName(categoryName).map(this::summarize);
+    }
+
+    /** The summary at a 0-based position of the category list; only rows of old-format ids carry a position. */
+    public Optional<CategorySummaryDto> getCategorySummaryAt(int position) {
+        if (position < 0) {
+            return Optional.empty();
+        }
+        return categoryRepository.findAll(PageRequest.of(position, 1, Sort.by("categoryId"))).stream()
+                .findFirst()
+                .map(this::summarize);
+    }
+
+    private CategorySummaryDto summarize(Category category) {
+        return new CategorySummaryDto(category.getCategoryId(), category.getCategoryName(),
+                catalogCounts.productCount(category.getCategoryId()));
+    }
+
+    private List<CategorySummaryDto> summarize(List<Category> categories) {
+        List<Integer> categoryIds = categories.stream().map(Category::getCategoryId).toList();
+        Map<Integer, Long> productCounts = catalogCounts.productCounts(categoryIds);
+        List<CategorySummaryDto> summaries = new ArrayList<>(categories.size());
+        for (Category category : categories) {
+            summaries.add(new CategorySummaryDto(category.getCategoryId(), category.getCategoryName(),
+                    productCounts.get(category.getCategoryId())));
+        }
+        return summaries;
+    }
+
     public boolean shouldUseButtonsForCategories() {
         return getTotalCategoryCount() <= 3;
     }
@@ -1,11 +1,14 @@
 package com.webstore.service.whatsapp.business;
 
+import com.webstore.dto.response.CategorySummaryDto;
+import com.webstore.dto.response.ProductListingView;
 import com.webstore.dto.response.ProductResponseDto;
 import com.webstore.entity.ProductPrice;
 import com.webstore.repository.ProductPriceRepository;
 import com.webstore.repository.ProductRepository;
 import com.webstore.service.ProductService;
 import com.webstore.service.whatsapp.business.CategoryBusinessService;
+import com.webstore.util.PaginationUtil;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -15,19 +18,25 @@ import java.util.List;
 @Service
 public class ProductBusinessService {
 
+    // Currency whose price the WhatsApp flows show when a product has several
+    private static final String PREFERRED_CURRENCY_CODE = "INR";
+
     private final ProductRepository productRepository;
     private final ProductPriceRepository productPriceRepository;
     private final ProductService productService;
     private final CategoryBusinessService categoryBusinessService;
+    private final PaginationUtil paginationUtil;
 
     public ProductBusinessService(ProductRepository productRepository,
                                   ProductPriceRepository productPriceRepository,
                                   ProductService productService,
-                                  CategoryBusinessService categoryBusinessService) {
+                                  CategoryBusinessService categoryBusinessService,
+                                  PaginationUtil paginationUtil) {
         this.productRepository = productRepository;
         this.productPriceRepository = productPriceRepository;
         this.productService = productService;
         this.categoryBusinessService = categoryBusinessService;
+        this.paginationUtil = paginationUtil;
     }
 
     // ✅ Get product names by category ID
@@ -51,19 +60,35 @@ public class ProductBusinessService {
         return productService.getProductById(productId);
     }
 
+    // Read through the listing projection: product details fork this lookup onto a thread without a session
     public String getProductPriceDisplay(Integer productId) {
-        List<ProductPrice> productPrices = productPriceRepository.findByProductProductId(productId);
-        if (productPrices.isEmpty()) {
+        return productRepository.findProductListing(productId, PREFERRED_CURRENCY_CODE)
+                .map(this::getPriceDisplay)
+                .orElse("Price not available");
+    }
+
+    public String getPriceDisplay(ProductListingView product) {
+        if (product.getPriceAmount() == null) {
             return "Price not available";
         }
+        return formatPrice(product.getCurrencySymbol(), product.getPriceAmount());
+    }
 
-        ProductPrice inrPrice = productPrices.stream()
-                .filter(pp -> "INR".equals(pp.getCurrency().getCurrencyCode()))
-                .findFirst()
-                .orElse(productPrices.get(0));
+    // One page of a category's products with their display prices in a single keyset query; the count comes with the summary
+    public PaginationUtil.PaginationResult<ProductListingView> getProductListingPage(CategorySummaryDto category,
+                                                                                   PaginationUtil.PageCursor cursor) {
+        Integer categoryId = category.getCategoryId();
+        return paginationUtil.paginate(category.getProductCount(), cursor,
+                (afterId, limit) -> productRepository.findProductListingsAfter(categoryId, afterId, PREFERRED_CURRENCY_CODE, limit),
+                (beforeId, limit) -> productRepository.findProductListingsBefore(categoryId, beforeId, PREFERRED_CURRENCY_CODE, limit));
+    }
+
+    public List<ProductListingView> getProductListings(Integer categoryId, int limit) {
+        return productRepository.findProductListingsAfter(categoryId, 0, PREFERRED_CURRENCY_CODE, limit);
+    }
 
-        BigDecimal priceInRupees = new BigDecimal(inrPrice.getPriceAmount()).divide(BigDecimal.valueOf(100));
-        return String.format("%s %.2f", inrPrice.getCurrency().getCurrencySymbol(), priceInRupees);
+    private static String formatPrice(String currencySymbol, BigDecimal minorUnits) {
+        return String.format("%s %.2f", currencySymbol, minorUnits.divide(BigDecimal.valueOf(100)));
     }
 
     public List<ProductPrice> getProductPrices(Integer productId) {
@@ -1,8 +1,17 @@
 package com.webstore.service.whatsapp.button;
 
-import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
+import java.util.Set;
 
 public interface ButtonActionStrategy {
-    boolean supports(String buttonId);
+    /** Button ids handled whole; routed before any prefix. */
+    default Set<String> exactIds() {
+        return Set.of();
+    }
+
+    /** Button id prefixes handled; must not overlap another strategy's routes. */
+    default Set<String> prefixes() {
+        return Set.of();
+    }
+
     void handle(String phoneNumberId, String from, String buttonId);
-}
\ No newline at end of file
+}
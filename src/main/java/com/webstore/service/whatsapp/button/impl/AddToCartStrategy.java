@@ -7,6 +7,8 @@ import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class AddToCartStrategy implements ButtonActionStrategy {
@@ -15,8 +17,8 @@ public class AddToCartStrategy implements ButtonActionStrategy {
     private final WhatsAppMessageSender messageSender;
 
     @Override
-    public boolean supports(String buttonId) {
-        return buttonId.startsWith("add_cart_");
+    public Set<String> prefixes() {
+        return Set.of("add_cart_");
     }
 
     @Override
@@ -1,25 +1,51 @@
 package com.webstore.service.whatsapp.button.impl;
 
+import com.webstore.exception.CategoryNotFoundException;
 import com.webstore.service.whatsapp.button.ButtonActionStrategy;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import com.webstore.service.whatsapp.flow.CategoryFlowService;
+import com.webstore.service.whatsapp.flow.ProductFlowService;
+import com.webstore.service.whatsapp.session.ConversationSession;
+import com.webstore.service.whatsapp.session.ConversationSessionStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Optional;
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class BackToProductStrategy implements ButtonActionStrategy {
 
     private final CategoryFlowService categoryFlowService;
+    private final ProductFlowService productFlowService;
+    private final ConversationSessionStore sessionStore;
     private final WhatsAppMessageSender messageSender;
 
     @Override
-    public boolean supports(String buttonId) {
-        return "back_to_products".equals(buttonId);
+    public Set<String> exactIds() {
+        return Set.of("back_to_products");
     }
 
+    // Back to the product list page the customer came from; the category list when the session is gone
     @Override
     public void handle(String phoneNumberId, String from, String buttonId) {
+        Optional<ConversationSession> session = sessionStore.find(from)
+                .filter(s -> s.getCategoryName() != null);
+        if (session.isPresent()) {
+            try {
+                if (session.get().getPage() > 1) {
+                    productFlowService.sendPaginatedProductList("v22.0", phoneNumberId, from,
+                            session.get().getCategoryName(), session.get().getPageCursor());
+                } else {
+                    productFlowService.sendProductSelection("v22.0", phoneNumberId, from,
+                            session.get().getCategoryName());
+                }
+                return;
+            } catch (CategoryNotFoundException e) {
+                // Renamed or removed since; fall through to the category list
+            }
+        }
         categoryFlowService.sendCategorySelection("v22.0", phoneNumberId, from);
     }
 
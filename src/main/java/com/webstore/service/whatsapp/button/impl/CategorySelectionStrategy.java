@@ -5,9 +5,11 @@ import com.webstore.service.whatsapp.button.ButtonActionStrategy;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import com.webstore.service.whatsapp.flow.CategoryFlowService;
 import com.webstore.service.whatsapp.flow.ProductFlowService;
+import com.webstore.util.PaginationUtil;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Set;
 
 @Service
 public class CategorySelectionStrategy implements ButtonActionStrategy {
@@ -28,8 +30,8 @@ public class CategorySelectionStrategy implements ButtonActionStrategy {
     }
 
     @Override
-    public boolean supports(String buttonId) {
-        return buttonId.startsWith("cat_");
+    public Set<String> prefixes() {
+        return Set.of("cat_");
     }
 
     @Override
@@ -37,7 +39,7 @@ public class CategorySelectionStrategy implements ButtonActionStrategy {
         String categoryIdStr = buttonId.replace("cat_", "");
 
         if ("see_all".equals(categoryIdStr)) {
-            categoryFlowService.sendCategoryList("v22.0", phoneNumberId, from, 1);
+            categoryFlowService.sendCategoryList("v22.0", phoneNumberId, from, PaginationUtil.PageCursor.first());
             return;
         }
 
@@ -47,7 +49,8 @@ public class CategorySelectionStrategy implements ButtonActionStrategy {
 
             if (categoryNumber > 0 && categoryNumber <= categories.size()) {
                 String selectedCategory = categories.get(categoryNumber - 1);
-                messageSender.sendTextMessage(phoneNumberId, from, "✅ Selected: " + selectedCategory);
+                // Merged into the product message that follows, or sent just ahead of it
+                messageSender.sendConfirmation(phoneNumberId, from, "✅ Selected: " + selectedCategory);
                 productFlowService.sendProductSelection("v22.0", phoneNumberId, from, selectedCategory);
             }
         } catch (NumberFormatException e) {
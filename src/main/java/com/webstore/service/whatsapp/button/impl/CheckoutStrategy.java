@@ -7,6 +7,8 @@ import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class CheckoutStrategy implements ButtonActionStrategy {
@@ -15,8 +17,8 @@ public class CheckoutStrategy implements ButtonActionStrategy {
     private final WhatsAppMessageSender messageSender;
 
     @Override
-    public boolean supports(String buttonId) {
-        return buttonId.startsWith("checkout_");
+    public Set<String> prefixes() {
+        return Set.of("checkout_");
     }
 
     @Override
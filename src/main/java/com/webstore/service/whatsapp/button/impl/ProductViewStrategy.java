@@ -6,6 +6,8 @@ import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import com.webstore.service.whatsapp.flow.ProductFlowService;
 import org.springframework.stereotype.Service;
 
+import java.util.Set;
+
 @Service
 public class ProductViewStrategy implements ButtonActionStrategy {
 
@@ -22,8 +24,8 @@ public class ProductViewStrategy implements ButtonActionStrategy {
     }
 
     @Override
-    public boolean supports(String buttonId) {
-        return buttonId.startsWith("view_product_");
+    public Set<String> prefixes() {
+        return Set.of("view_product_");
     }
 
     @Override
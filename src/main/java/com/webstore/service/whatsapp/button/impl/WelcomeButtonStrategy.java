@@ -6,6 +6,8 @@ import com.webstore.service.whatsapp.flow.CategoryFlowService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class WelcomeButtonStrategy implements ButtonActionStrategy {
@@ -14,8 +16,8 @@ public class WelcomeButtonStrategy implements ButtonActionStrategy {
     private final CategoryFlowService categoryFlowService;
 
     @Override
-    public boolean supports(String buttonId) {
-        return buttonId.startsWith("welcome_");
+    public Set<String> prefixes() {
+        return Set.of("welcome_");
     }
 
     @Override
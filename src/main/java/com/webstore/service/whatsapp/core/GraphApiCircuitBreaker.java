@@ -0,0 +1,315 @@
+package com.webstore.service.whatsapp.core;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.exception.GraphApiUnavailableException;
+import com.webstore.util.TimerWheel;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Circuit breaker around Graph API calls.
+ * <ul>
+ *   <li>CLOSED: calls go through; the outcome of the last {@code windowSize}
+ *   calls is kept, and a failure rate above the threshold opens the breaker.
+ *   Server errors, transport errors and calls slower than
+ *   {@code slowCallThreshold} count as failures; a 4xx does not.</li>
+ *   <li>OPEN: calls are parked in a bounded FIFO queue instead of being made,
+ *   so no thread waits on a Graph API that is not answering. After
+ *   {@code openDuration} a timer moves the breaker to HALF_OPEN.</li>
+ *   <li>HALF_OPEN: {@code probeCalls} calls, parked ones first, are let
+ *   through. If they all succeed the breaker closes and releases every parked
+ *   call in order; one failure opens it again.</li>
+ * </ul>
+ * Each state change starts a new epoch. Outcomes are reported with the epoch
+ * the call was admitted in, and outcomes from an older epoch are ignored, so
+ * a slow call from before the breaker opened cannot close it.
+ */
+@Component
+public class GraphApiCircuitBreaker {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphApiCircuitBreaker.class);
+
+    public enum State {
+        CLOSED, HALF_OPEN, OPEN
+    }
+
+    /**
+     * A call waiting for permission. Exactly one of the two methods is
+     * invoked, possibly later and on another thread, never under the
+     * breaker's lock.
+     */
+    public interface Call {
+
+        /** Make the call now, then report its outcome with {@link #onResult} and this epoch. */
+        void proceed(long epoch);
+
+        void reject(Throwable cause);
+    }
+
+    private final WhatsAppConfiguration.CircuitBreaker config;
+    private final TimerWheel timerWheel;
+    private final long slowCallNanos;
+    private final boolean[] window;
+    private final ArrayDeque<Parked> parked = new ArrayDeque<>();
+    private final Counter parkedFull;
+    private final Counter parkedExpired;
+    private final MeterRegistry meterRegistry;
+
+    private State state = State.CLOSED;
+    private long epoch = 1;
+    private int windowNext;
+    private int windowCount;
+    private int windowFailures;
+    private int probesStarted;
+    private int probesSucceeded;
+
+    @Autowired
+    public GraphApiCircuitBreaker(WhatsAppConfiguration whatsAppConfig, TimerWheel graphApiTimerWheel,
+                                  MeterRegistry meterRegistry) {
+        this(whatsAppConfig.getApi().getCircuitBreaker(), graphApiTimerWheel, meterRegistry);
+    }
+
+    public GraphApiCircuitBreaker(WhatsAppConfiguration.CircuitBreaker config, TimerWheel timerWheel,
+                                  MeterRegistry meterRegistry) {
+        this.config = config;
+        this.timerWheel = timerWheel;
+        this.meterRegistry = meterRegistry;
+        this.slowCallNanos = config.getSlowCallThreshold().toNanos();
+        this.window = new boolean[Math.max(1, config.getWindowSize())];
+
+        for (State candidate : State.values()) {
+            Gauge.builder("whatsapp.graph.circuit.state", this, breaker -> breaker.getState() == candidate ? 1 : 0)
+                    .description("1 for the circuit breaker's current state, 0 for the others")
+                    .tag("state", candidate.name().toLowerCase(Locale.ROOT))
+                    .register(meterRegistry);
+        }
+        Gauge.builder("whatsapp.graph.circuit.failure.rate", this, GraphApiCircuitBreaker::getFailureRate)
+                .description("Percentage of failed or slow calls in the window")
+                .register(meterRegistry);
+        Gauge.builder("whatsapp.graph.circuit.parked", this, GraphApiCircuitBreaker::getParkedCount)
+                .description("Sends held until the circuit breaker closes")
+                .register(meterRegistry);
+        this.parkedFull = Counter.builder("whatsapp.graph.circuit.rejected")
+                .description("Sends failed because the breaker was open and they could not be held")
+                .tag("reason", "full")
+                .register(meterRegistry);
+        this.parkedExpired = Counter.builder("whatsapp.graph.circuit.rejected")
+                .description("Sends failed because the breaker was open and they could not be held")
+                .tag("reason", "expired")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Lets the call through now, parks it until the breaker closes, or
+     * rejects it when the park queue is full.
+     */
+    public void submit(Call call) {
+        if (!config.isEnabled()) {
+            call.proceed(0);
+            return;
+        }
+        long admittedEpoch = 0;
+        boolean full = false;
+        synchronized (this) {
+            if (state == State.CLOSED) {
+                admittedEpoch = epoch;
+            } else if (state == State.HALF_OPEN && probesStarted < config.getProbeCalls()) {
+                probesStarted++;
+                admittedEpoch = epoch;
+            } else if (parked.size() >= config.getParkCapacity()) {
+                full = true;
+            } else {
+                Parked entry = new Parked(call);
+                parked.addLast(entry);
+                entry.expiry = timerWheel.schedule(() -> expire(entry),
+                        config.getMaxParkTime().toNanos(), TimeUnit.NANOSECONDS);
+                return;
+            }
+        }
+        if (full) {
+            parkedFull.increment();
+            call.reject(new GraphApiUnavailableException("Graph API circuit is open and " +
+                    config.getParkCapacity() + " sends are already waiting"));
+        } else {
+            call.proceed(admittedEpoch);
+        }
+    }
+
+    /**
+     * Records the outcome of a call admitted in {@code admittedEpoch}.
+     *
+     * @param failed true for a server or transport error; slow calls are detected here
+     */
+    public void onResult(long admittedEpoch, boolean failed, long durationNanos) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        boolean failure = failed || durationNanos >= slowCallNanos;
+        List<Parked> released = null;
+        long releasedEpoch = 0;
+        synchronized (this) {
+            if (admittedEpoch != epoch) {
+                return;
+            }
+            if (state == State.CLOSED) {
+                record(failure);
+                if (windowCount >= config.getMinimumCalls()
+                        && windowFailures * 100L >= (long) config.getFailureRateThreshold() * windowCount) {
+                    open();
+                }
+            } else if (state == State.HALF_OPEN) {
+                if (failure) {
+                    open();
+                } else if (++probesSucceeded >= config.getProbeCalls()) {
+                    transition(State.CLOSED);
+                    windowNext = 0;
+                    windowCount = 0;
+                    windowFailures = 0;
+                    released = takeParked(parked.size());
+                    releasedEpoch = epoch;
+                }
+            }
+        }
+        release(released, releasedEpoch);
+    }
+
+    /**
+     * Reports that a call admitted in {@code admittedEpoch} never reached the
+     * Graph API, e.g. it was refused by local backpressure. A half-open
+     * breaker hands its probe slot to the next parked call.
+     */
+    public void onSkipped(long admittedEpoch) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        List<Parked> replacement;
+        long probeEpoch;
+        synchronized (this) {
+            if (admittedEpoch != epoch || state != State.HALF_OPEN) {
+                return;
+            }
+            probesStarted--;
+            replacement = takeParked(1);
+            probesStarted += replacement.size();
+            probeEpoch = epoch;
+        }
+        release(replacement, probeEpoch);
+    }
+
+    public synchronized State getState() {
+        return state;
+    }
+
+    public synchronized double getFailureRate() {
+        return windowCount == 0 ? 0 : windowFailures * 100.0 / windowCount;
+    }
+
+    public synchronized int getParkedCount() {
+        return parked.size();
+    }
+
+    boolean isHealthDownWhenOpen() {
+        return config.isHealthDownWhenOpen();
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowNext]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowNext] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowNext = (windowNext + 1) % window.length;
+    }
+
+    private void open() {
+        transition(State.OPEN);
+        long openedEpoch = epoch;
+        logger.warn("Graph API circuit opened, failure rate {}% over {} calls; holding sends for {}",
+                Math.round(getFailureRate()), windowCount, config.getOpenDuration());
+        timerWheel.schedule(() -> halfOpen(openedEpoch), config.getOpenDuration().toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private void halfOpen(long openedEpoch) {
+        List<Parked> probes;
+        long probeEpoch;
+        synchronized (this) {
+            if (state != State.OPEN || epoch != openedEpoch) {
+                return;
+            }
+            transition(State.HALF_OPEN);
+            probesStarted = 0;
+            probesSucceeded = 0;
+            probes = takeParked(config.getProbeCalls());
+            probesStarted = probes.size();
+            probeEpoch = epoch;
+        }
+        logger.info("Graph API circuit half-open, probing with {} parked sends", probes.size());
+        release(probes, probeEpoch);
+    }
+
+    private void transition(State next) {
+        state = next;
+        epoch++;
+        meterRegistry.counter("whatsapp.graph.circuit.transitions", "state", next.name().toLowerCase(Locale.ROOT))
+                .increment();
+        if (next == State.CLOSED) {
+            logger.info("Graph API circuit closed, releasing {} parked sends", parked.size());
+        }
+    }
+
+    private List<Parked> takeParked(int limit) {
+        List<Parked> taken = new ArrayList<>(Math.min(limit, parked.size()));
+        while (taken.size() < limit && !parked.isEmpty()) {
+            taken.add(parked.pollFirst());
+        }
+        return taken;
+    }
+
+    private void release(List<Parked> entries, long releasedEpoch) {
+        if (entries == null) {
+            return;
+        }
+        for (Parked entry : entries) {
+            entry.expiry.cancel();
+            entry.call.proceed(releasedEpoch);
+        }
+    }
+
+    private void expire(Parked entry) {
+        synchronized (this) {
+            if (!parked.remove(entry)) {
+                return;
+            }
+        }
+        parkedExpired.increment();
+        entry.call.reject(new GraphApiUnavailableException("Graph API circuit stayed open for " +
+                config.getMaxParkTime() + " while the send was held"));
+    }
+
+    private static final class Parked {
+
+        private final Call call;
+        private TimerWheel.Timeout expiry;
+
+        Parked(Call call) {
+            this.call = call;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.webstore.service.whatsapp.core;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reports the Graph API circuit breaker under {@code /actuator/health} as
+ * {@code graphApi}: UP while closed, UNKNOWN while probing, and UP with the
+ * state in the details while open. An open breaker means the Graph API is
+ * failing for every node alike, so reporting DOWN would take the whole fleet
+ * out of the load balancer; {@code health-down-when-open} opts into that for
+ * single-node deployments that want it.
+ */
+@Component
+public class GraphApiHealthIndicator implements HealthIndicator {
+
+    private final GraphApiCircuitBreaker circuitBreaker;
+
+    public GraphApiHealthIndicator(GraphApiCircuitBreaker circuitBreaker) {
+        this.circuitBreaker = circuitBreaker;
+    }
+
+    @Override
+    public Health health() {
+        GraphApiCircuitBreaker.State state = circuitBreaker.getState();
+        Health.Builder builder = switch (state) {
+            case CLOSED -> Health.up();
+            case HALF_OPEN -> Health.unknown();
+            case OPEN -> circuitBreaker.isHealthDownWhenOpen() ? Health.down() : Health.up();
+        };
+        return builder
+                .withDetail("state", state)
+                .withDetail("failureRate", circuitBreaker.getFailureRate())
+                .withDetail("parked", circuitBreaker.getParkedCount())
+                .build();
+    }
+}
@@ -0,0 +1,199 @@
+package com.webstore.service.whatsapp.core;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Token bucket per business phone number, sized from the number's Graph API
+ * throughput tier.
+ * <p>
+ * Callers reserve a token and get back how long to wait for it rather than
+ * being blocked, so a burst above the tier queues for a few hundred
+ * milliseconds on a timer instead of failing. A token reserved ahead of time
+ * is counted as a negative balance. When the Graph API answers 429 the bucket
+ * pauses for the Retry-After and its rate is cut, then the rate climbs back
+ * to the tier step by step.
+ */
+@Component
+public class GraphApiRateLimiter {
+
+    /** Returned by {@link #reserve} when the wait would exceed the configured maximum. */
+    public static final long REJECTED = -1;
+
+    static final String UNKNOWN_PHONE_NUMBER = "unknown";
+
+    private final WhatsAppConfiguration.RateLimit config;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier nanoTime;
+    private final Map<String, Bucket> buckets = new ConcurrentHashMap<>();
+    private final long maxWaitNanos;
+    private final long recoveryStepNanos;
+
+    @Autowired
+    public GraphApiRateLimiter(WhatsAppConfiguration whatsAppConfig, MeterRegistry meterRegistry) {
+        this(whatsAppConfig.getApi().getRateLimit(), meterRegistry, System::nanoTime);
+    }
+
+    public GraphApiRateLimiter(WhatsAppConfiguration.RateLimit config, MeterRegistry meterRegistry,
+                               LongSupplier nanoTime) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.nanoTime = nanoTime;
+        this.maxWaitNanos = config.getMaxWait().toNanos();
+        this.recoveryStepNanos = Math.max(1, config.getRecoveryStep().toNanos());
+    }
+
+    /**
+     * Takes one token for a send from this number.
+     *
+     * @return nanoseconds to wait before sending, 0 to send now, or
+     *         {@link #REJECTED} if the queue is already longer than the maximum wait
+     */
+    public long reserve(String phoneNumberId) {
+        if (!config.isEnabled()) {
+            return 0;
+        }
+        Bucket bucket = bucket(phoneNumberId);
+        long wait = bucket.reserve(nanoTime.getAsLong());
+        if (wait == REJECTED) {
+            bucket.rejected.increment();
+        } else {
+            bucket.waits.record(wait, TimeUnit.NANOSECONDS);
+        }
+        return wait;
+    }
+
+    /**
+     * Slows this number down after the Graph API throttled a send.
+     *
+     * @param retryAfter pause requested by the server, null when it sent none
+     */
+    public void onThrottled(String phoneNumberId, Duration retryAfter) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        Bucket bucket = bucket(phoneNumberId);
+        bucket.throttled.increment();
+        bucket.throttle(nanoTime.getAsLong(), (retryAfter != null ? retryAfter : config.getDefaultRetryAfter()).toNanos());
+    }
+
+    public double getRate(String phoneNumberId) {
+        return bucket(phoneNumberId).currentRate();
+    }
+
+    public double getAvailableTokens(String phoneNumberId) {
+        return bucket(phoneNumberId).availableTokens(nanoTime.getAsLong());
+    }
+
+    private Bucket bucket(String phoneNumberId) {
+        String key = phoneNumberId != null ? phoneNumberId : UNKNOWN_PHONE_NUMBER;
+        return buckets.computeIfAbsent(key, id -> new Bucket(id, config.getTiers().getOrDefault(id, config.getDefaultTier())));
+    }
+
+    private final class Bucket {
+
+        private final double tierRate;
+        private final double minRate;
+        private final double burst;
+        private final Timer waits;
+        private final Counter rejected;
+        private final Counter throttled;
+
+        private double rate;
+        private double tokens;
+        private long lastRefill;
+        private long lastAdjust;
+        private long lastDecrease;
+
+        Bucket(String phoneNumberId, WhatsAppConfiguration.Tier tier) {
+            long now = nanoTime.getAsLong();
+            this.tierRate = tier.getMessagesPerSecond();
+            this.minRate = Math.min(1.0, tierRate);
+            this.burst = Math.max(1, tier.getBurst());
+            this.rate = tierRate;
+            this.tokens = burst;
+            this.lastRefill = now;
+            this.lastAdjust = now;
+            this.lastDecrease = now - recoveryStepNanos;
+
+            Gauge.builder("whatsapp.graph.ratelimit.tokens", this, bucket -> bucket.availableTokens(nanoTime.getAsLong()))
+                    .description("Tokens left in the bucket; negative when sends are queued for a token")
+                    .tag("phone_number_id", phoneNumberId)
+                    .register(meterRegistry);
+            Gauge.builder("whatsapp.graph.ratelimit.rate", this, Bucket::currentRate)
+                    .description("Current send rate in messages per second, below the tier after a 429")
+                    .tag("phone_number_id", phoneNumberId)
+                    .register(meterRegistry);
+            this.waits = Timer.builder("whatsapp.graph.ratelimit.wait")
+                    .description("Time sends waited for a token")
+                    .tag("phone_number_id", phoneNumberId)
+                    .register(meterRegistry);
+            this.rejected = Counter.builder("whatsapp.graph.ratelimit.rejected")
+                    .description("Sends refused because the token queue exceeded the maximum wait")
+                    .tag("phone_number_id", phoneNumberId)
+                    .register(meterRegistry);
+            this.throttled = Counter.builder("whatsapp.graph.ratelimit.throttled")
+                    .description("Sends the Graph API answered with a rate limit error")
+                    .tag("phone_number_id", phoneNumberId)
+                    .register(meterRegistry);
+        }
+
+        synchronized long reserve(long now) {
+            refill(now);
+            tokens -= 1;
+            if (tokens >= 0) {
+                return 0;
+            }
+            long wait = (long) (-tokens / rate * 1e9);
+            if (wait > maxWaitNanos) {
+                tokens += 1;
+                return REJECTED;
+            }
+            return wait;
+        }
+
+        synchronized void throttle(long now, long pauseNanos) {
+            refill(now);
+            // One cut per step: a burst of 429s for sends already in flight is one signal, not many
+            if (now - lastDecrease >= recoveryStepNanos) {
+                rate = Math.max(minRate, rate * config.getBackoffFactor());
+                lastDecrease = now;
+            }
+            lastAdjust = now;
+            // Owe at least the pause as tokens, so the next reservation lands after it at the reduced rate
+            tokens = Math.min(tokens, -pauseNanos / 1e9 * rate);
+        }
+
+        synchronized double availableTokens(long now) {
+            refill(now);
+            return tokens;
+        }
+
+        synchronized double currentRate() {
+            return rate;
+        }
+
+        private void refill(long now) {
+            tokens = Math.min(burst, tokens + (now - lastRefill) / 1e9 * rate);
+            lastRefill = now;
+            if (rate < tierRate) {
+                long steps = (now - lastAdjust) / recoveryStepNanos;
+                if (steps > 0) {
+                    rate = Math.min(tierRate, rate + steps * tierRate / 10);
+                    lastAdjust += steps * recoveryStepNanos;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.webstore.service.whatsapp.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.exception.GraphApiException;
+import com.webstore.exception.GraphApiUnavailableException;
+import com.webstore.util.TimerWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.DoubleSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Retries failed Graph API sends with exponential backoff and jitter.
+ * <p>
+ * Failures are split into retryable ones (5xx, 408, 429, timeouts and other
+ * transport errors, local backpressure, an open circuit) and permanent ones (any other 4xx,
+ * a payload that cannot be serialized). Retries wait on a shared
+ * {@link TimerWheel}, so a backoff holds no thread. Attempts and the total
+ * time spent retrying are both capped.
+ * <p>
+ * A timeout after the request was written may mean WhatsApp did accept the
+ * message, and the Graph API has no idempotency key, so a retried timeout
+ * can occasionally deliver a message twice.
+ */
+@Component
+public class GraphApiRetryExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphApiRetryExecutor.class);
+
+    private final WhatsAppConfiguration.Retry config;
+    private final TimerWheel timerWheel;
+    private final MeterRegistry meterRegistry;
+    private final DoubleSupplier random;
+    private final long maxTotalDelayNanos;
+    // Results waiting on the wheel, failed on shutdown so blocking callers are not left hanging
+    private final Map<CompletableFuture<?>, Waiting> waiting = new ConcurrentHashMap<>();
+
+    @Autowired
+    public GraphApiRetryExecutor(WhatsAppConfiguration whatsAppConfig, TimerWheel graphApiTimerWheel,
+                                 MeterRegistry meterRegistry) {
+        this(whatsAppConfig.getApi().getRetry(), graphApiTimerWheel, meterRegistry,
+                () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    public GraphApiRetryExecutor(WhatsAppConfiguration.Retry config, TimerWheel timerWheel,
+                                 MeterRegistry meterRegistry, DoubleSupplier random) {
+        this.config = config;
+        this.timerWheel = timerWheel;
+        this.meterRegistry = meterRegistry;
+        this.random = random;
+        this.maxTotalDelayNanos = config.getMaxTotalDelay().toNanos();
+
+        Gauge.builder("whatsapp.graph.retries.scheduled", waiting, Map::size)
+                .description("Sends waiting on the timer wheel for their next attempt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Runs {@code attempt} until it succeeds, fails permanently or runs out of
+     * attempts. The returned future fails with the last attempt's cause.
+     */
+    public <T> CompletableFuture<T> execute(String messageType, Supplier<CompletableFuture<T>> attempt) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        run(messageType, attempt, 1, System.nanoTime(), result);
+        return result;
+    }
+
+    private <T> void run(String messageType, Supplier<CompletableFuture<T>> attempt, int number,
+                         long startedAt, CompletableFuture<T> result) {
+        CompletableFuture<T> future;
+        try {
+            future = attempt.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        future.whenComplete((value, failure) -> {
+            if (failure == null) {
+                result.complete(value);
+                return;
+            }
+            Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                    ? failure.getCause() : failure;
+            if (!config.isEnabled()) {
+                result.completeExceptionally(cause);
+                return;
+            }
+            if (!isRetryable(cause)) {
+                giveUp(messageType, "permanent", result, cause);
+                return;
+            }
+            long delay = backoffNanos(number);
+            if (number >= config.getMaxAttempts() || System.nanoTime() - startedAt + delay > maxTotalDelayNanos) {
+                giveUp(messageType, "exhausted", result, cause);
+                return;
+            }
+            meterRegistry.counter("whatsapp.graph.retries", "message_type", messageType, "reason", reasonOf(cause))
+                    .increment();
+            logger.warn("Retrying {} in {} ms after attempt {} failed: {}",
+                    messageType, TimeUnit.NANOSECONDS.toMillis(delay), number, cause.getMessage());
+            waiting.put(result, new Waiting(messageType, cause));
+            try {
+                timerWheel.schedule(() -> {
+                    if (waiting.remove(result) != null) {
+                        run(messageType, attempt, number + 1, startedAt, result);
+                    }
+                }, delay, TimeUnit.NANOSECONDS);
+            } catch (IllegalStateException e) {
+                waiting.remove(result);
+                giveUp(messageType, "shutdown", result, cause);
+            }
+        });
+    }
+
+    private void giveUp(String messageType, String reason, CompletableFuture<?> result, Throwable cause) {
+        meterRegistry.counter("whatsapp.graph.giveups", "message_type", messageType, "reason", reason).increment();
+        result.completeExceptionally(cause);
+    }
+
+    /**
+     * Equal jitter: half the exponential step is fixed, half random, so
+     * retries spread out but never collapse to zero.
+     */
+    long backoffNanos(int attempt) {
+        double step = config.getInitialBackoff().toNanos() * Math.pow(config.getMultiplier(), attempt - 1);
+        double capped = Math.min(step, config.getMaxBackoff().toNanos());
+        return (long) (capped / 2 + random.getAsDouble() * capped / 2);
+    }
+
+    public static boolean isRetryable(Throwable failure) {
+        if (failure instanceof GraphApiException graphApiException) {
+            int status = graphApiException.getStatusCode();
+            return status >= 500 || status == 408 || status == 429;
+        }
+        if (failure instanceof JsonProcessingException) {
+            return false;
+        }
+        return failure instanceof IOException || failure instanceof RejectedExecutionException
+                || failure instanceof GraphApiUnavailableException;
+    }
+
+    private static String reasonOf(Throwable failure) {
+        if (failure instanceof GraphApiException graphApiException) {
+            return String.valueOf(graphApiException.getStatusCode());
+        }
+        if (failure instanceof InterruptedIOException) {
+            return "timeout";
+        }
+        if (failure instanceof GraphApiUnavailableException) {
+            return "circuit_open";
+        }
+        return failure instanceof RejectedExecutionException ? "rejected" : "io";
+    }
+
+    /**
+     * Fails every send still waiting for a retry. The wheel itself is shared
+     * and closed with its bean; timers that fire later find nothing to do.
+     */
+    @PreDestroy
+    public void shutdown() {
+        waiting.forEach((result, entry) -> {
+            if (waiting.remove(result) != null) {
+                giveUp(entry.messageType(), "shutdown", result, entry.cause());
+            }
+        });
+    }
+
+    private record Waiting(String messageType, Throwable cause) {
+    }
+}
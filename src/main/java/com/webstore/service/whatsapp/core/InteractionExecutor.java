@@ -0,0 +1,75 @@
+package com.webstore.service.whatsapp.core;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.enums.whatsapp.ThreadMode;
+import com.webstore.util.VirtualThreads;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Owns the threads interactions run on, switched by
+ * {@code whatsapp.webhook.ingestion.thread-mode}.
+ * <p>
+ * Handlers spend nearly all their time blocked on JDBC and the Graph API, so
+ * in VIRTUAL mode each interaction and each forked lookup gets its own cheap
+ * virtual thread. PLATFORM mode keeps the fixed pools.
+ */
+@Component
+public class InteractionExecutor {
+
+    private static final Logger logger = LoggerFactory.getLogger(InteractionExecutor.class);
+
+    private final ThreadMode mode;
+    private final ExecutorService fanOutExecutor;
+
+    public InteractionExecutor(WhatsAppConfiguration whatsAppConfig) {
+        WhatsAppConfiguration.Ingestion ingestion = whatsAppConfig.getWebhook().getIngestion();
+        this.mode = effectiveMode(ingestion.getThreadMode());
+        this.fanOutExecutor = newExecutor("interaction-fanout-", ingestion.getFanOutThreads());
+        logger.info("Interactions run on {} threads", mode.name().toLowerCase());
+    }
+
+    /**
+     * @param platformThreads pool size used in PLATFORM mode; ignored for virtual threads
+     */
+    public ExecutorService newExecutor(String threadNamePrefix, int platformThreads) {
+        if (mode == ThreadMode.VIRTUAL) {
+            return VirtualThreads.newThreadPerTaskExecutor(threadNamePrefix);
+        }
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(
+                platformThreads, platformThreads, 60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), new CustomizableThreadFactory(threadNamePrefix));
+        pool.allowCoreThreadTimeOut(true);
+        return pool;
+    }
+
+    public TaskScope openScope() {
+        return new TaskScope(fanOutExecutor);
+    }
+
+    public ThreadMode getMode() {
+        return mode;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        fanOutExecutor.shutdownNow();
+    }
+
+    private static ThreadMode effectiveMode(ThreadMode requested) {
+        if (requested == ThreadMode.VIRTUAL && !VirtualThreads.isSupported()) {
+            logger.warn("Virtual threads requested but Java {} has none, using platform threads",
+                    Runtime.version().feature());
+            return ThreadMode.PLATFORM;
+        }
+        return requested;
+    }
+}
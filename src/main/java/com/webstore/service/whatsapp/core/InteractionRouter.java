@@ -0,0 +1,191 @@
+package com.webstore.service.whatsapp.core;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.function.Function;
+
+/**
+ * Maps interaction ids (button and list row ids) to the strategy that handles
+ * them, using the exact ids and id prefixes each strategy declares.
+ * <p>
+ * The routes are compiled into a character trie when the handler is built,
+ * so a lookup walks the id once, whatever the number of strategies, and the
+ * result does not depend on the order Spring injected them in. An exact id
+ * wins over a prefix ending at the same place. Routes of different
+ * strategies that could both match one id (the same id twice, one prefix
+ * inside another, an exact id under someone else's prefix) are rejected at
+ * startup.
+ * <p>
+ * Each route counts its hits in {@code whatsapp.interaction.routes}, tagged
+ * with the route ({@code cat_*} for a prefix) and the strategy; ids nothing
+ * matched are counted under {@code route=none}.
+ *
+ * @param <S> the strategy type
+ */
+public class InteractionRouter<S> {
+
+    private final Node<S> root;
+    private final Counter unmatched;
+
+    private InteractionRouter(Node<S> root, Counter unmatched) {
+        this.root = root;
+        this.unmatched = unmatched;
+    }
+
+    /**
+     * @param handler  "button" or "list", used in metric tags and error messages
+     * @param exactIds ids a strategy handles whole
+     * @param prefixes id prefixes a strategy handles
+     * @throws IllegalStateException if a strategy declares no routes, or routes of two strategies overlap
+     */
+    public static <S> InteractionRouter<S> build(String handler, Collection<? extends S> strategies,
+                                                 Function<S, Collection<String>> exactIds,
+                                                 Function<S, Collection<String>> prefixes,
+                                                 MeterRegistry meterRegistry) {
+        List<Route<S>> routes = new ArrayList<>();
+        for (S strategy : strategies) {
+            Collection<String> exact = exactIds.apply(strategy);
+            Collection<String> prefix = prefixes.apply(strategy);
+            if (exact.isEmpty() && prefix.isEmpty()) {
+                throw new IllegalStateException(name(strategy) + " declares no " + handler + " ids");
+            }
+            exact.forEach(id -> routes.add(new Route<>(id, false, strategy)));
+            prefix.forEach(id -> routes.add(new Route<>(id, true, strategy)));
+        }
+
+        for (int i = 0; i < routes.size(); i++) {
+            for (int j = i + 1; j < routes.size(); j++) {
+                Route<S> a = routes.get(i);
+                Route<S> b = routes.get(j);
+                if (a.strategy() != b.strategy() && a.overlaps(b)) {
+                    throw new IllegalStateException(String.format("Overlapping %s routes: %s (%s) and %s (%s)",
+                            handler, a.pattern(), name(a.strategy()), b.pattern(), name(b.strategy())));
+                }
+            }
+        }
+
+        MutableNode<S> root = new MutableNode<>();
+        for (Route<S> route : routes) {
+            MutableNode<S> node = root;
+            for (int i = 0; i < route.id().length(); i++) {
+                node = node.child(route.id().charAt(i));
+            }
+            Target<S> target = new Target<>(route.strategy(), Counter.builder("whatsapp.interaction.routes")
+                    .description("Interaction ids dispatched, by route")
+                    .tag("handler", handler)
+                    .tag("route", route.pattern())
+                    .tag("strategy", name(route.strategy()))
+                    .register(meterRegistry));
+            if (route.prefix()) {
+                node.prefix = target;
+            } else {
+                node.exact = target;
+            }
+        }
+        Counter unmatched = Counter.builder("whatsapp.interaction.routes")
+                .description("Interaction ids dispatched, by route")
+                .tag("handler", handler)
+                .tag("route", "none")
+                .tag("strategy", "none")
+                .register(meterRegistry);
+        return new InteractionRouter<>(root.compile(), unmatched);
+    }
+
+    /** The strategy for this id, if any route matches it. */
+    public Optional<S> route(String id) {
+        Node<S> node = root;
+        Target<S> match = node.prefix;
+        for (int i = 0; i < id.length() && node != null; i++) {
+            node = node.child(id.charAt(i));
+            if (node != null && node.prefix != null) {
+                match = node.prefix;
+            }
+        }
+        if (node != null && node.exact != null) {
+            match = node.exact;
+        }
+        if (match == null) {
+            unmatched.increment();
+            return Optional.empty();
+        }
+        match.hits.increment();
+        return Optional.of(match.strategy);
+    }
+
+    private static String name(Object strategy) {
+        return strategy.getClass().getSimpleName();
+    }
+
+    private record Route<S>(String id, boolean prefix, S strategy) {
+
+        String pattern() {
+            return prefix ? id + "*" : id;
+        }
+
+        boolean overlaps(Route<S> other) {
+            if (prefix && other.prefix) {
+                return id.startsWith(other.id) || other.id.startsWith(id);
+            }
+            if (prefix) {
+                return other.id.startsWith(id);
+            }
+            if (other.prefix) {
+                return id.startsWith(other.id);
+            }
+            return id.equals(other.id);
+        }
+    }
+
+    private record Target<S>(S strategy, Counter hits) {
+    }
+
+    private static final class MutableNode<S> {
+        private final Map<Character, MutableNode<S>> children = new TreeMap<>();
+        private Target<S> exact;
+        private Target<S> prefix;
+
+        MutableNode<S> child(char c) {
+            return children.computeIfAbsent(c, key -> new MutableNode<>());
+        }
+
+        Node<S> compile() {
+            char[] labels = new char[children.size()];
+            @SuppressWarnings("unchecked")
+            Node<S>[] nodes = new Node[children.size()];
+            int i = 0;
+            for (Map.Entry<Character, MutableNode<S>> entry : children.entrySet()) {
+                labels[i] = entry.getKey();
+                nodes[i++] = entry.getValue().compile();
+            }
+            return new Node<>(labels, nodes, exact, prefix);
+        }
+    }
+
+    // Immutable after build; children sorted by label for a binary search per character
+    private static final class Node<S> {
+        private final char[] labels;
+        private final Node<S>[] children;
+        private final Target<S> exact;
+        private final Target<S> prefix;
+
+        Node(char[] labels, Node<S>[] children, Target<S> exact, Target<S> prefix) {
+            this.labels = labels;
+            this.children = children;
+            this.exact = exact;
+            this.prefix = prefix;
+        }
+
+        Node<S> child(char c) {
+            int index = Arrays.binarySearch(labels, c);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+}
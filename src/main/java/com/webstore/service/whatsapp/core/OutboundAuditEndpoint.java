@@ -0,0 +1,40 @@
+package com.webstore.service.whatsapp.core;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/outboundaudit?recipient=...} or {@code ?messageId=...}:
+ * recent outbound payloads from {@link OutboundAuditSink}. Payloads carry
+ * customer phone numbers and message text, so the endpoint is not in the
+ * default web exposure; add it to {@code management.endpoints.web.exposure.include}
+ * where the actuator port is private.
+ */
+@Component
+@Endpoint(id = "outboundaudit")
+public class OutboundAuditEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final OutboundAuditSink auditSink;
+
+    public OutboundAuditEndpoint(OutboundAuditSink auditSink) {
+        this.auditSink = auditSink;
+    }
+
+    @ReadOperation
+    public List<OutboundAuditRecord> query(@Nullable String recipient, @Nullable String messageId,
+                                           @Nullable Integer limit) {
+        if (messageId != null) {
+            return auditSink.findByMessageId(messageId).map(List::of).orElse(List.of());
+        }
+        if (recipient != null) {
+            return auditSink.findByRecipient(recipient, limit != null ? limit : DEFAULT_LIMIT);
+        }
+        return List.of();
+    }
+}
@@ -0,0 +1,32 @@
+package com.webstore.service.whatsapp.core;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One outbound send as kept by {@link OutboundAuditSink}.
+ */
+@Getter
+@ToString(exclude = "payload")
+@RequiredArgsConstructor
+public class OutboundAuditRecord {
+
+    private final long sequence;
+    private final long timestamp;           // epoch millis when the send completed
+    private final String recipient;
+    private final String messageType;
+    private final String messageId;         // null when the send failed or the response had none
+    private final int status;               // HTTP status; 0 when no response was received
+    private final String error;             // failure type, null on success
+    @JsonIgnore
+    private final byte[] payload;           // request JSON, at most the configured size
+    private final boolean truncated;
+
+    public String getPayloadText() {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
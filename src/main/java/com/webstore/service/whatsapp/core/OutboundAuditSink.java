@@ -0,0 +1,277 @@
+package com.webstore.service.whatsapp.core;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.exception.GraphApiException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.DoubleSupplier;
+import java.util.stream.Stream;
+
+/**
+ * Keeps recent outbound payloads for troubleshooting, instead of logging
+ * every request and response body at INFO.
+ * <p>
+ * Recording claims a slot in a fixed ring with one atomic increment and
+ * stores a reference to the payload bytes the sender already has (a copy only
+ * when they exceed the size cap), so the send path does no formatting and
+ * never blocks. The newest {@code capacity} records can be looked up by
+ * recipient or message id. Successful sends are sampled; failures are always
+ * kept.
+ * <p>
+ * With {@code file-enabled}, a background thread also appends records to
+ * rolling binary segment files, oldest deleted first. If the ring laps the
+ * writer, the overwritten records are counted as dropped.
+ */
+@Component
+public class OutboundAuditSink {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboundAuditSink.class);
+
+    private static final String PREFIX = "outbound-audit-";
+    private static final String SUFFIX = ".bin";
+
+    private final WhatsAppConfiguration.Audit config;
+    private final DoubleSupplier random;
+    private final int maxPayloadBytes;
+    private final AtomicReferenceArray<OutboundAuditRecord> ring;
+    private final int mask;
+    private final AtomicLong next = new AtomicLong();
+    private final Counter recorded;
+    private final Counter sampledOut;
+    private final Counter dropped;
+
+    // Writer thread state
+    private final ScheduledExecutorService writer;
+    private final Path directory;
+    private long cursor;
+    private DataOutputStream out;
+    private long segmentBytes;
+
+    @Autowired
+    public OutboundAuditSink(WhatsAppConfiguration whatsAppConfig, MeterRegistry meterRegistry) {
+        this(whatsAppConfig.getApi().getAudit(), meterRegistry, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    public OutboundAuditSink(WhatsAppConfiguration.Audit config, MeterRegistry meterRegistry, DoubleSupplier random) {
+        this.config = config;
+        this.random = random;
+        this.maxPayloadBytes = (int) config.getMaxPayloadSize().toBytes();
+        int capacity = Integer.highestOneBit(Math.max(1, config.getCapacity() - 1)) << 1;
+        this.ring = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.recorded = Counter.builder("whatsapp.audit.records")
+                .description("Outbound sends offered to the audit sink")
+                .tag("result", "recorded")
+                .register(meterRegistry);
+        this.sampledOut = Counter.builder("whatsapp.audit.records")
+                .description("Outbound sends offered to the audit sink")
+                .tag("result", "sampled_out")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("whatsapp.audit.dropped")
+                .description("Audit records overwritten before the file writer reached them")
+                .register(meterRegistry);
+
+        this.directory = Paths.get(config.getDirectory());
+        if (config.isEnabled() && config.isFileEnabled()) {
+            try {
+                Files.createDirectories(directory);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Cannot open outbound audit directory " + directory, e);
+            }
+            long interval = config.getFlushInterval().toNanos();
+            writer = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("outbound-audit-"));
+            writer.scheduleWithFixedDelay(this::drain, interval, interval, TimeUnit.NANOSECONDS);
+        } else {
+            writer = null;
+        }
+    }
+
+    /**
+     * Records a completed send. Called on the HTTP client thread; does no I/O.
+     *
+     * @param result  the outcome, null when the send failed
+     * @param failure the failure, null when it succeeded
+     */
+    public void record(String recipient, String messageType, byte[] payload, SendResult result, Throwable failure) {
+        if (!config.isEnabled()) {
+            return;
+        }
+        if (failure == null && config.getSampleRate() < 1.0 && random.getAsDouble() >= config.getSampleRate()) {
+            sampledOut.increment();
+            return;
+        }
+        boolean truncated = payload.length > maxPayloadBytes;
+        byte[] kept = truncated ? Arrays.copyOf(payload, maxPayloadBytes) : payload;
+        int status = failure == null ? 200
+                : failure instanceof GraphApiException graphApiException ? graphApiException.getStatusCode() : 0;
+        long sequence = next.getAndIncrement();
+        ring.set((int) (sequence & mask), new OutboundAuditRecord(sequence, System.currentTimeMillis(), recipient,
+                messageType, result != null ? result.getMessageId() : null, status,
+                failure != null ? failure.getClass().getSimpleName() : null, kept, truncated));
+        recorded.increment();
+    }
+
+    /** Records still in memory for this recipient, newest first. */
+    public List<OutboundAuditRecord> findByRecipient(String recipient, int limit) {
+        return snapshot()
+                .filter(entry -> recipient.equals(entry.getRecipient()))
+                .limit(limit)
+                .toList();
+    }
+
+    public Optional<OutboundAuditRecord> findByMessageId(String messageId) {
+        return snapshot().filter(entry -> messageId.equals(entry.getMessageId())).findFirst();
+    }
+
+    private Stream<OutboundAuditRecord> snapshot() {
+        List<OutboundAuditRecord> entries = new ArrayList<>(ring.length());
+        for (int i = 0; i < ring.length(); i++) {
+            OutboundAuditRecord entry = ring.get(i);
+            if (entry != null) {
+                entries.add(entry);
+            }
+        }
+        return entries.stream().sorted(Comparator.comparingLong(OutboundAuditRecord::getSequence).reversed());
+    }
+
+    /** Writes records the writer has not seen yet; runs on the writer thread only. */
+    void drain() {
+        long upTo = next.get();
+        if (upTo - cursor > ring.length()) {
+            dropped.increment(upTo - ring.length() - cursor);
+            cursor = upTo - ring.length();
+        }
+        try {
+            for (; cursor < upTo; cursor++) {
+                OutboundAuditRecord entry = ring.get((int) (cursor & mask));
+                if (entry == null || entry.getSequence() < cursor) {
+                    break;      // slot claimed but not filled yet; pick it up next time
+                }
+                if (entry.getSequence() > cursor) {
+                    dropped.increment();
+                    continue;
+                }
+                write(entry);
+            }
+            if (out != null) {
+                out.flush();
+            }
+        } catch (IOException e) {
+            logger.warn("Could not write outbound audit records: {}", e.getMessage());
+            closeSegment();
+        }
+    }
+
+    private void write(OutboundAuditRecord entry) throws IOException {
+        if (out == null || segmentBytes >= config.getSegmentSize().toBytes()) {
+            roll(entry.getSequence());
+        }
+        int before = out.size();
+        out.writeLong(entry.getSequence());
+        out.writeLong(entry.getTimestamp());
+        out.writeUTF(entry.getRecipient() != null ? entry.getRecipient() : "");
+        out.writeUTF(entry.getMessageType());
+        out.writeUTF(entry.getMessageId() != null ? entry.getMessageId() : "");
+        out.writeShort(entry.getStatus());
+        out.writeUTF(entry.getError() != null ? entry.getError() : "");
+        out.writeBoolean(entry.isTruncated());
+        out.writeInt(entry.getPayload().length);
+        out.write(entry.getPayload());
+        segmentBytes += out.size() - before;
+    }
+
+    private void roll(long firstSequence) throws IOException {
+        closeSegment();
+        // Named by creation time, so segments sort oldest first across restarts
+        Path file = directory.resolve(String.format("%s%013d-%020d%s", PREFIX, System.currentTimeMillis(),
+                firstSequence, SUFFIX));
+        out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(file)));
+        segmentBytes = 0;
+        try (Stream<Path> files = Files.list(directory)) {
+            List<Path> segments = files
+                    .filter(path -> path.getFileName().toString().startsWith(PREFIX))
+                    .sorted()
+                    .toList();
+            for (int i = 0; i < segments.size() - config.getMaxSegments(); i++) {
+                Files.deleteIfExists(segments.get(i));
+            }
+        }
+    }
+
+    private void closeSegment() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            logger.warn("Could not close outbound audit segment: {}", e.getMessage());
+        }
+        out = null;
+    }
+
+    /** Reads back one segment file written by the sink. */
+    public static List<OutboundAuditRecord> read(Path file) throws IOException {
+        List<OutboundAuditRecord> entries = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            while (true) {
+                long sequence;
+                try {
+                    sequence = in.readLong();
+                } catch (EOFException e) {
+                    return entries;
+                }
+                long timestamp = in.readLong();
+                String recipient = in.readUTF();
+                String messageType = in.readUTF();
+                String messageId = in.readUTF();
+                int status = in.readShort();
+                String error = in.readUTF();
+                boolean truncated = in.readBoolean();
+                byte[] payload = in.readNBytes(in.readInt());
+                entries.add(new OutboundAuditRecord(sequence, timestamp, recipient, messageType,
+                        messageId.isEmpty() ? null : messageId, status, error.isEmpty() ? null : error,
+                        payload, truncated));
+            }
+        }
+    }
+
+    @PreDestroy
+    public void close() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        writer.shutdown();
+        writer.awaitTermination(5, TimeUnit.SECONDS);
+        drain();
+        closeSegment();
+    }
+}
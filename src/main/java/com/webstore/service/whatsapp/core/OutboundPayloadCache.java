@@ -0,0 +1,192 @@
+package com.webstore.service.whatsapp.core;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.dto.request.WhatsAppRequestDto;
+import com.webstore.exception.WhatsAppFlowException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * Serialized JSON for messages that only differ by recipient: the welcome
+ * message, a page of the category list. The message is built once per kind
+ * and version with a placeholder recipient and serialized; each send copies
+ * those bytes with the real recipient spliced in, so the hot path builds no
+ * DTO tree and runs no Jackson serialization.
+ * <p>
+ * Callers pass the version their content depends on, normally
+ * {@link com.webstore.service.whatsapp.business.CatalogVersion#current()}, or
+ * {@link #STATIC} for messages that never change. At {@code maxEntries},
+ * entries built for an older catalog version or past {@code maxAge} are
+ * dropped first, then the least recently used kind.
+ */
+@Component
+public class OutboundPayloadCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboundPayloadCache.class);
+
+    /** Version for messages that do not depend on the catalog. */
+    public static final long STATIC = -1;
+
+    // Cannot come out of a phone number or a message text, so it is found exactly once
+    static final String RECIPIENT_PLACEHOLDER = "\u0000to\u0000";
+
+    private final WhatsAppConfiguration.PayloadCache config;
+    private final ObjectMapper objectMapper;
+    private final LongSupplier nanoTime;
+    private final Map<String, Template> templates = new ConcurrentHashMap<>();
+    private final byte[] placeholder;
+    private final long maxAgeNanos;
+    private final Counter hits;
+    private final Counter misses;
+
+    @Autowired
+    public OutboundPayloadCache(WhatsAppConfiguration whatsAppConfig, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry) {
+        this(whatsAppConfig.getPayloadCache(), objectMapper, meterRegistry, System::nanoTime);
+    }
+
+    public OutboundPayloadCache(WhatsAppConfiguration.PayloadCache config, ObjectMapper objectMapper,
+                                MeterRegistry meterRegistry, LongSupplier nanoTime) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.nanoTime = nanoTime;
+        this.maxAgeNanos = config.getMaxAge().toNanos();
+        this.placeholder = JsonStringEncoder.getInstance().quoteAsUTF8(RECIPIENT_PLACEHOLDER);
+
+        this.hits = Counter.builder("whatsapp.payload.cache.requests")
+                .description("Outbound payloads served from, or rebuilt into, the payload cache")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.misses = Counter.builder("whatsapp.payload.cache.requests")
+                .description("Outbound payloads served from, or rebuilt into, the payload cache")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("whatsapp.payload.cache.size", templates, Map::size)
+                .description("Message kinds held in the payload cache")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Returns the serialized message for {@code recipient}.
+     *
+     * @param kind     identifies the message, including anything besides the
+     *                 version it depends on (e.g. the page number)
+     * @param template builds the message for the recipient it is given; only
+     *                 called when the cached bytes are missing or stale
+     */
+    public byte[] payload(String kind, long version, String recipient,
+                          Function<String, WhatsAppRequestDto> template) {
+        if (!config.isEnabled()) {
+            return serialize(kind, template.apply(recipient));
+        }
+        long now = nanoTime.getAsLong();
+        Template cached = templates.get(kind);
+        if (cached != null && cached.version == version && now - cached.builtAt < maxAgeNanos) {
+            hits.increment();
+            cached.lastUsed = now;
+            return cached.render(recipient);
+        }
+        misses.increment();
+        Template built = build(kind, version, now, template);
+        if (built == null) {
+            return serialize(kind, template.apply(recipient));
+        }
+        if (config.getMaxEntries() > 0) {
+            if (cached == null && templates.size() >= config.getMaxEntries()) {
+                makeRoom(version, now);
+            }
+            templates.put(kind, built);
+        }
+        return built.render(recipient);
+    }
+
+    /** Drops every cached payload, e.g. after a change the version does not cover. */
+    public void clear() {
+        templates.clear();
+    }
+
+    // Only runs on a miss with the cache full, so a scan of at most maxEntries is fine
+    private synchronized void makeRoom(long version, long now) {
+        templates.values().removeIf(entry -> (entry.version != STATIC && entry.version < version)
+                || now - entry.builtAt >= maxAgeNanos);
+        while (templates.size() >= config.getMaxEntries() && !templates.isEmpty()) {
+            templates.entrySet().stream()
+                    .min(Comparator.comparingLong(entry -> entry.getValue().lastUsed))
+                    .ifPresent(entry -> templates.remove(entry.getKey(), entry.getValue()));
+        }
+    }
+
+    private Template build(String kind, long version, long now, Function<String, WhatsAppRequestDto> template) {
+        byte[] bytes = serialize(kind, template.apply(RECIPIENT_PLACEHOLDER));
+        int at = indexOf(bytes, placeholder, 0);
+        if (at < 0 || indexOf(bytes, placeholder, at + 1) >= 0) {
+            // The recipient is not a plain field of this message; serialize it per send
+            logger.warn("Not caching {}: the recipient does not appear exactly once in the payload", kind);
+            return null;
+        }
+        return new Template(version, now, bytes, at, placeholder.length);
+    }
+
+    private byte[] serialize(String kind, WhatsAppRequestDto message) {
+        try {
+            return objectMapper.writeValueAsBytes(message);
+        } catch (JsonProcessingException e) {
+            throw new WhatsAppFlowException("Could not serialize " + kind, e);
+        }
+    }
+
+    private static int indexOf(byte[] bytes, byte[] target, int from) {
+        outer:
+        for (int i = from; i <= bytes.length - target.length; i++) {
+            for (int j = 0; j < target.length; j++) {
+                if (bytes[i + j] != target[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static final class Template {
+
+        private final long version;
+        private final long builtAt;
+        private final byte[] bytes;
+        private final int at;           // where the placeholder starts
+        private final int skip;         // placeholder length
+        private volatile long lastUsed;
+
+        Template(long version, long builtAt, byte[] bytes, int at, int skip) {
+            this.version = version;
+            this.builtAt = builtAt;
+            this.bytes = bytes;
+            this.at = at;
+            this.skip = skip;
+            this.lastUsed = builtAt;
+        }
+
+        byte[] render(String recipient) {
+            byte[] to = JsonStringEncoder.getInstance().quoteAsUTF8(recipient);
+            byte[] out = Arrays.copyOf(bytes, bytes.length - skip + to.length);
+            System.arraycopy(to, 0, out, at, to.length);
+            System.arraycopy(bytes, at + skip, out, at + to.length, bytes.length - at - skip);
+            return out;
+        }
+    }
+}
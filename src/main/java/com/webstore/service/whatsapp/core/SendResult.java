@@ -0,0 +1,18 @@
+package com.webstore.service.whatsapp.core;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * Outcome of one accepted Graph API send.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class SendResult {
+
+    private final String messageId;         // wamid assigned by WhatsApp, null if the response had none
+    private final String recipient;
+    private final String messageType;
+}
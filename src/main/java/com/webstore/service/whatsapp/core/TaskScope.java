@@ -0,0 +1,132 @@
+package com.webstore.service.whatsapp.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Fork/join scope for independent lookups inside one interaction, modelled
+ * on {@code StructuredTaskScope.ShutdownOnFailure}: subtasks are forked,
+ * {@link #join()} waits for all of them, the first failure cancels the rest,
+ * and closing the scope early cancels whatever was forked.
+ * <pre>
+ * try (TaskScope scope = interactionExecutor.openScope()) {
+ *     TaskScope.Subtask&lt;A&gt; a = scope.fork(() -&gt; ...);
+ *     TaskScope.Subtask&lt;B&gt; b = scope.fork(() -&gt; ...);
+ *     scope.join();
+ *     use(a.get(), b.get());
+ * }
+ * </pre>
+ */
+public class TaskScope implements AutoCloseable {
+
+    private final ExecutorService executor;
+    private final List<Subtask<?>> subtasks = new ArrayList<>();
+    private final AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+    private CountDownLatch remaining;
+    private boolean joined;
+
+    TaskScope(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    public <T> Subtask<T> fork(Callable<T> task) {
+        if (remaining != null) {
+            throw new IllegalStateException("Cannot fork after join");
+        }
+        Subtask<T> subtask = new Subtask<>(task);
+        subtasks.add(subtask);
+        return subtask;
+    }
+
+    /**
+     * Starts every forked subtask and waits for all of them.
+     *
+     * @throws RuntimeException the first subtask failure, unwrapped when it
+     * is unchecked; the remaining subtasks are cancelled
+     */
+    public void join() throws InterruptedException {
+        if (remaining != null) {
+            throw new IllegalStateException("Scope already joined");
+        }
+        remaining = new CountDownLatch(subtasks.size());
+        for (Subtask<?> subtask : subtasks) {
+            executor.execute(subtask);
+        }
+        try {
+            remaining.await();
+        } catch (InterruptedException e) {
+            cancelAll();
+            throw e;
+        }
+        joined = true;
+
+        Throwable failure = firstFailure.get();
+        if (failure instanceof RuntimeException runtimeException) {
+            throw runtimeException;
+        }
+        if (failure instanceof Error error) {
+            throw error;
+        }
+        if (failure != null) {
+            throw new IllegalStateException("Subtask failed: " + failure.getMessage(), failure);
+        }
+    }
+
+    @Override
+    public void close() {
+        if (!joined) {
+            cancelAll();
+        }
+    }
+
+    private void cancelAll() {
+        for (Subtask<?> subtask : subtasks) {
+            subtask.cancel(true);
+        }
+    }
+
+    public final class Subtask<T> extends FutureTask<T> {
+
+        private Subtask(Callable<T> task) {
+            super(task);
+        }
+
+        /**
+         * @return the subtask's result; only valid after a successful {@link TaskScope#join()}
+         */
+        @Override
+        public T get() {
+            if (!joined || !isDone() || isCancelled()) {
+                throw new IllegalStateException("Subtask result is not available");
+            }
+            try {
+                return super.get();
+            } catch (Exception e) {
+                throw new IllegalStateException("Subtask result is not available", e);
+            }
+        }
+
+        @Override
+        protected void setException(Throwable failure) {
+            // Recorded before completing, so join never wakes up without seeing it
+            boolean first = firstFailure.compareAndSet(null, failure);
+            super.setException(failure);
+            if (first) {
+                cancelAll();
+            }
+        }
+
+        @Override
+        protected void done() {
+            // Also runs on cancel, which can happen before join when the scope is closed early
+            if (remaining != null) {
+                remaining.countDown();
+            }
+        }
+    }
+}
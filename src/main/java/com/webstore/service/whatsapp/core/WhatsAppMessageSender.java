@@ -1,57 +1,156 @@
 package com.webstore.service.whatsapp.core;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.constant.WhatsAppConstants;
 import com.webstore.dto.request.WhatsAppRequestDto;
+import com.webstore.exception.GraphApiException;
+import com.webstore.exception.GraphApiUnavailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import okhttp3.Call;
+import okhttp3.Callback;
+import okhttp3.MediaType;
+import okhttp3.OkHttpClient;
+import okhttp3.Request;
+import okhttp3.RequestBody;
+import okhttp3.Response;
+import okhttp3.ResponseBody;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
 
 @Service
 public class WhatsAppMessageSender {
 
     private static final Logger logger = LoggerFactory.getLogger(WhatsAppMessageSender.class);
 
+    private static final MediaType JSON = MediaType.get("application/json");
+
     private final WhatsAppConfiguration whatsAppConfig;
-    private final RestTemplate restTemplate;
+    private final OkHttpClient graphApiHttpClient;
+    private final ObjectMapper objectMapper;
+    private final GraphApiRateLimiter rateLimiter;
+    private final GraphApiRetryExecutor retryExecutor;
+    private final GraphApiCircuitBreaker circuitBreaker;
+    private final OutboundAuditSink auditSink;
+    private final String messagesUrlPrefix;
+    private final int maxThrottleRetries;
+    private final int maxInFlight;
+    private final Semaphore inFlight;
+    private final Counter rejected;
+    private final boolean mergeConfirmations;
+    private final Counter confirmationsMerged;
+    private final Counter confirmationsSeparate;
+    // Last ordered send to each recipient; removed when it completes with nothing queued behind it
+    private final ConcurrentHashMap<String, CompletableFuture<SendResult>> tails = new ConcurrentHashMap<>();
+    // Confirmations held until the recipient's next ordered send
+    private final ConcurrentHashMap<String, Confirmation> confirmations = new ConcurrentHashMap<>();
 
-    public WhatsAppMessageSender(WhatsAppConfiguration whatsAppConfig, RestTemplate restTemplate) {
+    public WhatsAppMessageSender(WhatsAppConfiguration whatsAppConfig, OkHttpClient graphApiHttpClient,
+                                 ObjectMapper objectMapper, GraphApiRateLimiter rateLimiter,
+                                 GraphApiRetryExecutor retryExecutor, GraphApiCircuitBreaker circuitBreaker,
+                                 OutboundAuditSink auditSink, MeterRegistry meterRegistry) {
         this.whatsAppConfig = whatsAppConfig;
-        this.restTemplate = restTemplate;
+        this.graphApiHttpClient = graphApiHttpClient;
+        this.objectMapper = objectMapper;
+        this.rateLimiter = rateLimiter;
+        this.retryExecutor = retryExecutor;
+        this.circuitBreaker = circuitBreaker;
+        this.auditSink = auditSink;
+        this.messagesUrlPrefix = whatsAppConfig.getApi().getGraphUrl() + "/"    // https://graph.facebook.com
+                + whatsAppConfig.getApi().getVersion() + "/";                       // v22.0
+        this.maxThrottleRetries = whatsAppConfig.getApi().getRateLimit().getMaxThrottleRetries();
+        this.maxInFlight = whatsAppConfig.getApi().getHttp().getMaxInFlight();
+        this.inFlight = new Semaphore(maxInFlight);
+        this.rejected = Counter.builder("whatsapp.graph.sends.rejected")
+                .description("Sends refused because too many were already in flight")
+                .register(meterRegistry);
+        this.mergeConfirmations = whatsAppConfig.getApi().isMergeConfirmations();
+        this.confirmationsMerged = Counter.builder("whatsapp.graph.confirmations")
+                .description("Short confirmations, merged into the next message or sent on their own")
+                .tag("result", "merged")
+                .register(meterRegistry);
+        this.confirmationsSeparate = Counter.builder("whatsapp.graph.confirmations")
+                .description("Short confirmations, merged into the next message or sent on their own")
+                .tag("result", "separate")
+                .register(meterRegistry);
+        Gauge.builder("whatsapp.graph.sends.ordered.recipients", tails, Map::size)
+                .description("Recipients with ordered sends queued or in flight")
+                .register(meterRegistry);
+        Gauge.builder("whatsapp.graph.sends.inflight", inFlight, permits -> maxInFlight - permits.availablePermits())
+                .description("Sends handed to the HTTP client and not yet answered")
+                .register(meterRegistry);
     }
 
+    /**
+     * Queues the message behind earlier ordered sends and confirmations to the
+     * same recipient and returns at once, like {@link #sendInOrder}, so a flow
+     * builds its next message while this one is on the wire. Failures are
+     * logged, never thrown; use {@link #sendMessageAsync} when the caller needs
+     * the outcome, and {@link #whenDelivered} to learn when the interaction's
+     * messages are answered.
+     */
     public void sendMessage(String phoneNumberId, WhatsAppRequestDto requestBody, String messageType) {
-        String url = buildUrl(phoneNumberId);
-
-        // ✅ ADDED: Debug logging to see the actual request
-        logger.info("Sending {} to URL: {}", messageType, url);
-        logger.info("Request body: {}", requestBody);
+        sendInOrder(phoneNumberId, requestBody, messageType);
+    }
 
-        try {
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                    url, new HttpEntity<>(requestBody, createHeaders()), String.class);
-            logger.info("{} sent successfully: {}", messageType, response.getBody());
-        } catch (Exception e) {
-            logger.error("Failed to send {}: {}", messageType, e.getMessage());
-
-            // ✅ IMPROVED: Better error logging
-            if (e.getMessage().contains("400")) {
-                logger.error("400 Bad Request - Check phone number ID and request body format");
-                logger.error("URL used: {}", url);
-                logger.error("Phone Number ID: {}", phoneNumberId);
+    /**
+     * Queues a payload serialized ahead of time, e.g. by
+     * {@link OutboundPayloadCache}. Behaves like {@link #sendMessage},
+     * including the list fallback and the merging of a held confirmation,
+     * which costs a parse and a rewrite of the bytes only when there is one.
+     */
+    public void sendPayload(String phoneNumberId, String recipient, byte[] payload, String messageType) {
+        Confirmation confirmation = confirmations.remove(recipient);
+        byte[] body = payload;
+        if (confirmation != null) {
+            byte[] merged = merge(confirmation, payload);
+            if (merged != null) {
+                body = merged;
+            } else {
+                sendSeparately(confirmation, recipient);
             }
+        }
+        byte[] toSend = body;
+        inOrder(recipient, () -> send(phoneNumberId, recipient, toSend, messageType, messageType.contains("list")));
+    }
 
-            // Fallback for list messages
-            if (messageType.contains("list")) {
-                String fallbackMessage = "🔧 **Technical Issue**\n\nSorry, there was a problem displaying the list. Please type 'categories' to try again or contact support.";
-                WhatsAppRequestDto fallbackRequest = WhatsAppRequestDto.createTextMessage(requestBody.getTo(), fallbackMessage);
-                sendMessage(phoneNumberId, fallbackRequest, "fallback text message");
-            }
+    /**
+     * Completes once every ordered send queued so far for this recipient has
+     * been answered, successfully or not; failures are already logged, so it
+     * never completes exceptionally. Taken at the end of an interaction, so
+     * its messages overlap each other but not the sender's next tap. Sends
+     * parked by an open circuit breaker count as outstanding until they are
+     * released or dropped, at most {@code max-park-time} later, so the inbound
+     * message that caused them stays journaled while they only exist in memory.
+     */
+    public CompletableFuture<Void> whenDelivered(String to) {
+        CompletableFuture<SendResult> tail = tails.get(to);
+        if (tail == null) {
+            return CompletableFuture.completedFuture(null);
         }
+        return tail.handle((result, failure) -> null);
+    }
+
+    /** Blocking form of {@link #whenDelivered}. */
+    public void awaitDelivery(String to) {
+        whenDelivered(to).join();
     }
 
     public void sendTextMessage(String phoneNumberId, String to, String messageText) {
@@ -59,21 +158,359 @@ public class WhatsAppMessageSender {
         sendMessage(phoneNumberId, requestBody, "Text message");
     }
 
+    /**
+     * Hands the message to the HTTP client and returns at once. Retryable
+     * failures are retried by {@link GraphApiRetryExecutor}. The future
+     * completes on an HTTP client thread with the WhatsApp message id, or
+     * exceptionally with the last attempt's failure: {@link GraphApiException}
+     * for a non-2xx answer, {@link IOException} for a transport failure, or
+     * {@link RejectedExecutionException} when too many sends are in flight or
+     * the number's rate limit would hold the send too long, or
+     * {@link GraphApiUnavailableException} when the circuit breaker is open and
+     * could not hold the send.
+     * <p>
+     * Two async sends to the same recipient may reach WhatsApp in either
+     * order; use {@link #sendInOrder} when order matters.
+     */
+    public CompletableFuture<SendResult> sendMessageAsync(String phoneNumberId, WhatsAppRequestDto requestBody,
+                                                          String messageType) {
+        return send(phoneNumberId, requestBody, messageType, messageType.contains("list"));
+    }
+
+    public CompletableFuture<SendResult> sendTextMessageAsync(String phoneNumberId, String to, String messageText) {
+        WhatsAppRequestDto requestBody = WhatsAppRequestDto.createTextMessage(to, messageText);
+        return sendMessageAsync(phoneNumberId, requestBody, "Text message");
+    }
+
+    /**
+     * Like {@link #sendMessageAsync}, but the call to the Graph API waits
+     * until the previous ordered send to the same recipient has been answered,
+     * so messages arrive in the order they were queued. Returns at once: the
+     * caller can prepare its next message while this one is on the wire.
+     * A confirmation held by {@link #sendConfirmation} is merged into the body
+     * when this is an interactive message with room for it, and otherwise
+     * queued ahead of it.
+     */
+    public CompletableFuture<SendResult> sendInOrder(String phoneNumberId, WhatsAppRequestDto requestBody,
+                                                     String messageType) {
+        String recipient = requestBody.getTo();
+        Confirmation confirmation = confirmations.remove(recipient);
+        if (confirmation != null && !merge(confirmation, requestBody)) {
+            sendSeparately(confirmation, recipient);
+        }
+        boolean textFallback = messageType.contains("list");
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(requestBody);
+        } catch (JsonProcessingException e) {
+            return onFailure(phoneNumberId, buildUrl(phoneNumberId), recipient, messageType, textFallback, e);
+        }
+        return inOrder(recipient, () -> send(phoneNumberId, recipient, payload, messageType, textFallback));
+    }
+
+    /**
+     * A short acknowledgement, like "✅ Selected: Shoes", that the caller
+     * follows with another message in the same interaction. With
+     * {@code merge-confirmations} it is held and becomes the first paragraph of
+     * that message, saving a round trip; otherwise it is queued with
+     * {@link #sendInOrder} right away. Call {@link #flushConfirmation} when the
+     * interaction ends, in case nothing followed it.
+     */
+    public void sendConfirmation(String phoneNumberId, String to, String text) {
+        Confirmation confirmation = new Confirmation(phoneNumberId, text);
+        if (!mergeConfirmations) {
+            sendSeparately(confirmation, to);
+            return;
+        }
+        confirmations.merge(to, confirmation,
+                (held, next) -> new Confirmation(next.phoneNumberId(), held.text() + "\n" + next.text()));
+    }
+
+    /** Sends a confirmation still held for this recipient, if any. */
+    public void flushConfirmation(String to) {
+        Confirmation confirmation = confirmations.remove(to);
+        if (confirmation != null) {
+            sendSeparately(confirmation, to);
+        }
+    }
+
+    private boolean merge(Confirmation confirmation, WhatsAppRequestDto requestBody) {
+        WhatsAppRequestDto.Interactive interactive = requestBody.getInteractive();
+        if (interactive == null || interactive.getBody() == null || interactive.getBody().getText() == null) {
+            return false;
+        }
+        String merged = mergedText(confirmation, interactive.getBody().getText());
+        if (merged == null) {
+            return false;
+        }
+        interactive.getBody().setText(merged);
+        confirmationsMerged.increment();
+        return true;
+    }
+
+    /** The payload with the confirmation merged into its interactive body, or null if it has no room for it. */
+    private byte[] merge(Confirmation confirmation, byte[] payload) {
+        try {
+            JsonNode root = objectMapper.readTree(payload);
+            if (!(root.path("interactive").path("body") instanceof ObjectNode body) || !body.path("text").isTextual()) {
+                return null;
+            }
+            String merged = mergedText(confirmation, body.path("text").asText());
+            if (merged == null) {
+                return null;
+            }
+            body.put("text", merged);
+            byte[] bytes = objectMapper.writeValueAsBytes(root);
+            confirmationsMerged.increment();
+            return bytes;
+        } catch (IOException e) {
+            logger.warn("Could not merge confirmation into payload: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String mergedText(Confirmation confirmation, String bodyText) {
+        String merged = confirmation.text() + "\n\n" + bodyText;
+        return merged.length() <= WhatsAppConstants.MAX_INTERACTIVE_BODY_LENGTH ? merged : null;
+    }
+
+    private void sendSeparately(Confirmation confirmation, String to) {
+        confirmationsSeparate.increment();
+        WhatsAppRequestDto request = WhatsAppRequestDto.createTextMessage(to, confirmation.text());
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(request);
+        } catch (JsonProcessingException e) {
+            logger.error("Failed to send confirmation: {}", e.getMessage());
+            return;
+        }
+        inOrder(to, () -> send(confirmation.phoneNumberId(), to, payload, "Confirmation message", false));
+    }
+
+    /**
+     * Starts {@code send} once the previous ordered send to this recipient has
+     * completed, successfully or not. The returned future completes with it.
+     */
+    private CompletableFuture<SendResult> inOrder(String recipient, Supplier<CompletableFuture<SendResult>> send) {
+        CompletableFuture<SendResult> done = new CompletableFuture<>();
+        CompletableFuture<SendResult> previous = tails.put(recipient, done);
+        Runnable start = () -> send.get().whenComplete((result, failure) -> {
+            tails.remove(recipient, done);
+            if (failure != null) {
+                done.completeExceptionally(unwrap(failure));
+            } else {
+                done.complete(result);
+            }
+        });
+        if (previous == null) {
+            start.run();
+        } else {
+            previous.whenComplete((result, failure) -> start.run());
+        }
+        return done;
+    }
+
+    /**
+     * Sends a payload that was serialized ahead of time, e.g. by the outbox.
+     * Retries apply as for {@link #sendMessageAsync}; there is no list fallback.
+     */
+    public CompletableFuture<SendResult> sendPayloadAsync(String phoneNumberId, String recipient, byte[] payload,
+                                                          String messageType) {
+        return send(phoneNumberId, recipient, payload, messageType, false);
+    }
+
+    private CompletableFuture<SendResult> send(String phoneNumberId, WhatsAppRequestDto requestBody,
+                                               String messageType, boolean textFallback) {
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(requestBody);
+        } catch (JsonProcessingException e) {
+            return onFailure(phoneNumberId, buildUrl(phoneNumberId), requestBody.getTo(), messageType, textFallback, e);
+        }
+        return send(phoneNumberId, requestBody.getTo(), payload, messageType, textFallback);
+    }
+
+    private CompletableFuture<SendResult> send(String phoneNumberId, String recipient, byte[] payload,
+                                               String messageType, boolean textFallback) {
+        String url = buildUrl(phoneNumberId);
+        logger.debug("Sending {} to URL: {}", messageType, url);
+
+        // Payloads and responses go to the audit sink rather than the log
+        return retryExecutor.execute(messageType, () -> post(phoneNumberId, url, payload))
+                .thenApply(response -> new SendResult(parseMessageId(response), recipient, messageType))
+                .whenComplete((result, failure) -> auditSink.record(recipient, messageType, payload, result,
+                        failure != null ? unwrap(failure) : null))
+                .exceptionallyCompose(failure -> onFailure(phoneNumberId, url, recipient, messageType, textFallback,
+                        unwrap(failure)));
+    }
+
+    private static Throwable unwrap(Throwable failure) {
+        return failure instanceof CompletionException && failure.getCause() != null ? failure.getCause() : failure;
+    }
+
+    private CompletableFuture<SendResult> onFailure(String phoneNumberId, String url, String recipient,
+                                                    String messageType, boolean textFallback, Throwable e) {
+        logger.error("Failed to send {}: {}", messageType, e.getMessage());
+
+        // ✅ IMPROVED: Better error logging
+        if (e instanceof GraphApiException graphApiException && graphApiException.getStatusCode() == 400) {
+            logger.error("400 Bad Request - Check phone number ID and request body format");
+            logger.error("URL used: {}", url);
+            logger.error("Phone Number ID: {}", phoneNumberId);
+        }
+
+        // Fallback for list messages, sent once without a fallback of its own; the caller still sees the original failure
+        if (textFallback) {
+            String fallbackMessage = "🔧 **Technical Issue**\n\nSorry, there was a problem displaying the list. Please type 'categories' to try again or contact support.";
+            WhatsAppRequestDto fallbackRequest = WhatsAppRequestDto.createTextMessage(recipient, fallbackMessage);
+            return send(phoneNumberId, fallbackRequest, "fallback text message", false)
+                    .handle((result, fallbackFailure) -> null)
+                    .thenCompose(ignored -> CompletableFuture.failedFuture(e));
+        }
+        return CompletableFuture.failedFuture(e);
+    }
+
     // ✅ FIXED: Correct URL format with phone number ID in path
+    // {graphUrl}/{version}/ is fixed at startup, so only the phone number ID is appended per send
     private String buildUrl(String phoneNumberId) {
-        String url = String.format("%s/%s/%s/messages",
-                whatsAppConfig.getApi().getGraphUrl(),    // https://graph.facebook.com
-                whatsAppConfig.getApi().getVersion(),     // v22.0
-                phoneNumberId);                           // Your phone number ID
+        return messagesUrlPrefix + phoneNumberId + "/messages";
+    }
+
+    private CompletableFuture<String> post(String phoneNumberId, String url, byte[] payload) {
+        Request request = new Request.Builder()
+                .url(url)
+                .header("Authorization", "Bearer " + whatsAppConfig.getApi().getAccessToken())
+                .post(RequestBody.create(payload, JSON))
+                .build();
+
+        CompletableFuture<String> result = new CompletableFuture<>();
+        // A parked send holds no in-flight permit; it takes one when the breaker lets it through
+        circuitBreaker.submit(new GraphApiCircuitBreaker.Call() {
+            @Override
+            public void proceed(long epoch) {
+                if (!inFlight.tryAcquire()) {
+                    rejected.increment();
+                    circuitBreaker.onSkipped(epoch);
+                    result.completeExceptionally(
+                            new RejectedExecutionException(maxInFlight + " Graph API sends already in flight"));
+                    return;
+                }
+                schedule(phoneNumberId, request, result, 0, epoch);
+            }
+
+            @Override
+            public void reject(Throwable cause) {
+                result.completeExceptionally(cause);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * Waits for a rate limit token without holding a thread, then sends.
+     * The in-flight permit stays taken while the send is queued.
+     */
+    private void schedule(String phoneNumberId, Request request, CompletableFuture<String> result,
+                          int throttleRetries, long epoch) {
+        long wait = rateLimiter.reserve(phoneNumberId);
+        if (wait == GraphApiRateLimiter.REJECTED) {
+            circuitBreaker.onSkipped(epoch);
+            fail(result, new RejectedExecutionException("Rate limit queue for " + phoneNumberId + " is full"));
+        } else if (wait == 0) {
+            execute(phoneNumberId, request, result, throttleRetries, epoch);
+        } else {
+            CompletableFuture.delayedExecutor(wait, TimeUnit.NANOSECONDS)
+                    .execute(() -> execute(phoneNumberId, request, result, throttleRetries, epoch));
+        }
+    }
+
+    /**
+     * Makes the call and reports its final outcome to the circuit breaker:
+     * transport errors and 5xx count against the Graph API, other answers do
+     * not. A throttled send that is requeued reports only once, at the end.
+     */
+    private void execute(String phoneNumberId, Request request, CompletableFuture<String> result,
+                         int throttleRetries, long epoch) {
+        long startedAt = System.nanoTime();
+        graphApiHttpClient.newCall(request).enqueue(new Callback() {
+            @Override
+            public void onFailure(Call call, IOException e) {
+                circuitBreaker.onResult(epoch, true, System.nanoTime() - startedAt);
+                fail(result, e);
+            }
+
+            @Override
+            public void onResponse(Call call, Response response) {
+                // Reading the body to the end and closing it returns the connection to the pool
+                String responseBody;
+                try (response) {
+                    ResponseBody body = response.body();
+                    responseBody = body != null ? body.string() : "";
+                } catch (IOException e) {
+                    circuitBreaker.onResult(epoch, true, System.nanoTime() - startedAt);
+                    fail(result, e);
+                    return;
+                }
+                long duration = System.nanoTime() - startedAt;
+                if (response.isSuccessful()) {
+                    circuitBreaker.onResult(epoch, false, duration);
+                    succeed(result, responseBody);
+                } else if (isThrottled(response, responseBody)) {
+                    rateLimiter.onThrottled(phoneNumberId, retryAfter(response));
+                    if (throttleRetries < maxThrottleRetries) {
+                        // The message was not accepted, so sending it again cannot duplicate it
+                        logger.warn("Graph API throttled {}, requeueing send", phoneNumberId);
+                        schedule(phoneNumberId, request, result, throttleRetries + 1, epoch);
+                    } else {
+                        circuitBreaker.onResult(epoch, false, duration);
+                        fail(result, new GraphApiException(response.code(), responseBody));
+                    }
+                } else {
+                    circuitBreaker.onResult(epoch, response.code() >= 500, duration);
+                    fail(result, new GraphApiException(response.code(), responseBody));
+                }
+            }
+        });
+    }
+
+    // The permit is released before completing, so dependent stages (e.g. the list fallback) can send again
+    private void succeed(CompletableFuture<String> result, String responseBody) {
+        inFlight.release();
+        result.complete(responseBody);
+    }
 
-        logger.debug("Built URL: {}", url);
-        return url;
+    private void fail(CompletableFuture<String> result, Throwable failure) {
+        inFlight.release();
+        result.completeExceptionally(failure);
+    }
+
+    // 130429 is the Cloud API's throughput error, which is not always sent as a 429
+    private static boolean isThrottled(Response response, String responseBody) {
+        return response.code() == 429 || response.header("Retry-After") != null
+                || responseBody.contains("\"code\":130429");
+    }
+
+    private static Duration retryAfter(Response response) {
+        String header = response.header("Retry-After");
+        if (header == null) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Long.parseLong(header.trim()));
+        } catch (NumberFormatException e) {
+            return null;     // HTTP-date form; fall back to the default pause
+        }
+    }
+
+    private String parseMessageId(String response) {
+        try {
+            return objectMapper.readTree(response).path("messages").path(0).path("id").asText(null);
+        } catch (IOException e) {
+            logger.warn("Could not read message id from Graph API response: {}", e.getMessage());
+            return null;
+        }
     }
 
-    private HttpHeaders createHeaders() {
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
-        headers.set("Authorization", "Bearer " + whatsAppConfig.getApi().getAccessToken());
-        return headers;
+    private record Confirmation(String phoneNumberId, String text) {
     }
-}
\ No newline at end of file
+}
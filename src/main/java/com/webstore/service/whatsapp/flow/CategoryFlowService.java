@@ -2,11 +2,14 @@ package com.webstore.service.whatsapp.flow;
 
 
 import com.webstore.dto.request.WhatsAppRequestDto;
+import com.webstore.dto.response.CategorySummaryDto;
 
+import com.webstore.service.whatsapp.business.CatalogVersion;
+import com.webstore.service.whatsapp.core.OutboundPayloadCache;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import com.webstore.service.whatsapp.builder.MessageBuilderService;
 import com.webstore.service.whatsapp.business.CategoryBusinessService;
-import com.webstore.service.whatsapp.business.ProductBusinessService;
+import com.webstore.util.InteractionIdCodec;
 import com.webstore.util.MessageFormatter;
 import com.webstore.util.PaginationUtil;
 import org.slf4j.Logger;
@@ -23,78 +26,76 @@ public class CategoryFlowService {
     private static final Logger logger = LoggerFactory.getLogger(CategoryFlowService.class);
 
     private final CategoryBusinessService categoryService;
-    private final ProductBusinessService productService;
     private final WhatsAppMessageSender messageSender;
     private final MessageBuilderService messageBuilder;
     private final MessageFormatter formatter;
-    private final PaginationUtil paginationUtil;
+    private final OutboundPayloadCache payloadCache;
+    private final CatalogVersion catalogVersion;
 
     public CategoryFlowService(CategoryBusinessService categoryService,
-                               ProductBusinessService productService,
                                WhatsAppMessageSender messageSender,
                                MessageBuilderService messageBuilder,
                                MessageFormatter formatter,
-                               PaginationUtil paginationUtil) {
+                               OutboundPayloadCache payloadCache,
+                               CatalogVersion catalogVersion) {
         this.categoryService = categoryService;
-        this.productService = productService;
         this.messageSender = messageSender;
         this.messageBuilder = messageBuilder;
         this.formatter = formatter;
-        this.paginationUtil = paginationUtil;
+        this.payloadCache = payloadCache;
+        this.catalogVersion = catalogVersion;
     }
 
     public void sendCategorySelection(String version, String phoneNumberId, String recipientPhoneNumber) {
         if (categoryService.shouldUseButtonsForCategories()) {
             sendCategoryButtons(version, phoneNumberId, recipientPhoneNumber);
         } else {
-            sendCategoryList(version, phoneNumberId, recipientPhoneNumber, 1);
+            sendCategoryList(version, phoneNumberId, recipientPhoneNumber, PaginationUtil.PageCursor.first());
         }
     }
 
-    public void sendCategoryList(String version, String phoneNumberId, String recipientPhoneNumber, int pageNumber) {
-        List<String> allCategories = categoryService.getAllCategoryNames();
-        logger.info("Fetched all categories for pagination: {} categories, page: {}", allCategories.size(), pageNumber);
+    // A page only changes with the catalog, so it is built and serialized once per catalog version
+    public void sendCategoryList(String version, String phoneNumberId, String recipientPhoneNumber,
+                                 PaginationUtil.PageCursor cursor) {
+        String kind = "category_list_page_" + cursor.page() + "_" + cursor.afterKey() + "_" + cursor.beforeKey();
+        byte[] payload = payloadCache.payload(kind, catalogVersion.current(),
+                recipientPhoneNumber, to -> buildCategoryList(to, cursor));
+        messageSender.sendPayload(phoneNumberId, recipientPhoneNumber, payload,
+                "Category list message with pagination");
+    }
 
-        if (allCategories.isEmpty()) {
-            messageSender.sendTextMessage(phoneNumberId, recipientPhoneNumber,
-                    "No categories available at the moment.");
-            return;
-        }
+    private WhatsAppRequestDto buildCategoryList(String recipientPhoneNumber, PaginationUtil.PageCursor cursor) {
+        PaginationUtil.PaginationResult<CategorySummaryDto> paginationResult =
+                categoryService.getCategorySummaryPage(cursor);
+        logger.info("Fetched category summaries for pagination: {} categories, page: {}",
+                paginationResult.getTotalItems(), paginationResult.getCurrentPage());
 
-        PaginationUtil.PaginationResult<String> paginationResult =
-                paginationUtil.paginate(allCategories, pageNumber);
+        if (paginationResult.getItems().isEmpty()) {
+            return WhatsAppRequestDto.createTextMessage(recipientPhoneNumber, "No categories available at the moment.");
+        }
 
         List<WhatsAppRequestDto.Row> rows = new ArrayList<>();
 
         // Add category items
-        for (int i = 0; i < paginationResult.getItems().size(); i++) {
-            String categoryName = paginationResult.getItems().get(i);
-            Integer categoryId = categoryService.getCategoryIdByName(categoryName);
-
-            int productCount = 0;
-            if (categoryId != null) {
-                productCount = productService.getProductNamesByCategory(categoryId).size();
-            }
-
-            String rowDescription = String.format("%d products available", productCount);
-            int actualIndex = (pageNumber - 1) * 7 + i + 1;
+        for (CategorySummaryDto category : paginationResult.getItems()) {
+            String rowDescription = String.format("%d products available", category.getProductCount());
 
             rows.add(messageBuilder.createRow(
-                    String.format("cat_page_%d_item_%d", pageNumber, actualIndex),
-                    categoryName,
+                    InteractionIdCodec.category(paginationResult.getCurrentPage(), category.getCategoryId()),
+                    category.getCategoryName(),
                     "🔢 " + rowDescription
             ));
         }
 
         // Add navigation options
-        addNavigationRows(rows, paginationResult, "cat");
+        addNavigationRows(rows, paginationResult);
 
         WhatsAppRequestDto.Section section = messageBuilder.createSection("🏪 Categories", rows);
 
         String bodyText = String.format("📄 Page %d of %d (%d total categories)\n\nChoose a category to explore:",
                 paginationResult.getCurrentPage(), paginationResult.getTotalPages(), paginationResult.getTotalItems());
 
-        WhatsAppRequestDto requestBody = messageBuilder.buildListMessage(
+        return messageBuilder.buildListMessage(
                 recipientPhoneNumber,
                 "🛍️ WebStore",
                 bodyText,
@@ -102,8 +103,6 @@ public class CategoryFlowService {
                 "Browse Categories",
                 List.of(section)
         );
-
-        messageSender.sendMessage(phoneNumberId, requestBody, "Category list message with pagination");
     }
 
     private void sendCategoryButtons(String version, String phoneNumberId, String recipientPhoneNumber) {
@@ -142,12 +141,15 @@ public class CategoryFlowService {
         messageSender.sendMessage(phoneNumberId, requestBody, "Category buttons message");
     }
 
+    // Each row carries the key its page starts after, or ends before, so the page is a keyset query
     private void addNavigationRows(List<WhatsAppRequestDto.Row> rows,
-                                   PaginationUtil.PaginationResult<?> paginationResult, String type) {
+                                   PaginationUtil.PaginationResult<CategorySummaryDto> paginationResult) {
+        List<CategorySummaryDto> items = paginationResult.getItems();
         if (paginationResult.getTotalPages() > 1) {
             if (paginationResult.hasPrevious()) {
                 rows.add(messageBuilder.createRow(
-                        String.format("prev_%s_page_%d", type, paginationResult.getCurrentPage() - 1),
+                        InteractionIdCodec.categoryPage(paginationResult.getCurrentPage() - 1,
+                                0, items.get(0).getCategoryId()),
                         "⬅️ Previous Page",
                         String.format("Go to page %d", paginationResult.getCurrentPage() - 1)
                 ));
@@ -155,11 +157,12 @@ public class CategoryFlowService {
 
             if (paginationResult.hasNext()) {
                 rows.add(messageBuilder.createRow(
-                        String.format("next_%s_page_%d", type, paginationResult.getCurrentPage() + 1),
+                        InteractionIdCodec.categoryPage(paginationResult.getCurrentPage() + 1,
+                                items.get(items.size() - 1).getCategoryId(), 0),
                         "➡️ Next Page",
                         String.format("Go to page %d", paginationResult.getCurrentPage() + 1)
                 ));
             }
         }
     }
-}
\ No newline at end of file
+}
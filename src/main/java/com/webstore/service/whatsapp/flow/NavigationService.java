@@ -1,7 +1,9 @@
 package com.webstore.service.whatsapp.flow;
 
+import com.webstore.service.whatsapp.business.CategoryBusinessService;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
-import com.webstore.util.PaginationUtil;
+import com.webstore.service.whatsapp.session.ConversationSessionStore;
+import com.webstore.util.InteractionIdCodec;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -14,44 +16,61 @@ public class NavigationService {
 
     private final CategoryFlowService categoryFlowService;
     private final ProductFlowService productFlowService;
-    private final PaginationUtil paginationUtil;
+    private final CategoryBusinessService categoryService;
+    private final ConversationSessionStore sessionStore;
     private final WhatsAppMessageSender messageSender;
 
     public NavigationService(CategoryFlowService categoryFlowService,
                              ProductFlowService productFlowService,
-                             PaginationUtil paginationUtil,
+                             CategoryBusinessService categoryService,
+                             ConversationSessionStore sessionStore,
                              WhatsAppMessageSender messageSender) {
         this.categoryFlowService = categoryFlowService;
         this.productFlowService = productFlowService;
-        this.paginationUtil = paginationUtil;
+        this.categoryService = categoryService;
+        this.sessionStore = sessionStore;
         this.messageSender = messageSender;
     }
 
-    public void handleCategoryPageNavigation(String phoneNumberId, String from, String listId) {
+    /** Previous/next page rows of the category and product lists. */
+    public void handlePageNavigation(String phoneNumberId, String from, String listId) {
+        InteractionIdCodec.InteractionId id;
         try {
-            String pageStr = listId.replaceAll("(next_cat_page_|prev_cat_page_)", "");
-            int pageNumber = Integer.parseInt(pageStr);
+            id = InteractionIdCodec.decode(listId);
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring page navigation id: {}", e.getMessage());
+            return;
+        }
+        if (id.getKind() == InteractionIdCodec.Kind.CATEGORY_PAGE) {
+            handleCategoryPageNavigation(phoneNumberId, from, id);
+        } else if (id.getKind() == InteractionIdCodec.Kind.PRODUCT_PAGE) {
+            handleProductPageNavigation(phoneNumberId, from, id);
+        }
+    }
 
-            categoryFlowService.sendCategoryList(DEFAULT_VERSION, phoneNumberId, from, pageNumber);
+    private void handleCategoryPageNavigation(String phoneNumberId, String from, InteractionIdCodec.InteractionId id) {
+        try {
+            categoryFlowService.sendCategoryList(DEFAULT_VERSION, phoneNumberId, from, id.getPageCursor());
         } catch (Exception e) {
             logger.error("Error handling category page navigation: {}", e.getMessage(), e);
             messageSender.sendTextMessage(phoneNumberId, from, "⚠️ Unable to navigate categories.");
         }
     }
 
-    public void handleProductPageNavigation(String phoneNumberId, String from, String listId) {
-        logger.info("Handling product page navigation: {}", listId);
+    private void handleProductPageNavigation(String phoneNumberId, String from, InteractionIdCodec.InteractionId id) {
+        logger.info("Handling product page navigation: page {}", id.getPage());
         try {
-            String[] parts = listId.split("_");
-            if (parts.length >= 4) {
-                int pageNumber = Integer.parseInt(parts[2].substring(1)); // e.g. "p2" -> 2
-                String encodedCategory = parts[3].substring(1); // e.g. "cXYZ" -> "XYZ"
-                String categoryName = paginationUtil.decodeFromBase64(encodedCategory);
-
-                productFlowService.sendPaginatedProductList(DEFAULT_VERSION, phoneNumberId, from, categoryName, pageNumber);
-            } else {
-                throw new IllegalArgumentException("Invalid product navigation ID format");
+            String categoryName = id.getCategoryName() != null
+                    ? id.getCategoryName()
+                    : sessionStore.find(from)
+                            .map(session -> session.categoryNameFor(id.getCategoryId()))
+                            .orElseGet(() -> categoryService.getCategoryNameById(id.getCategoryId()));
+            if (categoryName == null) {
+                throw new IllegalArgumentException("Unknown category id " + id.getCategoryId());
             }
+
+            productFlowService.sendPaginatedProductList(DEFAULT_VERSION, phoneNumberId, from, categoryName,
+                    id.getPageCursor());
         } catch (Exception e) {
             logger.error("Error handling product page navigation: {}", e.getMessage(), e);
             messageSender.sendTextMessage(phoneNumberId, from, "⚠️ Unable to navigate product pages.");
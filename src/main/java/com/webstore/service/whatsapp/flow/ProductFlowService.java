@@ -1,12 +1,17 @@
 package com.webstore.service.whatsapp.flow;
 
 import com.webstore.entity.ProductPrice;
+import com.webstore.dto.response.CategorySummaryDto;
 import com.webstore.dto.response.ProductResponseDto;
 import com.webstore.exception.CategoryNotFoundException;
 import com.webstore.exception.ProductNotFoundException;
+import com.webstore.exception.WhatsAppFlowException;
 import com.webstore.service.whatsapp.business.CategoryBusinessService;
 import com.webstore.service.whatsapp.business.ProductBusinessService;
+import com.webstore.service.whatsapp.core.InteractionExecutor;
+import com.webstore.service.whatsapp.core.TaskScope;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
+import com.webstore.service.whatsapp.session.ConversationSessionStore;
 import com.webstore.service.whatsapp.strategy.ProductDisplayStrategy;
 import com.webstore.service.whatsapp.strategy.impl.ProductListDisplayStrategy;
 import com.webstore.util.MessageFormatter;
@@ -32,6 +37,8 @@ public class ProductFlowService {
     private final MessageBuilderService messageBuilder;
     private final MessageFormatter formatter;
     private final PaginationUtil paginationUtil;
+    private final InteractionExecutor interactionExecutor;
+    private final ConversationSessionStore sessionStore;
 
     public ProductFlowService(CategoryBusinessService categoryService,
                               ProductBusinessService productService,
@@ -39,7 +46,9 @@ public class ProductFlowService {
                               List<ProductDisplayStrategy> productDisplayStrategies,
                               MessageBuilderService messageBuilder,
                               MessageFormatter formatter,
-                              PaginationUtil paginationUtil) {
+                              PaginationUtil paginationUtil,
+                              InteractionExecutor interactionExecutor,
+                              ConversationSessionStore sessionStore) {
         this.categoryService = categoryService;
         this.productService = productService;
         this.messageSender = messageSender;
@@ -47,26 +56,32 @@ public class ProductFlowService {
         this.messageBuilder = messageBuilder;
         this.formatter = formatter;
         this.paginationUtil = paginationUtil;
+        this.interactionExecutor = interactionExecutor;
+        this.sessionStore = sessionStore;
     }
 
     public void sendProductSelection(String version, String phoneNumberId,
                                      String recipientPhoneNumber, String categoryName) {
 
-        Integer categoryId = categoryService.getCategoryIdByName(categoryName);
-        if (categoryId == null) {
-            throw new CategoryNotFoundException(categoryName);
-        }
+        CategorySummaryDto category = categoryService.getCategorySummaryByName(categoryName)
+                .orElseThrow(() -> new CategoryNotFoundException(categoryName));
+        sendProductSelection(version, phoneNumberId, recipientPhoneNumber, category);
+    }
 
-        List<String> productNames = productService.getProductNamesByCategory(categoryId);
-        int productCount = productNames.size();
+    // The summary already carries the product count, so picking a display strategy needs no query
+    public void sendProductSelection(String version, String phoneNumberId,
+                                     String recipientPhoneNumber, CategorySummaryDto category) {
+        String categoryName = category.getCategoryName();
+        int productCount = category.getProductCount().intValue();
 
         logger.info("Fetched {} products for category '{}'", productCount, categoryName);
+        rememberCategory(recipientPhoneNumber, category.getCategoryId(), categoryName, PaginationUtil.PageCursor.first());
 
         productDisplayStrategies.stream()
                 .filter(strategy -> strategy.supports(productCount))
                 .findFirst()
                 .ifPresentOrElse(
-                        strategy -> strategy.display(version, phoneNumberId, recipientPhoneNumber, categoryName),
+                        strategy -> strategy.display(version, phoneNumberId, recipientPhoneNumber, category),
                         () -> messageSender.sendTextMessage(phoneNumberId, recipientPhoneNumber, "No products found.")
                 );
     }
@@ -78,8 +93,19 @@ public class ProductFlowService {
             throw new ProductNotFoundException(productName);
         }
 
-        ProductResponseDto product = productService.getProductById(productId);
-        String priceInfo = productService.getProductPriceDisplay(productId);
+        // Product row and price display are independent queries, so they run side by side
+        ProductResponseDto product;
+        String priceInfo;
+        try (TaskScope scope = interactionExecutor.openScope()) {
+            TaskScope.Subtask<ProductResponseDto> productTask = scope.fork(() -> productService.getProductById(productId));
+            TaskScope.Subtask<String> priceTask = scope.fork(() -> productService.getProductPriceDisplay(productId));
+            scope.join();
+            product = productTask.get();
+            priceInfo = priceTask.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new WhatsAppFlowException("Interrupted while loading product " + productName, e);
+        }
 
         String productDetails = formatter.formatProductDetails(
                 product.getProductName(),
@@ -102,29 +128,29 @@ public class ProductFlowService {
                 buttons
         );
 
+        sessionStore.update(recipientPhoneNumber, session -> session.toBuilder().lastProductId(productId).build());
         messageSender.sendMessage(phoneNumberId, request, "Product details message");
     }
 
     public void sendPaginatedProductList(String version, String phoneNumberId, String recipientPhoneNumber,
-                                         String categoryName, int pageNumber) {
-        Integer categoryId = categoryService.getCategoryIdByName(categoryName);
-        if (categoryId == null) {
-            throw new CategoryNotFoundException(categoryName);
-        }
+                                         String categoryName, PaginationUtil.PageCursor cursor) {
+        CategorySummaryDto category = categoryService.getCategorySummaryByName(categoryName)
+                .orElseThrow(() -> new CategoryNotFoundException(categoryName));
 
-        List<String> allProducts = productService.getProductNamesByCategory(categoryId);
-        if (allProducts.isEmpty()) {
+        int productCount = category.getProductCount().intValue();
+        if (productCount == 0) {
             messageSender.sendTextMessage(phoneNumberId, recipientPhoneNumber, "No products in category: " + categoryName);
             return;
         }
+        rememberCategory(recipientPhoneNumber, category.getCategoryId(), categoryName, cursor);
 
         // Only list strategy can handle this — fallback if needed
         productDisplayStrategies.stream()
-                .filter(strategy -> strategy.supports(allProducts.size()))
+                .filter(strategy -> strategy.supports(productCount))
                 .filter(strategy -> strategy instanceof ProductListDisplayStrategy) // optional
                 .findFirst()
                 .ifPresent(strategy -> ((ProductListDisplayStrategy) strategy)
-                        .display(version, phoneNumberId, recipientPhoneNumber, categoryName, pageNumber));
+                        .display(version, phoneNumberId, recipientPhoneNumber, category, cursor));
     }
 
     public void sendProductPrice(String version, String phoneNumberId,
@@ -167,4 +193,16 @@ public class ProductFlowService {
 
         messageSender.sendMessage(phoneNumberId, request, "Product price message");
     }
+
+    // Lets "Back" and later taps on this list resolve the category without a query
+    private void rememberCategory(String recipientPhoneNumber, Integer categoryId, String categoryName,
+                                  PaginationUtil.PageCursor cursor) {
+        sessionStore.update(recipientPhoneNumber, session -> session.toBuilder()
+                .categoryId(categoryId)
+                .categoryName(categoryName)
+                .page(cursor.page())
+                .pageAfterId(cursor.afterKey())
+                .pageBeforeId(cursor.beforeKey())
+                .build());
+    }
 }
@@ -2,6 +2,7 @@ package com.webstore.service.whatsapp.flow;
 
 import com.webstore.dto.request.WhatsAppRequestDto;
 import com.webstore.service.whatsapp.builder.MessageBuilderService;
+import com.webstore.service.whatsapp.core.OutboundPayloadCache;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import org.springframework.stereotype.Service;
 
@@ -12,27 +13,34 @@ public class WelcomeFlowService {
 
     private final WhatsAppMessageSender messageSender;
     private final MessageBuilderService messageBuilder;
+    private final OutboundPayloadCache payloadCache;
 
     public WelcomeFlowService(WhatsAppMessageSender messageSender,
-                              MessageBuilderService messageBuilder) {
+                              MessageBuilderService messageBuilder,
+                              OutboundPayloadCache payloadCache) {
         this.messageSender = messageSender;
         this.messageBuilder = messageBuilder;
+        this.payloadCache = payloadCache;
     }
 
     public void sendWelcomeMessage(String version, String phoneNumberId, String recipientPhoneNumber) {
+        byte[] payload = payloadCache.payload("welcome", OutboundPayloadCache.STATIC, recipientPhoneNumber,
+                this::buildWelcomeMessage);
+        messageSender.sendPayload(phoneNumberId, recipientPhoneNumber, payload, "Welcome message");
+    }
+
+    private WhatsAppRequestDto buildWelcomeMessage(String recipientPhoneNumber) {
         List<WhatsAppRequestDto.Button> buttons = List.of(
                 messageBuilder.createButton("welcome_hi", "Hi 👋"),
                 messageBuilder.createButton("welcome_info", "Tell me more")
         );
 
-        WhatsAppRequestDto requestBody = messageBuilder.buildButtonMessage(
+        return messageBuilder.buildButtonMessage(
                 recipientPhoneNumber,
                 "👋 Welcome to WebStore",
                 "Thanks for joining us! What would you like to do next?",
                 "Choose an option below",
                 buttons
         );
-
-        messageSender.sendMessage(phoneNumberId, requestBody, "Welcome message");
     }
 }
\ No newline at end of file
@@ -1,25 +1,30 @@
 package com.webstore.service.whatsapp.handler.impl;
 
 import com.webstore.service.whatsapp.button.ButtonActionStrategy;
+import com.webstore.service.whatsapp.core.InteractionRouter;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import com.webstore.service.whatsapp.handler.InteractionHandler;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ButtonInteractionHandler implements InteractionHandler<String> {
 
     private static final Logger logger = LoggerFactory.getLogger(ButtonInteractionHandler.class);
 
-    private final List<ButtonActionStrategy> strategies;
+    private final InteractionRouter<ButtonActionStrategy> router;
     private final WhatsAppMessageSender messageSender;
 
     public ButtonInteractionHandler(List<ButtonActionStrategy> strategies,
-                                    WhatsAppMessageSender messageSender) {
-        this.strategies = strategies;
+                                    WhatsAppMessageSender messageSender,
+                                    MeterRegistry meterRegistry) {
+        this.router = InteractionRouter.build("button", strategies,
+                ButtonActionStrategy::exactIds, ButtonActionStrategy::prefixes, meterRegistry);
         this.messageSender = messageSender;
     }
 
@@ -27,11 +32,14 @@ public class ButtonInteractionHandler implements InteractionHandler<String> {
     public void handle(String phoneNumberId, String from, String buttonId) {
         logger.info("Handling button click: {}", buttonId);
 
-        for (ButtonActionStrategy strategy : strategies) {
-            if (strategy.supports(buttonId)) {
-                strategy.handle(phoneNumberId, from, buttonId);
-                return;
+        Optional<ButtonActionStrategy> strategy = router.route(buttonId);
+        if (strategy.isPresent()) {
+            try {
+                strategy.get().handle(phoneNumberId, from, buttonId);
+            } finally {
+                messageSender.flushConfirmation(from);
             }
+            return;
         }
 
         logger.warn("No strategy found for button ID: {}", buttonId);
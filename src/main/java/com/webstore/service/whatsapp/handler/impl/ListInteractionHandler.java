@@ -1,31 +1,39 @@
 package com.webstore.service.whatsapp.handler.impl;
 
+import com.webstore.service.whatsapp.core.InteractionRouter;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import com.webstore.service.whatsapp.handler.InteractionHandler;
 import com.webstore.service.whatsapp.list.ListActionStrategy;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
+import java.util.Optional;
 
 @Service
 public class ListInteractionHandler implements InteractionHandler<String> {
 
-    private final List<ListActionStrategy> strategies;
+    private final InteractionRouter<ListActionStrategy> router;
     private final WhatsAppMessageSender messageSender;
 
     public ListInteractionHandler(List<ListActionStrategy> strategies,
-                                  WhatsAppMessageSender messageSender) {
-        this.strategies = strategies;
+                                  WhatsAppMessageSender messageSender,
+                                  MeterRegistry meterRegistry) {
+        this.router = InteractionRouter.build("list", strategies,
+                ListActionStrategy::exactIds, ListActionStrategy::prefixes, meterRegistry);
         this.messageSender = messageSender;
     }
 
     @Override
     public void handle(String phoneNumberId, String from, String listId) {
-        for (ListActionStrategy strategy : strategies) {
-            if (strategy.supports(listId)) {
-                strategy.handle(phoneNumberId, from, listId);
-                return;
+        Optional<ListActionStrategy> strategy = router.route(listId);
+        if (strategy.isPresent()) {
+            try {
+                strategy.get().handle(phoneNumberId, from, listId);
+            } finally {
+                messageSender.flushConfirmation(from);
             }
+            return;
         }
         messageSender.sendTextMessage(phoneNumberId, from,
                 "I didn't understand that selection. Please try again.");
@@ -1,6 +1,17 @@
 package com.webstore.service.whatsapp.list;
 
+import java.util.Set;
+
 public interface ListActionStrategy {
-    boolean supports(String listId);
+    /** List row ids handled whole; routed before any prefix. */
+    default Set<String> exactIds() {
+        return Set.of();
+    }
+
+    /** List row id prefixes handled; must not overlap another strategy's routes. */
+    default Set<String> prefixes() {
+        return Set.of();
+    }
+
     void handle(String phoneNumberId, String from, String listId);
 }
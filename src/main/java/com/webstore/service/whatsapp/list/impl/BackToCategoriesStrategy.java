@@ -5,6 +5,8 @@ import com.webstore.service.whatsapp.list.ListActionStrategy;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class BackToCategoriesStrategy implements ListActionStrategy {
@@ -12,8 +14,8 @@ public class BackToCategoriesStrategy implements ListActionStrategy {
     private final CategoryFlowService categoryFlowService;
 
     @Override
-    public boolean supports(String listId) {
-        return "back_to_categories".equals(listId);
+    public Set<String> exactIds() {
+        return Set.of("back_to_categories");
     }
 
     @Override
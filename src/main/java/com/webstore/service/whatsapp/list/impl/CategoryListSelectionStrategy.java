@@ -1,14 +1,17 @@
 package com.webstore.service.whatsapp.strategy.impl;
 
+import com.webstore.dto.response.CategorySummaryDto;
 import com.webstore.service.whatsapp.business.CategoryBusinessService;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import com.webstore.service.whatsapp.flow.ProductFlowService;
 import com.webstore.service.whatsapp.list.ListActionStrategy;
+import com.webstore.util.InteractionIdCodec;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
-import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 
 @Slf4j
 @Component
@@ -20,28 +23,26 @@ public class CategoryListSelectionStrategy implements ListActionStrategy {
     private final WhatsAppMessageSender messageSender;
 
     @Override
-    public boolean supports(String listId) {
-        return listId.startsWith("cat_page_");
+    public Set<String> prefixes() {
+        // Old-format ids of messages sent before the codec
+        return Set.of(InteractionIdCodec.CATEGORY_PREFIX, "cat_page_");
     }
 
     @Override
     public void handle(String phoneNumberId, String from, String listId) {
         try {
-            String[] parts = listId.split("_");
-            if (parts.length >= 5) {
-                int page = Integer.parseInt(parts[2]);
-                int item = Integer.parseInt(parts[4]);
-
-                List<String> categories = categoryService.getAllCategoryNames();
-                int index = (page - 1) * 7 + (item - 1);
-
-                if (index >= 0 && index < categories.size()) {
-                    String selectedCategory = categories.get(index);
-                    messageSender.sendTextMessage(phoneNumberId, from, "✅ Selected: " + selectedCategory);
-                    productFlowService.sendProductSelection("v22.0", phoneNumberId, from, selectedCategory);
-                } else {
-                    messageSender.sendTextMessage(phoneNumberId, from, "Invalid selection.");
-                }
+            InteractionIdCodec.InteractionId id = InteractionIdCodec.decode(listId);
+            // Old-format rows carry the category's 1-based position across all pages
+            Optional<CategorySummaryDto> selectedCategory = id.getCategoryId() != 0
+                    ? categoryService.getCategorySummary(id.getCategoryId())
+                    : categoryService.getCategorySummaryAt(id.getItem() - 1);
+
+            if (selectedCategory.isPresent()) {
+                // Merged into the product message that follows, or sent just ahead of it
+                messageSender.sendConfirmation(phoneNumberId, from, "✅ Selected: " + selectedCategory.get().getCategoryName());
+                productFlowService.sendProductSelection("v22.0", phoneNumberId, from, selectedCategory.get());
+            } else {
+                messageSender.sendTextMessage(phoneNumberId, from, "Invalid selection.");
             }
         } catch (Exception e) {
             log.error("Error processing category listId: {}", listId, e);
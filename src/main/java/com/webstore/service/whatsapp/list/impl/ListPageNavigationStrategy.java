@@ -2,9 +2,12 @@ package com.webstore.service.whatsapp.list.impl;
 
 import com.webstore.service.whatsapp.flow.NavigationService;
 import com.webstore.service.whatsapp.list.ListActionStrategy;
+import com.webstore.util.InteractionIdCodec;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 public class ListPageNavigationStrategy implements ListActionStrategy {
@@ -12,16 +15,14 @@ public class ListPageNavigationStrategy implements ListActionStrategy {
     private final NavigationService navigationService;
 
     @Override
-    public boolean supports(String listId) {
-        return listId.startsWith("next_") || listId.startsWith("prev_");
+    public Set<String> prefixes() {
+        // next_ and prev_ are old-format ids of messages sent before the codec
+        return Set.of(InteractionIdCodec.CATEGORY_PAGE_PREFIX, InteractionIdCodec.PRODUCT_PAGE_PREFIX,
+                "next_", "prev_");
     }
 
     @Override
     public void handle(String phoneNumberId, String from, String listId) {
-        if (listId.contains("cat_page")) {
-            navigationService.handleCategoryPageNavigation(phoneNumberId, from, listId);
-        } else if (listId.contains("prod_p")) {
-            navigationService.handleProductPageNavigation(phoneNumberId, from, listId);
-        }
+        navigationService.handlePageNavigation(phoneNumberId, from, listId);
     }
 }
@@ -0,0 +1,24 @@
+package com.webstore.service.whatsapp.outbox;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.time.Instant;
+
+/**
+ * One claimed row of the {@code outbound_message} outbox.
+ */
+@Getter
+@ToString(exclude = "payload")
+@RequiredArgsConstructor
+public class OutboundMessage {
+
+    private final long id;
+    private final String phoneNumberId;
+    private final String recipient;
+    private final String messageType;
+    private final String payload;           // serialized WhatsAppRequestDto
+    private final Instant createdAt;
+    private final int attempts;             // including the pass that claimed it
+}
@@ -0,0 +1,42 @@
+package com.webstore.service.whatsapp.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webstore.dto.request.WhatsAppRequestDto;
+import com.webstore.exception.WhatsAppFlowException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Queues outbound messages in the {@code outbound_message} table instead of
+ * sending them directly. Called inside a transaction that also changes
+ * state (e.g. adding to a cart), the message is committed or rolled back
+ * together with that change, and {@link OutboxDrainer} sends it afterwards,
+ * even if this node crashes in between.
+ */
+@Service
+public class OutboundMessageOutbox {
+
+    private final OutboundMessageStore store;
+    private final ObjectMapper objectMapper;
+
+    public OutboundMessageOutbox(OutboundMessageStore store, ObjectMapper objectMapper) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Joins the caller's transaction, or runs in its own when there is none.
+     *
+     * @return the outbox row id
+     */
+    @Transactional
+    public long enqueue(String phoneNumberId, WhatsAppRequestDto requestBody, String messageType) {
+        try {
+            return store.insert(phoneNumberId, requestBody.getTo(), messageType,
+                    objectMapper.writeValueAsString(requestBody));
+        } catch (JsonProcessingException e) {
+            throw new WhatsAppFlowException("Could not serialize " + messageType, e);
+        }
+    }
+}
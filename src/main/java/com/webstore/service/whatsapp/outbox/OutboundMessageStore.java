@@ -0,0 +1,139 @@
+package com.webstore.service.whatsapp.outbox;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * JDBC access to the {@code outbound_message} table.
+ * <p>
+ * Claiming is a single statement: the inner select locks due rows with
+ * {@code FOR UPDATE SKIP LOCKED}, so concurrent drainers on other nodes skip
+ * them instead of waiting, and the update pushes {@code next_attempt_at} out
+ * by the lease so the rows stay invisible after the statement commits. No
+ * transaction is held while the messages are being sent.
+ */
+@Component
+public class OutboundMessageStore {
+
+    static final String STATUS_PENDING = "PENDING";
+    static final String STATUS_SENT = "SENT";
+    static final String STATUS_FAILED = "FAILED";
+
+    private static final String INSERT_SQL =
+            "INSERT INTO web_store.outbound_message (phone_number_id, recipient, message_type, payload) " +
+            "VALUES (?, ?, ?, ?) RETURNING outbound_message_id";
+
+    private static final String CLAIM_SQL =
+            "UPDATE web_store.outbound_message m SET next_attempt_at = ?, attempts = m.attempts + 1 " +
+            "WHERE m.outbound_message_id IN (" +
+            "  SELECT outbound_message_id FROM web_store.outbound_message " +
+            "  WHERE status = 'PENDING' AND next_attempt_at <= ? " +
+            "  ORDER BY next_attempt_at, outbound_message_id LIMIT ? FOR UPDATE SKIP LOCKED) " +
+            "RETURNING m.outbound_message_id, m.phone_number_id, m.recipient, m.message_type, m.payload, " +
+            "m.created_at, m.attempts";
+
+    private static final String MARK_SENT_SQL =
+            "UPDATE web_store.outbound_message SET status = 'SENT', sent_at = ?, wa_message_id = ?, last_error = NULL " +
+            "WHERE outbound_message_id = ?";
+
+    private static final String MARK_FAILED_SQL =
+            "UPDATE web_store.outbound_message SET status = ?, next_attempt_at = ?, last_error = ? " +
+            "WHERE outbound_message_id = ?";
+
+    private static final String BACKLOG_SQL =
+            "SELECT COUNT(*), MIN(created_at) FROM web_store.outbound_message WHERE status = 'PENDING'";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM web_store.outbound_message WHERE status = 'SENT' AND sent_at < ?";
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private static final RowMapper<OutboundMessage> ROW_MAPPER = (rs, rowNum) -> new OutboundMessage(
+            rs.getLong("outbound_message_id"),
+            rs.getString("phone_number_id"),
+            rs.getString("recipient"),
+            rs.getString("message_type"),
+            rs.getString("payload"),
+            rs.getTimestamp("created_at").toInstant(),
+            rs.getInt("attempts"));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OutboundMessageStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public long insert(String phoneNumberId, String recipient, String messageType, String payload) {
+        Long id = jdbcTemplate.queryForObject(INSERT_SQL, Long.class, phoneNumberId, recipient, messageType, payload);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Claims up to {@code limit} due rows until {@code leaseUntil}.
+     *
+     * @return the claimed rows in insertion order
+     */
+    public List<OutboundMessage> claim(int limit, Instant now, Instant leaseUntil) {
+        List<OutboundMessage> claimed = jdbcTemplate.query(CLAIM_SQL, ROW_MAPPER,
+                Timestamp.from(leaseUntil), Timestamp.from(now), limit);
+        claimed.sort(Comparator.comparingLong(OutboundMessage::getId));
+        return claimed;
+    }
+
+    public void markSent(List<Delivery> deliveries, Instant sentAt) {
+        if (deliveries.isEmpty()) {
+            return;
+        }
+        Timestamp timestamp = Timestamp.from(sentAt);
+        jdbcTemplate.batchUpdate(MARK_SENT_SQL, deliveries, deliveries.size(), (ps, delivery) -> {
+            ps.setTimestamp(1, timestamp);
+            ps.setString(2, delivery.waMessageId());
+            ps.setLong(3, delivery.id());
+        });
+    }
+
+    public void markFailed(List<Failure> failures) {
+        if (failures.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(MARK_FAILED_SQL, failures, failures.size(), (ps, failure) -> {
+            ps.setString(1, failure.permanent() ? STATUS_FAILED : STATUS_PENDING);
+            ps.setTimestamp(2, Timestamp.from(failure.nextAttemptAt()));
+            ps.setString(3, truncate(failure.error()));
+            ps.setLong(4, failure.id());
+        });
+    }
+
+    public Backlog backlog() {
+        return jdbcTemplate.queryForObject(BACKLOG_SQL, (rs, rowNum) -> {
+            Timestamp oldest = rs.getTimestamp(2);
+            return new Backlog(rs.getLong(1), oldest != null ? oldest.toInstant() : null);
+        });
+    }
+
+    public int purgeSent(Instant before) {
+        return jdbcTemplate.update(PURGE_SQL, Timestamp.from(before));
+    }
+
+    private static String truncate(String error) {
+        return error != null && error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    public record Delivery(long id, String waMessageId) {
+    }
+
+    /**
+     * @param permanent true to park the row as FAILED, false to retry it at {@code nextAttemptAt}
+     */
+    public record Failure(long id, boolean permanent, Instant nextAttemptAt, String error) {
+    }
+
+    public record Backlog(long pending, Instant oldestCreatedAt) {
+    }
+}
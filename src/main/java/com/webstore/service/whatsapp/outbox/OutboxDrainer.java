@@ -0,0 +1,214 @@
+package com.webstore.service.whatsapp.outbox;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.service.whatsapp.core.GraphApiRetryExecutor;
+import com.webstore.service.whatsapp.core.SendResult;
+import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends what {@link OutboundMessageOutbox} queued. Every node may run one:
+ * batches are claimed with {@code SKIP LOCKED}, so nodes share the backlog
+ * without sending a row twice while its lease holds.
+ * <p>
+ * Within a batch, messages to the same recipient go out one after another in
+ * insertion order; different recipients are sent concurrently. A row whose
+ * send fails after the sender's own retries is deferred by
+ * {@code retry-delay} per attempt, or parked as FAILED when the error is
+ * permanent or it runs out of attempts.
+ * <p>
+ * Delivery is at least once: a node that dies after the Graph API accepted
+ * a message but before marking the row sends it again when the lease expires.
+ */
+@Component
+@ConditionalOnProperty(prefix = "whatsapp.outbox", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxDrainer {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxDrainer.class);
+
+    // How often the pending count and oldest age gauges are refreshed from the table
+    private static final Duration BACKLOG_REFRESH = Duration.ofSeconds(5);
+
+    private final OutboundMessageStore store;
+    private final WhatsAppMessageSender messageSender;
+    private final WhatsAppConfiguration.Outbox config;
+    private final Clock clock;
+    private final ScheduledExecutorService drainThread;
+    private final Counter sent;
+    private final Counter deferred;
+    private final Counter failed;
+    private final Timer lag;
+    private final Timer batchTimer;
+    private volatile OutboundMessageStore.Backlog backlog = new OutboundMessageStore.Backlog(0, null);
+    private Instant backlogRefreshedAt = Instant.EPOCH;
+
+    @Autowired
+    public OutboxDrainer(OutboundMessageStore store, WhatsAppMessageSender messageSender,
+                         WhatsAppConfiguration whatsAppConfig, MeterRegistry meterRegistry) {
+        this(store, messageSender, whatsAppConfig.getOutbox(), meterRegistry, Clock.systemUTC());
+    }
+
+    public OutboxDrainer(OutboundMessageStore store, WhatsAppMessageSender messageSender,
+                         WhatsAppConfiguration.Outbox config, MeterRegistry meterRegistry, Clock clock) {
+        this.store = store;
+        this.messageSender = messageSender;
+        this.config = config;
+        this.clock = clock;
+        this.drainThread = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("outbox-drainer-"));
+
+        this.sent = Counter.builder("whatsapp.outbox.sent")
+                .description("Outbox rows sent")
+                .register(meterRegistry);
+        this.deferred = Counter.builder("whatsapp.outbox.deferred")
+                .description("Outbox sends that failed and were put back for a later pass")
+                .register(meterRegistry);
+        this.failed = Counter.builder("whatsapp.outbox.failed")
+                .description("Outbox rows parked as FAILED")
+                .register(meterRegistry);
+        this.lag = Timer.builder("whatsapp.outbox.lag")
+                .description("Time from outbox insert to the Graph API accepting the message")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("whatsapp.outbox.batch")
+                .description("Time to claim, send and record one batch")
+                .register(meterRegistry);
+        Gauge.builder("whatsapp.outbox.pending", this, drainer -> drainer.backlog.pending())
+                .description("Rows waiting to be sent, across all nodes")
+                .register(meterRegistry);
+        Gauge.builder("whatsapp.outbox.oldest.age", this, OutboxDrainer::oldestPendingSeconds)
+                .description("Age in seconds of the oldest row waiting to be sent")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = config.getPollInterval().toMillis();
+        drainThread.scheduleWithFixedDelay(this::drain, interval, interval, TimeUnit.MILLISECONDS);
+        logger.info("Outbox drainer started, batches of {} every {} ms", config.getBatchSize(), interval);
+    }
+
+    /**
+     * Drains until a batch comes back short, then refreshes the backlog gauges.
+     */
+    void drain() {
+        try {
+            int drained;
+            do {
+                drained = drainBatch();
+            } while (drained == config.getBatchSize() && !drainThread.isShutdown());
+            refreshBacklog();
+        } catch (RuntimeException e) {
+            logger.warn("Outbox drain failed: {}", e.getMessage());
+        }
+    }
+
+    int drainBatch() {
+        long started = System.nanoTime();
+        Instant now = clock.instant();
+        List<OutboundMessage> batch = store.claim(config.getBatchSize(), now, now.plus(config.getLease()));
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        ConcurrentLinkedQueue<OutboundMessageStore.Delivery> deliveries = new ConcurrentLinkedQueue<>();
+        ConcurrentLinkedQueue<OutboundMessageStore.Failure> failures = new ConcurrentLinkedQueue<>();
+        Map<String, CompletableFuture<Void>> tailByRecipient = new HashMap<>();
+        List<CompletableFuture<Void>> outcomes = new ArrayList<>(batch.size());
+        for (OutboundMessage message : batch) {
+            CompletableFuture<Void> previous = tailByRecipient.getOrDefault(message.getRecipient(),
+                    CompletableFuture.completedFuture(null));
+            CompletableFuture<Void> outcome = previous
+                    .thenCompose(ignored -> messageSender.sendPayloadAsync(message.getPhoneNumberId(),
+                            message.getRecipient(), message.getPayload().getBytes(StandardCharsets.UTF_8),
+                            message.getMessageType()))
+                    .handle((result, failure) -> {
+                        record(message, result, failure, deliveries, failures);
+                        return null;
+                    });
+            tailByRecipient.put(message.getRecipient(), outcome);
+            outcomes.add(outcome);
+        }
+        CompletableFuture.allOf(outcomes.toArray(new CompletableFuture[0])).join();
+
+        store.markSent(new ArrayList<>(deliveries), clock.instant());
+        store.markFailed(new ArrayList<>(failures));
+        batchTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        return batch.size();
+    }
+
+    private void record(OutboundMessage message, SendResult result, Throwable failure,
+                        ConcurrentLinkedQueue<OutboundMessageStore.Delivery> deliveries,
+                        ConcurrentLinkedQueue<OutboundMessageStore.Failure> failures) {
+        if (failure == null) {
+            deliveries.add(new OutboundMessageStore.Delivery(message.getId(), result.getMessageId()));
+            sent.increment();
+            lag.record(Duration.between(message.getCreatedAt(), clock.instant()));
+            return;
+        }
+        Throwable cause = failure instanceof CompletionException && failure.getCause() != null
+                ? failure.getCause() : failure;
+        boolean permanent = !GraphApiRetryExecutor.isRetryable(cause) || message.getAttempts() >= config.getMaxAttempts();
+        Instant nextAttemptAt = clock.instant().plus(config.getRetryDelay().multipliedBy(message.getAttempts()));
+        failures.add(new OutboundMessageStore.Failure(message.getId(), permanent, nextAttemptAt, cause.toString()));
+        if (permanent) {
+            failed.increment();
+            logger.error("Outbox message {} ({}) failed for good after {} attempts: {}",
+                    message.getId(), message.getMessageType(), message.getAttempts(), cause.getMessage());
+        } else {
+            deferred.increment();
+        }
+    }
+
+    private void refreshBacklog() {
+        Instant now = clock.instant();
+        if (Duration.between(backlogRefreshedAt, now).compareTo(BACKLOG_REFRESH) >= 0) {
+            backlog = store.backlog();
+            backlogRefreshedAt = now;
+        }
+    }
+
+    private double oldestPendingSeconds() {
+        Instant oldest = backlog.oldestCreatedAt();
+        return oldest == null ? 0 : Math.max(0, Duration.between(oldest, clock.instant()).toMillis() / 1000.0);
+    }
+
+    @Scheduled(fixedDelayString = "${whatsapp.outbox.purge-interval:PT1H}")
+    public void purgeSent() {
+        int removed = store.purgeSent(clock.instant().minus(config.getRetention()));
+        logger.debug("Purged {} sent outbox rows", removed);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        drainThread.shutdown();
+        drainThread.awaitTermination(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,43 @@
+package com.webstore.service.whatsapp.session;
+
+import com.webstore.util.PaginationUtil;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Objects;
+
+/**
+ * Where one customer is in the conversation, so a tap can be answered from
+ * here instead of being re-derived from the database. Immutable; stores
+ * replace the whole value on every update.
+ */
+@Getter
+@ToString
+@Builder(toBuilder = true)
+public class ConversationSession {
+
+    private final String phone;             // the customer's WhatsApp number, the session key
+    private final Integer catalogueId;
+    private final Integer categoryId;       // category of the product list last shown
+    private final String categoryName;
+    @Builder.Default
+    private final int page = 1;             // page of that list last shown
+    private final int pageAfterId;          // keyset cursor of that page: product id it starts after, or 0
+    private final int pageBeforeId;         // product id it ends before, or 0
+    private final Integer lastProductId;    // product whose details were last shown
+    private final String cartReference;
+
+    public static ConversationSession start(String phone) {
+        return builder().phone(phone).build();
+    }
+
+    public PaginationUtil.PageCursor getPageCursor() {
+        return new PaginationUtil.PageCursor(page, pageAfterId, pageBeforeId);
+    }
+
+    /** The category's name if it is the session's category, otherwise null. */
+    public String categoryNameFor(int categoryId) {
+        return Objects.equals(this.categoryId, categoryId) ? categoryName : null;
+    }
+}
@@ -0,0 +1,25 @@
+package com.webstore.service.whatsapp.session;
+
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Per-phone conversation sessions that expire after a period without
+ * updates.
+ */
+public interface ConversationSessionStore {
+
+    /** The live session for this phone, if any; reading does not extend it. */
+    Optional<ConversationSession> find(String phone);
+
+    /**
+     * Applies {@code change} to the phone's session, or to a fresh one if it
+     * has none or it expired, and restarts its time to live. Updates of one
+     * phone are applied one at a time.
+     *
+     * @return the session as stored
+     */
+    ConversationSession update(String phone, UnaryOperator<ConversationSession> change);
+
+    void remove(String phone);
+}
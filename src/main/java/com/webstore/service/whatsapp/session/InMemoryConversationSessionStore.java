@@ -0,0 +1,151 @@
+package com.webstore.service.whatsapp.session;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+import java.util.function.UnaryOperator;
+
+/**
+ * Conversation sessions held in memory on this node.
+ * <p>
+ * Phones are spread over lock-striped segments, each an access-ordered map
+ * bounded to its share of the capacity, so the least recently used session
+ * is dropped first and a lookup only contends with phones on the same
+ * stripe. Expired sessions are dropped lazily: when looked up, and a few at
+ * a time from the cold end of a segment whenever it is written.
+ */
+@Component
+@ConditionalOnProperty(prefix = "whatsapp.session", name = "store", havingValue = "memory", matchIfMissing = true)
+public class InMemoryConversationSessionStore implements ConversationSessionStore {
+
+    private static final int SEGMENTS = 16;
+    // Expired sessions dropped from the cold end of a segment per write
+    private static final int EXPIRY_SWEEP = 4;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    @Autowired
+    public InMemoryConversationSessionStore(WhatsAppConfiguration whatsAppConfig) {
+        this(whatsAppConfig.getSession().getCapacity(), whatsAppConfig.getSession().getTtl(), System::nanoTime);
+    }
+
+    public InMemoryConversationSessionStore(int capacity, Duration ttl, LongSupplier clock) {
+        int segmentCapacity = Math.max(1, (capacity + SEGMENTS - 1) / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(segmentCapacity);
+        }
+        this.ttlNanos = ttl.toNanos();
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<ConversationSession> find(String phone) {
+        return Optional.ofNullable(segmentFor(phone).find(phone, clock.getAsLong()));
+    }
+
+    @Override
+    public ConversationSession update(String phone, UnaryOperator<ConversationSession> change) {
+        return segmentFor(phone).update(phone, change, clock.getAsLong());
+    }
+
+    /** Stores a session as is, e.g. one loaded from another tier, unless the phone already has a live one. */
+    public void putIfAbsent(ConversationSession session) {
+        segmentFor(session.getPhone()).putIfAbsent(session, clock.getAsLong());
+    }
+
+    @Override
+    public void remove(String phone) {
+        segmentFor(phone).remove(phone);
+    }
+
+    /** Sessions held, including expired ones not dropped yet. */
+    public int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size();
+        }
+        return size;
+    }
+
+    private Segment segmentFor(String phone) {
+        int h = phone.hashCode();
+        return segments[(h ^ (h >>> 16)) & (SEGMENTS - 1)];
+    }
+
+    private record Entry(ConversationSession session, long updatedAt) {
+    }
+
+    private final class Segment {
+
+        private final LinkedHashMap<String, Entry> sessions;
+
+        Segment(int capacity) {
+            this.sessions = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized ConversationSession find(String phone, long now) {
+            Entry entry = sessions.get(phone);
+            if (entry == null) {
+                return null;
+            }
+            if (now - entry.updatedAt() >= ttlNanos) {
+                sessions.remove(phone);
+                return null;
+            }
+            return entry.session();
+        }
+
+        synchronized ConversationSession update(String phone, UnaryOperator<ConversationSession> change, long now) {
+            Entry entry = sessions.get(phone);
+            ConversationSession current = entry != null && now - entry.updatedAt() < ttlNanos
+                    ? entry.session()
+                    : ConversationSession.start(phone);
+            ConversationSession updated = change.apply(current);
+            sessions.put(phone, new Entry(updated, now));
+            sweepExpired(now);
+            return updated;
+        }
+
+        synchronized void putIfAbsent(ConversationSession session, long now) {
+            Entry entry = sessions.get(session.getPhone());
+            if (entry == null || now - entry.updatedAt() >= ttlNanos) {
+                sessions.put(session.getPhone(), new Entry(session, now));
+                sweepExpired(now);
+            }
+        }
+
+        synchronized void remove(String phone) {
+            sessions.remove(phone);
+        }
+
+        synchronized int size() {
+            return sessions.size();
+        }
+
+        // The map is in access order, so the least recently used sessions, where expired ones gather, come first
+        private void sweepExpired(long now) {
+            Iterator<Entry> iterator = sessions.values().iterator();
+            for (int i = 0; i < EXPIRY_SWEEP && iterator.hasNext(); i++) {
+                if (now - iterator.next().updatedAt() < ttlNanos) {
+                    return;
+                }
+                iterator.remove();
+            }
+        }
+    }
+}
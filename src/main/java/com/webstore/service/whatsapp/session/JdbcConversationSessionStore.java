@@ -0,0 +1,130 @@
+package com.webstore.service.whatsapp.session;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.UnaryOperator;
+
+/**
+ * Conversation sessions that survive a restart of the node, written through
+ * to the UNLOGGED {@code conversation_session} table. Reads are served by a
+ * node-local in-memory store in front; the table is only read when a phone
+ * is not held locally, e.g. right after a restart.
+ */
+@Component
+@ConditionalOnProperty(prefix = "whatsapp.session", name = "store", havingValue = "postgres")
+public class JdbcConversationSessionStore implements ConversationSessionStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(JdbcConversationSessionStore.class);
+
+    private static final String LOAD_SQL =
+            "SELECT phone, catalogue_id, category_id, category_name, page, page_after_id, page_before_id, " +
+            "last_product_id, cart_reference " +
+            "FROM web_store.conversation_session WHERE phone = ? AND updated_at >= ?";
+
+    private static final String SAVE_SQL =
+            "INSERT INTO web_store.conversation_session (phone, catalogue_id, category_id, category_name, page, " +
+            "page_after_id, page_before_id, last_product_id, cart_reference, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (phone) DO UPDATE SET catalogue_id = EXCLUDED.catalogue_id, " +
+            "category_id = EXCLUDED.category_id, category_name = EXCLUDED.category_name, page = EXCLUDED.page, " +
+            "page_after_id = EXCLUDED.page_after_id, page_before_id = EXCLUDED.page_before_id, " +
+            "last_product_id = EXCLUDED.last_product_id, cart_reference = EXCLUDED.cart_reference, " +
+            "updated_at = EXCLUDED.updated_at";
+
+    private static final String DELETE_SQL =
+            "DELETE FROM web_store.conversation_session WHERE phone = ?";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM web_store.conversation_session WHERE updated_at < ?";
+
+    private static final RowMapper<ConversationSession> ROW_MAPPER = (rs, rowNum) -> ConversationSession.builder()
+            .phone(rs.getString("phone"))
+            .catalogueId(rs.getObject("catalogue_id", Integer.class))
+            .categoryId(rs.getObject("category_id", Integer.class))
+            .categoryName(rs.getString("category_name"))
+            .page(rs.getInt("page"))
+            .pageAfterId(rs.getInt("page_after_id"))
+            .pageBeforeId(rs.getInt("page_before_id"))
+            .lastProductId(rs.getObject("last_product_id", Integer.class))
+            .cartReference(rs.getString("cart_reference"))
+            .build();
+
+    private final JdbcTemplate jdbcTemplate;
+    private final InMemoryConversationSessionStore localStore;
+    private final Duration ttl;
+
+    public JdbcConversationSessionStore(JdbcTemplate jdbcTemplate, WhatsAppConfiguration whatsAppConfig) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.localStore = new InMemoryConversationSessionStore(whatsAppConfig);
+        this.ttl = whatsAppConfig.getSession().getTtl();
+    }
+
+    @Override
+    public Optional<ConversationSession> find(String phone) {
+        Optional<ConversationSession> local = localStore.find(phone);
+        if (local.isPresent()) {
+            return local;
+        }
+        return load(phone).map(session -> {
+            localStore.putIfAbsent(session);
+            return session;
+        });
+    }
+
+    @Override
+    public ConversationSession update(String phone, UnaryOperator<ConversationSession> change) {
+        if (localStore.find(phone).isEmpty()) {
+            load(phone).ifPresent(localStore::putIfAbsent);
+        }
+        ConversationSession updated = localStore.update(phone, change);
+        try {
+            jdbcTemplate.update(SAVE_SQL, phone, updated.getCatalogueId(), updated.getCategoryId(),
+                    updated.getCategoryName(), updated.getPage(), updated.getPageAfterId(), updated.getPageBeforeId(),
+                    updated.getLastProductId(),
+                    updated.getCartReference(), Timestamp.from(Instant.now()));
+        } catch (DataAccessException e) {
+            // The local copy still serves this node; only a restart would lose the update
+            logger.warn("Could not persist conversation session for {}: {}", phone, e.getMessage());
+        }
+        return updated;
+    }
+
+    @Override
+    public void remove(String phone) {
+        localStore.remove(phone);
+        try {
+            jdbcTemplate.update(DELETE_SQL, phone);
+        } catch (DataAccessException e) {
+            logger.warn("Could not remove conversation session for {}: {}", phone, e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${whatsapp.session.purge-interval:PT10M}")
+    public void purgeExpired() {
+        int removed = jdbcTemplate.update(PURGE_SQL, Timestamp.from(Instant.now().minus(ttl)));
+        logger.debug("Purged {} expired conversation sessions", removed);
+    }
+
+    private Optional<ConversationSession> load(String phone) {
+        try {
+            return jdbcTemplate.query(LOAD_SQL, ROW_MAPPER, phone, Timestamp.from(Instant.now().minus(ttl)))
+                    .stream().findFirst();
+        } catch (DataAccessException e) {
+            // Fail open: a fresh session only sends the customer back to the category list
+            logger.warn("Could not load conversation session for {}: {}", phone, e.getMessage());
+            return Optional.empty();
+        }
+    }
+}
@@ -1,6 +1,8 @@
 package com.webstore.service.whatsapp.strategy;
 
+import com.webstore.dto.response.CategorySummaryDto;
+
 public interface ProductDisplayStrategy {
     boolean supports(int productCount);
-    void display(String version, String phoneNumberId, String recipientPhoneNumber, String categoryName);
+    void display(String version, String phoneNumberId, String recipientPhoneNumber, CategorySummaryDto category);
 }
@@ -1,6 +1,8 @@
 package com.webstore.service.whatsapp.strategy.impl;
 
 import com.webstore.dto.request.WhatsAppRequestDto;
+import com.webstore.dto.response.CategorySummaryDto;
+import com.webstore.dto.response.ProductListingView;
 import com.webstore.service.whatsapp.business.ProductBusinessService;
 import com.webstore.service.whatsapp.builder.MessageBuilderService;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
@@ -35,16 +37,17 @@ public class ProductButtonDisplayStrategy implements ProductDisplayStrategy {
     }
 
     @Override
-    public void display(String version, String phoneNumberId, String recipientPhoneNumber, String categoryName) {
-        List<String> productNames = productService.getProductNamesByCategoryName(categoryName);
+    public void display(String version, String phoneNumberId, String recipientPhoneNumber, CategorySummaryDto category) {
+        String categoryName = category.getCategoryName();
+        List<ProductListingView> products = productService.getProductListings(category.getCategoryId(), 3);
         List<WhatsAppRequestDto.Button> buttons = new ArrayList<>();
         StringBuilder productListText = new StringBuilder();
 
-        int count = Math.min(productNames.size(), 3);
-        for (int i = 0; i < count; i++) {
-            String productName = productNames.get(i);
-            Integer productId = productService.getProductIdByName(productName);
-            String priceDisplay = productService.getProductPriceDisplay(productId);
+        for (int i = 0; i < products.size(); i++) {
+            ProductListingView product = products.get(i);
+            String productName = product.getProductName();
+            Integer productId = product.getProductId();
+            String priceDisplay = productService.getPriceDisplay(product);
 
             String displayName = formatter.truncateText(productName, 30);
             productListText.append(String.format("%d. %s\n💰 %s\n\n", i + 1, displayName, priceDisplay));
@@ -1,11 +1,13 @@
 package com.webstore.service.whatsapp.strategy.impl;
 
 import com.webstore.dto.request.WhatsAppRequestDto;
-import com.webstore.service.whatsapp.business.CategoryBusinessService;
+import com.webstore.dto.response.CategorySummaryDto;
+import com.webstore.dto.response.ProductListingView;
 import com.webstore.service.whatsapp.business.ProductBusinessService;
 import com.webstore.service.whatsapp.builder.MessageBuilderService;
 import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
 import com.webstore.service.whatsapp.strategy.ProductDisplayStrategy;
+import com.webstore.util.InteractionIdCodec;
 import com.webstore.util.MessageFormatter;
 import com.webstore.util.PaginationUtil;
 import org.springframework.stereotype.Component;
@@ -17,24 +19,18 @@ import java.util.List;
 public class ProductListDisplayStrategy implements ProductDisplayStrategy {
 
     private final ProductBusinessService productService;
-    private final CategoryBusinessService categoryService;
     private final WhatsAppMessageSender messageSender;
     private final MessageBuilderService messageBuilder;
     private final MessageFormatter formatter;
-    private final PaginationUtil paginationUtil;
 
     public ProductListDisplayStrategy(ProductBusinessService productService,
-                                      CategoryBusinessService categoryService,
                                       WhatsAppMessageSender messageSender,
                                       MessageBuilderService messageBuilder,
-                                      MessageFormatter formatter,
-                                      PaginationUtil paginationUtil) {
+                                      MessageFormatter formatter) {
         this.productService = productService;
-        this.categoryService = categoryService;
         this.messageSender = messageSender;
         this.messageBuilder = messageBuilder;
         this.formatter = formatter;
-        this.paginationUtil = paginationUtil;
     }
 
     @Override
@@ -43,37 +39,40 @@ public class ProductListDisplayStrategy implements ProductDisplayStrategy {
     }
 
     @Override
-    public void display(String version, String phoneNumberId, String recipientPhoneNumber, String categoryName) {
+    public void display(String version, String phoneNumberId, String recipientPhoneNumber, CategorySummaryDto category) {
         // Default to page 1 if no page provided
-        display(version, phoneNumberId, recipientPhoneNumber, categoryName, 1);
+        display(version, phoneNumberId, recipientPhoneNumber, category, PaginationUtil.PageCursor.first());
     }
 
     // ✅ Overloaded method for paginated display
     public void display(String version, String phoneNumberId, String recipientPhoneNumber,
-                        String categoryName, int pageNumber) {
-
-        Integer categoryId = categoryService.getCategoryIdByName(categoryName);
-        List<String> products = productService.getProductNamesByCategory(categoryId);
-
-        PaginationUtil.PaginationResult<String> paginated = paginationUtil.paginate(products, pageNumber);
+                        CategorySummaryDto category, PaginationUtil.PageCursor cursor) {
+
+        String categoryName = category.getCategoryName();
+        int categoryId = category.getCategoryId();
+        PaginationUtil.PaginationResult<ProductListingView> paginated =
+                productService.getProductListingPage(category, cursor);
+        List<ProductListingView> products = paginated.getItems();
+        int pageNumber = paginated.getCurrentPage();
         List<WhatsAppRequestDto.Row> rows = new ArrayList<>();
 
         // Add product rows
-        for (String productName : paginated.getItems()) {
-            Integer productId = productService.getProductIdByName(productName);
-            String priceDisplay = productService.getProductPriceDisplay(productId);
-            String rowId = String.format("prod_p%d_i%d_c%s", pageNumber, productId, paginationUtil.encodeToBase64(categoryName));
-            rows.add(messageBuilder.createRow(rowId, productName, "💰 " + priceDisplay + " • Tap to add to cart"));
+        for (ProductListingView product : products) {
+            String priceDisplay = productService.getPriceDisplay(product);
+            String rowId = InteractionIdCodec.product(pageNumber, product.getProductId(), categoryId);
+            rows.add(messageBuilder.createRow(rowId, product.getProductName(), "💰 " + priceDisplay + " • Tap to add to cart"));
         }
 
-        // Navigation rows
+        // Navigation rows: keyed by the first and last product shown
         if (paginated.hasPrevious()) {
-            String prevId = String.format("prev_prod_p%d_c%s", pageNumber - 1, paginationUtil.encodeToBase64(categoryName));
+            String prevId = InteractionIdCodec.productPage(pageNumber - 1, categoryId,
+                    0, products.get(0).getProductId());
             rows.add(messageBuilder.createRow(prevId, "⬅️ Previous Page", String.format("Go to page %d", pageNumber - 1)));
         }
 
         if (paginated.hasNext()) {
-            String nextId = String.format("next_prod_p%d_c%s", pageNumber + 1, paginationUtil.encodeToBase64(categoryName));
+            String nextId = InteractionIdCodec.productPage(pageNumber + 1, categoryId,
+                    products.get(products.size() - 1).getProductId(), 0);
             rows.add(messageBuilder.createRow(nextId, "➡️ Next Page", String.format("Go to page %d", pageNumber + 1)));
         }
 
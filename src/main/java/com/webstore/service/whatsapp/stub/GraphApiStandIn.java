@@ -0,0 +1,295 @@
+package com.webstore.service.whatsapp.stub;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import com.webstore.configuration.WhatsAppConfiguration;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Profile;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Local stand-in for {@code POST /{version}/{phoneNumberId}/messages} on the
+ * Graph API, for benchmarking and testing the outbound path offline.
+ * <p>
+ * Start the app with {@code --spring.profiles.active=local,graph-stub}; the
+ * profile's properties point {@code whatsapp.api.graph-url} at this server.
+ * Responses look like the Cloud API's: a {@code wamid.} message id on success,
+ * the Graph error envelope otherwise. Under {@code whatsapp.graph-stub.*}:
+ * <ul>
+ *   <li>latency is log-normal from {@code latency-median} and {@code latency-p99}</li>
+ *   <li>{@code error-rate} of requests get a 500, {@code throttle-rate} a 429 with code 130429</li>
+ *   <li>{@code slow-drip-rate} of successes write their body in chunks, {@code slow-drip-chunk-delay} apart</li>
+ * </ul>
+ * Delays are scheduled rather than slept, so a few threads can hold thousands
+ * of requests open. Every request body is kept, in arrival order, so tests can
+ * assert on throughput and on per-recipient ordering; a listener set with
+ * {@link #onReceived} sees each one as it arrives.
+ */
+@Component
+@Profile("graph-stub")
+public class GraphApiStandIn implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(GraphApiStandIn.class);
+
+    private static final double Z_99 = 2.326;
+
+    private final WhatsAppConfiguration.GraphStub config;
+    private final ObjectMapper objectMapper;
+    private final DoubleSupplier random;
+    private final double latencyMu;
+    private final double latencySigma;
+    private final HttpServer server;
+    private final ScheduledExecutorService executor;
+    private final AtomicLong sequence = new AtomicLong();
+    private final Queue<ReceivedMessage> received = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger retained = new AtomicInteger();
+    private volatile long firstReceivedNanos;
+    private volatile long lastReceivedNanos;
+    private volatile Consumer<ReceivedMessage> listener = message -> { };
+
+    @Autowired
+    public GraphApiStandIn(WhatsAppConfiguration whatsAppConfig, ObjectMapper objectMapper) {
+        this(whatsAppConfig.getGraphStub(), objectMapper, () -> ThreadLocalRandom.current().nextDouble());
+    }
+
+    /**
+     * @param random source for the error, throttle and slow-drip draws, in [0, 1)
+     */
+    public GraphApiStandIn(WhatsAppConfiguration.GraphStub config, ObjectMapper objectMapper, DoubleSupplier random) {
+        this.config = config;
+        this.objectMapper = objectMapper;
+        this.random = random;
+        long median = config.getLatencyMedian().toNanos();
+        this.latencyMu = median > 0 ? Math.log(median) : Double.NaN;
+        this.latencySigma = median > 0
+                ? Math.max(0, Math.log((double) config.getLatencyP99().toNanos() / median) / Z_99)
+                : 0;
+        this.executor = Executors.newScheduledThreadPool(config.getThreads(),
+                new CustomizableThreadFactory("graph-stub-"));
+        try {
+            this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", config.getPort()), 1024);
+        } catch (IOException e) {
+            executor.shutdownNow();
+            throw new UncheckedIOException("Cannot start Graph API stand-in on port " + config.getPort(), e);
+        }
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+        logger.info("Graph API stand-in listening on http://127.0.0.1:{}", getPort());
+    }
+
+    /** Called on the stand-in's threads with every request body as soon as it has been read. */
+    public void onReceived(Consumer<ReceivedMessage> listener) {
+        this.listener = listener;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /** All retained request bodies, in arrival order. */
+    public List<ReceivedMessage> getReceived() {
+        return List.copyOf(received);
+    }
+
+    /** Retained request bodies for one recipient, in arrival order. */
+    public List<ReceivedMessage> getReceived(String recipient) {
+        return received.stream().filter(message -> recipient.equals(message.getRecipient())).toList();
+    }
+
+    public long getReceivedCount() {
+        return sequence.get();
+    }
+
+    /** Requests per second between the first and the latest arrival. */
+    public double getThroughput() {
+        long count = sequence.get();
+        long elapsed = lastReceivedNanos - firstReceivedNanos;
+        return count > 1 && elapsed > 0 ? (count - 1) * 1e9 / elapsed : 0;
+    }
+
+    /** Waits until at least {@code count} requests have arrived; false on timeout. */
+    public boolean awaitReceived(long count, Duration timeout) {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        while (sequence.get() < count) {
+            if (System.nanoTime() - deadline >= 0) {
+                return false;
+            }
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(1));
+        }
+        return true;
+    }
+
+    /** Forgets everything received so far, between benchmark runs. */
+    public void reset() {
+        received.clear();
+        retained.set(0);
+        sequence.set(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        byte[] body;
+        try (InputStream in = exchange.getRequestBody()) {
+            body = in.readAllBytes();
+        }
+        String[] path = exchange.getRequestURI().getPath().split("/");
+        if (!"POST".equals(exchange.getRequestMethod()) || path.length != 4 || !"messages".equals(path[3])) {
+            respond(exchange, 404, error("Unknown path components: " + exchange.getRequestURI().getPath(), 2500));
+            return;
+        }
+
+        String recipient;
+        try {
+            JsonNode request = objectMapper.readTree(body);
+            recipient = request.path("to").asText("");
+        } catch (IOException e) {
+            respond(exchange, 400, error("(#100) Invalid parameter", 100));
+            return;
+        }
+
+        double draw = random.getAsDouble();
+        int status = draw < config.getErrorRate() ? 500
+                : draw < config.getErrorRate() + config.getThrottleRate() ? 429
+                : 200;
+        long seq = record(path[2], recipient, status, body);
+
+        byte[] response;
+        if (status == 500) {
+            response = error("An unknown error has occurred.", 1);
+        } else if (status == 429) {
+            response = error("(#130429) Rate limit hit", 130429);
+            if (!config.getRetryAfter().isZero()) {
+                exchange.getResponseHeaders().set("Retry-After",
+                        Long.toString(Math.max(1, config.getRetryAfter().toSeconds())));
+            }
+        } else {
+            response = success(recipient, seq);
+        }
+        boolean drip = status == 200 && config.getSlowDripRate() > 0
+                && random.getAsDouble() < config.getSlowDripRate();
+        executor.schedule(() -> {
+            if (drip) {
+                drip(exchange, response);
+            } else {
+                respond(exchange, status, response);
+            }
+        }, sampleLatencyNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private long record(String phoneNumberId, String recipient, int status, byte[] body) {
+        long now = System.nanoTime();
+        long seq = sequence.getAndIncrement();
+        if (seq == 0) {
+            firstReceivedNanos = now;
+        }
+        lastReceivedNanos = now;
+        ReceivedMessage message = new ReceivedMessage(seq, now, phoneNumberId, recipient, status, body);
+        received.add(message);
+        if (retained.incrementAndGet() > config.getRecordCapacity()) {
+            received.poll();
+            retained.decrementAndGet();
+        }
+        listener.accept(message);
+        return seq;
+    }
+
+    private long sampleLatencyNanos() {
+        if (Double.isNaN(latencyMu)) {
+            return 0;
+        }
+        return (long) Math.exp(latencyMu + latencySigma * ThreadLocalRandom.current().nextGaussian());
+    }
+
+    private void respond(HttpExchange exchange, int status, byte[] response) {
+        try (exchange) {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(status, response.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(response);
+            }
+        } catch (IOException e) {
+            logger.debug("Graph API stand-in could not answer: {}", e.getMessage());
+        }
+    }
+
+    private void drip(HttpExchange exchange, byte[] response) {
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, response.length);
+            writeChunk(exchange, response, 0, Math.max(1, response.length / Math.max(1, config.getSlowDripChunks())));
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+
+    // Each chunk schedules the next, so they go out in order whatever the pool size
+    private void writeChunk(HttpExchange exchange, byte[] response, int offset, int chunk) {
+        try {
+            OutputStream out = exchange.getResponseBody();
+            int length = Math.min(chunk, response.length - offset);
+            out.write(response, offset, length);
+            out.flush();
+            if (offset + length >= response.length) {
+                exchange.close();
+                return;
+            }
+            executor.schedule(() -> writeChunk(exchange, response, offset + length, chunk),
+                    config.getSlowDripChunkDelay().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (IOException e) {
+            exchange.close();
+        }
+    }
+
+    private static byte[] success(String to, long seq) {
+        String recipient = quote(to);
+        String messageId = "wamid." + Base64.getEncoder().encodeToString(
+                ("HBgM" + recipient + "FQIAERgS" + Long.toHexString(seq).toUpperCase()).getBytes(StandardCharsets.UTF_8));
+        return ("{\"messaging_product\":\"whatsapp\",\"contacts\":[{\"input\":\"" + recipient + "\",\"wa_id\":\""
+                + recipient + "\"}],\"messages\":[{\"id\":\"" + messageId + "\"}]}")
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] error(String message, int code) {
+        return ("{\"error\":{\"message\":\"" + quote(message) + "\",\"type\":\"OAuthException\",\"code\":" + code
+                + ",\"fbtrace_id\":\"stub\"}}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String quote(String value) {
+        return new String(JsonStringEncoder.getInstance().quoteAsString(value));
+    }
+
+    @Override
+    @PreDestroy
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+}
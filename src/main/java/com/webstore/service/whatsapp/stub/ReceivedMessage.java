@@ -0,0 +1,27 @@
+package com.webstore.service.whatsapp.stub;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One request body as received by {@link GraphApiStandIn}.
+ */
+@Getter
+@ToString(exclude = "payload")
+@RequiredArgsConstructor
+public class ReceivedMessage {
+
+    private final long sequence;            // arrival order across all recipients
+    private final long receivedAtNanos;     // System.nanoTime() when the body had been read
+    private final String phoneNumberId;
+    private final String recipient;
+    private final int status;               // status the stand-in answered with
+    private final byte[] payload;
+
+    public String getPayloadText() {
+        return new String(payload, StandardCharsets.UTF_8);
+    }
+}
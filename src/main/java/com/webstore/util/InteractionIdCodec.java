@@ -0,0 +1,274 @@
+package com.webstore.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Builds and reads the ids of list rows that carry state back to us when
+ * tapped: which page, product and category the row stood for.
+ * <p>
+ * Ids are {@code ~1} (marker and format version), a kind letter, then the
+ * kind's fields in base 36 separated by dots, e.g. {@code ~1p2.1f.a} for
+ * product 51 on page 2 of category 10. They stay far below WhatsApp's
+ * 200-character limit and use only URL-safe characters. Encoding and decoding
+ * scan characters directly; the only allocations are the resulting string or
+ * {@link InteractionId}.
+ * <p>
+ * Previous/next page ids also carry the keyset cursor of the page they lead
+ * to (see {@link PaginationUtil.PageCursor}): the key the page starts after,
+ * or the key it ends before. Page ids sent before the cursor was added have
+ * no cursor fields and decode with both keys 0.
+ * <p>
+ * Ids in the format used before the codec ({@code prod_p2_i31_cU2hvZXM=},
+ * {@code next_cat_page_2}, ...) still decode, since users can tap rows of
+ * messages sent before an upgrade. They carry the category name or the row's
+ * position instead of the category id; see {@link InteractionId}.
+ */
+public final class InteractionIdCodec {
+
+    public static final char MARKER = '~';
+    public static final char VERSION = '1';
+
+    /** Prefixes of current ids, for routing; each is followed by the kind's fields. */
+    public static final String CATEGORY_PREFIX = "~1c";
+    public static final String PRODUCT_PREFIX = "~1p";
+    public static final String CATEGORY_PAGE_PREFIX = "~1C";
+    public static final String PRODUCT_PAGE_PREFIX = "~1P";
+
+    private static final int RADIX = 36;
+    private static final char SEPARATOR = '.';
+    // Marker, version, kind, four ints of at most 6 base-36 digits and three separators
+    private static final int MAX_LENGTH = 3 + 4 * 6 + 3;
+
+    public enum Kind {
+        CATEGORY('c', 2, 2),        // a category row: page, category id
+        PRODUCT('p', 3, 3),         // a product row: page, product id, category id
+        CATEGORY_PAGE('C', 1, 3),   // previous/next category page: page[, after id, before id]
+        PRODUCT_PAGE('P', 2, 4);    // previous/next product page: page, category id[, after id, before id]
+
+        private final char code;
+        private final int minFields;
+        private final int fields;
+
+        Kind(char code, int minFields, int fields) {
+            this.code = code;
+            this.minFields = minFields;
+            this.fields = fields;
+        }
+
+        // A switch rather than values(), which copies the array on every call
+        static Kind of(char code) {
+            return switch (code) {
+                case 'c' -> CATEGORY;
+                case 'p' -> PRODUCT;
+                case 'C' -> CATEGORY_PAGE;
+                case 'P' -> PRODUCT_PAGE;
+                default -> null;
+            };
+        }
+    }
+
+    /** A decoded id. Fields the kind does not carry are 0, or null for the category name. */
+    public static final class InteractionId {
+        private final Kind kind;
+        private final int page;
+        private final int productId;
+        private final int categoryId;
+        private final int item;
+        private final String categoryName;
+        private final int afterId;
+        private final int beforeId;
+
+        InteractionId(Kind kind, int page, int productId, int categoryId, int item, String categoryName) {
+            this(kind, page, productId, categoryId, item, categoryName, 0, 0);
+        }
+
+        InteractionId(Kind kind, int page, int productId, int categoryId, int item, String categoryName,
+                      int afterId, int beforeId) {
+            this.kind = kind;
+            this.page = page;
+            this.productId = productId;
+            this.categoryId = categoryId;
+            this.item = item;
+            this.categoryName = categoryName;
+            this.afterId = afterId;
+            this.beforeId = beforeId;
+        }
+
+        public Kind getKind() { return kind; }
+        public int getPage() { return page; }
+        public int getProductId() { return productId; }
+        /** 0 for old-format ids, which carry {@link #getCategoryName()} or {@link #getItem()} instead. */
+        public int getCategoryId() { return categoryId; }
+        /** Old-format category rows only: 1-based position of the category across all pages. */
+        public int getItem() { return item; }
+        /** Old-format product rows and pages only. */
+        public String getCategoryName() { return categoryName; }
+        /** Page ids only: the id the page starts after, 0 if none. */
+        public int getAfterId() { return afterId; }
+        /** Page ids only: the id the page ends before, 0 if none. */
+        public int getBeforeId() { return beforeId; }
+
+        /** The cursor of the page a page id leads to. */
+        public PaginationUtil.PageCursor getPageCursor() {
+            return new PaginationUtil.PageCursor(page, afterId, beforeId);
+        }
+    }
+
+    private InteractionIdCodec() {
+    }
+
+    public static String category(int page, int categoryId) {
+        return encode(Kind.CATEGORY, page, categoryId, 0, 0);
+    }
+
+    public static String product(int page, int productId, int categoryId) {
+        return encode(Kind.PRODUCT, page, productId, categoryId, 0);
+    }
+
+    /** A category page starting after category {@code afterId}, or ending before {@code beforeId}. */
+    public static String categoryPage(int page, int afterId, int beforeId) {
+        return encode(Kind.CATEGORY_PAGE, page, afterId, beforeId, 0);
+    }
+
+    /** A product page starting after product {@code afterId}, or ending before {@code beforeId}. */
+    public static String productPage(int page, int categoryId, int afterId, int beforeId) {
+        return encode(Kind.PRODUCT_PAGE, page, categoryId, afterId, beforeId);
+    }
+
+    private static String encode(Kind kind, int first, int second, int third, int fourth) {
+        char[] buffer = new char[MAX_LENGTH];
+        buffer[0] = MARKER;
+        buffer[1] = VERSION;
+        buffer[2] = kind.code;
+        int position = writeNumber(buffer, 3, first);
+        if (kind.fields > 1) {
+            buffer[position++] = SEPARATOR;
+            position = writeNumber(buffer, position, second);
+        }
+        if (kind.fields > 2) {
+            buffer[position++] = SEPARATOR;
+            position = writeNumber(buffer, position, third);
+        }
+        if (kind.fields > 3) {
+            buffer[position++] = SEPARATOR;
+            position = writeNumber(buffer, position, fourth);
+        }
+        return new String(buffer, 0, position);
+    }
+
+    private static int writeNumber(char[] buffer, int position, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Interaction id fields must not be negative: " + value);
+        }
+        int digits = 1;
+        for (int rest = value / RADIX; rest > 0; rest /= RADIX) {
+            digits++;
+        }
+        for (int i = position + digits - 1; i >= position; i--) {
+            buffer[i] = Character.forDigit(value % RADIX, RADIX);
+            value /= RADIX;
+        }
+        return position + digits;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the id is neither a current nor an old-format id
+     */
+    public static InteractionId decode(String id) {
+        if (id.length() > 3 && id.charAt(0) == MARKER) {
+            return decodeCurrent(id);
+        }
+        return decodeLegacy(id);
+    }
+
+    private static InteractionId decodeCurrent(String id) {
+        Kind kind = id.charAt(1) == VERSION ? Kind.of(id.charAt(2)) : null;
+        if (kind == null) {
+            throw malformed(id);
+        }
+        int first = 0;
+        int second = 0;
+        int third = 0;
+        int fourth = 0;
+        int field = 0;
+        long value = 0;
+        int digits = 0;
+        for (int i = 3; i <= id.length(); i++) {
+            char c = i < id.length() ? id.charAt(i) : SEPARATOR;
+            if (c == SEPARATOR) {
+                if (digits == 0 || field == kind.fields) {
+                    throw malformed(id);
+                }
+                switch (field++) {
+                    case 0 -> first = (int) value;
+                    case 1 -> second = (int) value;
+                    case 2 -> third = (int) value;
+                    default -> fourth = (int) value;
+                }
+                value = 0;
+                digits = 0;
+                continue;
+            }
+            int digit = Character.digit(c, RADIX);
+            if (digit < 0 || c > 'z' || Character.isUpperCase(c)) {
+                throw malformed(id);
+            }
+            value = value * RADIX + digit;
+            if (value > Integer.MAX_VALUE) {
+                throw malformed(id);
+            }
+            digits++;
+        }
+        if (field < kind.minFields) {
+            throw malformed(id);
+        }
+        return switch (kind) {
+            case CATEGORY -> new InteractionId(kind, first, 0, second, 0, null);
+            case PRODUCT -> new InteractionId(kind, first, second, third, 0, null);
+            case CATEGORY_PAGE -> new InteractionId(kind, first, 0, 0, 0, null, second, third);
+            case PRODUCT_PAGE -> new InteractionId(kind, first, 0, second, 0, null, third, fourth);
+        };
+    }
+
+    // cat_page_{page}_item_{item}, prod_p{page}_i{productId}_c{base64 name},
+    // next_cat_page_{page}, prev_cat_page_{page}, next_prod_p{page}_c{base64 name}, prev_prod_p{page}_c{base64 name}
+    private static InteractionId decodeLegacy(String id) {
+        try {
+            if (id.startsWith("cat_page_")) {
+                int itemAt = id.indexOf("_item_", 9);
+                return new InteractionId(Kind.CATEGORY, Integer.parseInt(id, 9, itemAt, 10), 0, 0,
+                        Integer.parseInt(id, itemAt + 6, id.length(), 10), null);
+            }
+            if (id.startsWith("prod_p")) {
+                int productAt = id.indexOf("_i", 6);
+                int categoryAt = id.indexOf("_c", productAt + 2);
+                return new InteractionId(Kind.PRODUCT, Integer.parseInt(id, 6, productAt, 10),
+                        Integer.parseInt(id, productAt + 2, categoryAt, 10), 0, 0,
+                        decodeName(id.substring(categoryAt + 2)));
+            }
+            if (id.startsWith("next_") || id.startsWith("prev_")) {
+                if (id.startsWith("cat_page_", 5)) {
+                    return new InteractionId(Kind.CATEGORY_PAGE, Integer.parseInt(id, 14, id.length(), 10),
+                            0, 0, 0, null);
+                }
+                if (id.startsWith("prod_p", 5)) {
+                    int categoryAt = id.indexOf("_c", 11);
+                    return new InteractionId(Kind.PRODUCT_PAGE, Integer.parseInt(id, 11, categoryAt, 10), 0, 0, 0,
+                            decodeName(id.substring(categoryAt + 2)));
+                }
+            }
+        } catch (IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Malformed interaction id: " + id, e);
+        }
+        throw malformed(id);
+    }
+
+    private static String decodeName(String encoded) {
+        return new String(Base64.getDecoder().decode(encoded), StandardCharsets.UTF_8);
+    }
+
+    private static IllegalArgumentException malformed(String id) {
+        return new IllegalArgumentException("Malformed interaction id: " + id);
+    }
+}
@@ -1,8 +1,18 @@
 package com.webstore.util;
 
 import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
+/**
+ * Keyset pagination for the WhatsApp lists. A page is fetched by key, never by
+ * offset, so the cost of a page does not grow with its position or with the
+ * size of the list: the next page starts after the last key shown, the
+ * previous one ends before the first. One row beyond the page size is fetched
+ * to learn whether there is a further page in that direction; paging back, one
+ * row from the key onwards tells whether the page we came from still exists.
+ */
 @Component
 public class PaginationUtil {
 
@@ -17,12 +27,17 @@ public class PaginationUtil {
         private final boolean hasPrevious;
 
         public PaginationResult(List<T> items, int currentPage, int totalPages, int totalItems) {
+            this(items, currentPage, totalPages, totalItems, currentPage < totalPages, currentPage > 1);
+        }
+
+        public PaginationResult(List<T> items, int currentPage, int totalPages, int totalItems,
+                                boolean hasNext, boolean hasPrevious) {
             this.items = items;
             this.currentPage = currentPage;
             this.totalPages = totalPages;
             this.totalItems = totalItems;
-            this.hasNext = currentPage < totalPages;
-            this.hasPrevious = currentPage > 1;
+            this.hasNext = hasNext;
+            this.hasPrevious = hasPrevious;
         }
 
         public List<T> getItems() { return items; }
@@ -31,34 +46,85 @@ public class PaginationUtil {
         public int getTotalItems() { return totalItems; }
         public boolean hasNext() { return hasNext; }
         public boolean hasPrevious() { return hasPrevious; }
-    }
 
-    public <T> PaginationResult<T> paginate(List<T> allItems, int pageNumber) {
-        return paginate(allItems, pageNumber, DEFAULT_ITEMS_PER_PAGE);
+        /** The same page with its items replaced, e.g. mapped to the rows shown. */
+        public <R> PaginationResult<R> withItems(List<R> newItems) {
+            return new PaginationResult<>(newItems, currentPage, totalPages, totalItems, hasNext, hasPrevious);
+        }
     }
 
-    public <T> PaginationResult<T> paginate(List<T> allItems, int pageNumber, int itemsPerPage) {
-        if (allItems.isEmpty()) {
-            return new PaginationResult<>(allItems, 1, 1, 0);
+    /**
+     * Where a page starts: after {@code afterKey}, or before {@code beforeKey}
+     * when paging back. Keys are ids, which start at 1, so 0 means none.
+     * {@code page} is only the number shown to the customer.
+     */
+    public record PageCursor(int page, int afterKey, int beforeKey) {
+
+        public static PageCursor first() {
+            return new PageCursor(1, 0, 0);
         }
+    }
 
-        int totalPages = (int) Math.ceil((double) allItems.size() / itemsPerPage);
+    /** Up to {@code limit} items past {@code key}, nearest first. */
+    @FunctionalInterface
+    public interface KeysetQuery<T> {
+        List<T> load(int key, int limit);
+    }
 
-        if (pageNumber < 1) pageNumber = 1;
-        if (pageNumber > totalPages) pageNumber = totalPages;
+    /**
+     * Loads the page at {@code cursor}: {@code after} returns items with keys
+     * above the key in ascending order, {@code before} items with keys below it
+     * in descending order. {@code totalItems} only feeds the "page x of y"
+     * text, so it may come from a cache; whether there is a next or previous
+     * page is decided by the rows actually found.
+     */
+    public <T> PaginationResult<T> paginate(long totalItems, PageCursor cursor,
+                                            KeysetQuery<T> after, KeysetQuery<T> before) {
+        int size = DEFAULT_ITEMS_PER_PAGE;
+        List<T> items;
+        boolean hasNext;
+        boolean hasPrevious;
+        int page = Math.max(1, cursor.page());
 
-        int startIndex = (pageNumber - 1) * itemsPerPage;
-        int endIndex = Math.min(startIndex + itemsPerPage, allItems.size());
+        if (cursor.beforeKey() > 0) {
+            items = new ArrayList<>(before.load(cursor.beforeKey(), size + 1));
+            hasPrevious = items.size() > size;
+            items = trim(items, size);
+            Collections.reverse(items);
+            // Everything from the key onwards is the next page; its rows may have been deleted since
+            hasNext = !after.load(cursor.beforeKey() - 1, 1).isEmpty();
+        } else if (cursor.afterKey() > 0 || page == 1) {
+            items = after.load(cursor.afterKey(), size + 1);
+            hasNext = items.size() > size;
+            items = trim(items, size);
+            hasPrevious = cursor.afterKey() > 0;
+        } else {
+            // A page number without a key (ids from before keyset paging): skip ahead once from the start
+            List<T> leading = after.load(0, page * size + 1);
+            int start = Math.min((page - 1) * size, Math.max(0, (leading.size() - 1) / size * size));
+            hasNext = leading.size() > start + size;
+            items = leading.subList(start, Math.min(start + size, leading.size()));
+            page = start / size + 1;
+            hasPrevious = page > 1;
+        }
 
-        List<T> pageItems = allItems.subList(startIndex, endIndex);
-        return new PaginationResult<>(pageItems, pageNumber, totalPages, allItems.size());
-    }
+        if (items.isEmpty() && (cursor.afterKey() > 0 || cursor.beforeKey() > 0)) {
+            // Everything around the key was deleted since the ids were sent
+            return paginate(totalItems, PageCursor.first(), after, before);
+        }
+        if (!hasPrevious) {
+            page = 1;
+        } else if (page == 1) {
+            page = 2;
+        }
 
-    public String encodeToBase64(String data) {
-        return java.util.Base64.getEncoder().encodeToString(data.getBytes());
+        int totalPages = (int) Math.max(1, (totalItems + size - 1) / size);
+        // The cached count may lag behind the rows; never show "page 4 of 3"
+        totalPages = Math.max(totalPages, page + (hasNext ? 1 : 0));
+        return new PaginationResult<>(items, page, totalPages, (int) totalItems, hasNext, hasPrevious);
     }
 
-    public String decodeFromBase64(String encodedData) {
-        return new String(java.util.Base64.getDecoder().decode(encodedData));
+    private static <T> List<T> trim(List<T> items, int size) {
+        return items.size() > size ? items.subList(0, size) : items;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,147 @@
+package com.webstore.util;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Hashed timer wheel: one thread advances a ring of buckets every tick and
+ * runs the timeouts that fall due. Scheduling and cancelling are O(1)
+ * regardless of how many timeouts are waiting, and no thread sleeps per
+ * timeout, which suits thousands of short-lived retry timers.
+ * <p>
+ * Deadlines are rounded up to the next tick. Tasks run on the wheel thread
+ * and must only hand work off (complete a future, enqueue a call); a slow
+ * task delays every other timer.
+ */
+public class TimerWheel implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TimerWheel.class);
+
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<Timeout>[] buckets;
+    // Callers add here; only the wheel thread touches the buckets
+    private final Queue<Timeout> incoming = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final long startTime;
+    private final Thread worker;
+    private volatile boolean running = true;
+    private long tick;
+
+    @SuppressWarnings("unchecked")
+    public TimerWheel(String threadName, long tickDuration, TimeUnit unit, int wheelSize) {
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two: " + wheelSize);
+        }
+        this.tickNanos = Math.max(1, unit.toNanos(tickDuration));
+        this.mask = wheelSize - 1;
+        this.buckets = new Queue[wheelSize];
+        for (int i = 0; i < wheelSize; i++) {
+            buckets[i] = new ArrayDeque<>();
+        }
+        this.startTime = System.nanoTime();
+        this.worker = new Thread(this::run, threadName);
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (!running) {
+            throw new IllegalStateException("Timer wheel is stopped");
+        }
+        Timeout timeout = new Timeout(task, System.nanoTime() - startTime + Math.max(0, unit.toNanos(delay)));
+        pending.incrementAndGet();
+        incoming.add(timeout);
+        return timeout;
+    }
+
+    /** Timeouts scheduled and neither run nor cancelled yet. */
+    public int getPendingCount() {
+        return pending.get();
+    }
+
+    /** Stops the wheel; timeouts not yet due are dropped. */
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(worker);
+    }
+
+    private void run() {
+        while (running) {
+            long deadline = startTime + (tick + 1) * tickNanos;
+            long sleep;
+            while (running && (sleep = deadline - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(sleep);
+            }
+            transferIncoming();
+            expire(buckets[(int) (tick & mask)]);
+            tick++;
+        }
+    }
+
+    private void transferIncoming() {
+        Timeout timeout;
+        while ((timeout = incoming.poll()) != null) {
+            if (timeout.done.get()) {
+                continue;
+            }
+            long due = (timeout.deadline + tickNanos - 1) / tickNanos;
+            timeout.remainingRounds = Math.max(0, (due - tick) / buckets.length);
+            buckets[(int) (Math.max(due, tick) & mask)].add(timeout);
+        }
+    }
+
+    private void expire(Queue<Timeout> bucket) {
+        Iterator<Timeout> iterator = bucket.iterator();
+        while (iterator.hasNext()) {
+            Timeout timeout = iterator.next();
+            if (timeout.done.get()) {
+                iterator.remove();
+            } else if (timeout.remainingRounds <= 0) {
+                iterator.remove();
+                if (timeout.done.compareAndSet(false, true)) {
+                    pending.decrementAndGet();
+                    try {
+                        timeout.task.run();
+                    } catch (RuntimeException e) {
+                        logger.error("Timer task failed", e);
+                    }
+                }
+            } else {
+                timeout.remainingRounds--;
+            }
+        }
+    }
+
+    public final class Timeout {
+
+        private final Runnable task;
+        private final long deadline;            // nanos since the wheel started
+        private final AtomicBoolean done = new AtomicBoolean();      // ran or cancelled
+        private long remainingRounds;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /** @return false if the task already ran or was cancelled */
+        public boolean cancel() {
+            if (done.compareAndSet(false, true)) {
+                pending.decrementAndGet();
+                return true;
+            }
+            return false;
+        }
+    }
+}
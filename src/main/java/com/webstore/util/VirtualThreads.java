@@ -0,0 +1,59 @@
+package com.webstore.util;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Creates virtual-thread executors when the running JVM has them (Java 21+).
+ * <p>
+ * The project still compiles for Java 17, so the Java 21 API is reached
+ * reflectively; on older runtimes {@link #isSupported()} is false and callers
+ * fall back to platform threads.
+ */
+public final class VirtualThreads {
+
+    private static final ThreadFactory PROBE = createFactory("virtual-probe-");
+
+    private VirtualThreads() {
+    }
+
+    public static boolean isSupported() {
+        return PROBE != null;
+    }
+
+    /**
+     * One new virtual thread per task, named {@code prefix0}, {@code prefix1}, ...
+     *
+     * @throws UnsupportedOperationException when the JVM has no virtual threads
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        ThreadFactory factory = createFactory(namePrefix);
+        if (factory == null) {
+            throw new UnsupportedOperationException("Virtual threads need Java 21 or later");
+        }
+        try {
+            Method newExecutor = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+            return (ExecutorService) newExecutor.invoke(null, factory);
+        } catch (ReflectiveOperationException e) {
+            throw new UnsupportedOperationException("Virtual threads need Java 21 or later", e);
+        }
+    }
+
+    // Thread.ofVirtual().name(prefix, 0).factory()
+    private static ThreadFactory createFactory(String namePrefix) {
+        try {
+            Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+        } catch (InvocationTargetException e) {
+            // Java 19/20 without --enable-preview
+            return null;
+        } catch (ReflectiveOperationException e) {
+            return null;
+        }
+    }
+}
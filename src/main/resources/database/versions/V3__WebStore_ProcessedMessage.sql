@@ -0,0 +1,10 @@
+-- V3__WebStore_ProcessedMessage.sql
+-- Inbound WhatsApp message ids already handled, used to drop Meta redeliveries
+-- when several nodes share the webhook URL (whatsapp.webhook.dedup.store=postgres)
+
+CREATE TABLE IF NOT EXISTS web_store.processed_message (
+    message_id VARCHAR(128) NOT NULL PRIMARY KEY,
+    received_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_processed_message_received_at ON web_store.processed_message(received_at);
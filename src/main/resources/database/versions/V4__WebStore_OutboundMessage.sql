@@ -0,0 +1,25 @@
+-- V4__WebStore_OutboundMessage.sql
+-- Transactional outbox for outbound WhatsApp messages: rows are written in the
+-- same transaction as the state change they announce and drained by any node
+
+CREATE TABLE IF NOT EXISTS web_store.outbound_message (
+    outbound_message_id BIGSERIAL PRIMARY KEY,
+    phone_number_id VARCHAR(64) NOT NULL,
+    recipient VARCHAR(32) NOT NULL,
+    message_type VARCHAR(100) NOT NULL,
+    payload TEXT NOT NULL,
+    status VARCHAR(16) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP,
+    wa_message_id VARCHAR(128),
+    last_error VARCHAR(500)
+);
+
+-- Only pending rows are polled; the partial index stays small as sent rows pile up
+CREATE INDEX IF NOT EXISTS idx_outbound_message_pending
+    ON web_store.outbound_message(next_attempt_at, outbound_message_id) WHERE status = 'PENDING';
+
+CREATE INDEX IF NOT EXISTS idx_outbound_message_sent_at
+    ON web_store.outbound_message(sent_at) WHERE status = 'SENT';
@@ -0,0 +1,18 @@
+-- V5__WebStore_ConversationSession.sql
+-- Conversation sessions written through from memory (whatsapp.session.store=postgres).
+-- UNLOGGED skips the WAL: sessions survive a clean restart of the app or the
+-- database, are emptied after a database crash, and are not replicated.
+-- Losing them only sends customers back to the category list.
+
+CREATE UNLOGGED TABLE IF NOT EXISTS web_store.conversation_session (
+    phone VARCHAR(32) NOT NULL PRIMARY KEY,
+    catalogue_id INTEGER,
+    category_id INTEGER,
+    category_name VARCHAR(50),
+    page INTEGER NOT NULL DEFAULT 1,
+    last_product_id INTEGER,
+    cart_reference VARCHAR(64),
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_conversation_session_updated_at ON web_store.conversation_session(updated_at);
@@ -0,0 +1,12 @@
+-- V6__WebStore_KeysetPaging.sql
+-- The WhatsApp product list pages by key within a category: the composite
+-- index serves "category_id = ? AND product_id > ? ORDER BY product_id LIMIT ?"
+-- as a single range scan, and supersedes the single-column index on category_id.
+
+CREATE INDEX IF NOT EXISTS idx_product_category_product ON web_store.product(category_id, product_id);
+DROP INDEX IF EXISTS web_store.idx_product_category;
+
+-- Keyset cursor of the product list page a session last showed
+ALTER TABLE web_store.conversation_session
+    ADD COLUMN IF NOT EXISTS page_after_id INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN IF NOT EXISTS page_before_id INTEGER NOT NULL DEFAULT 0;
@@ -4,6 +4,7 @@ import com.webstore.dto.request.CategoryRequestDto;
 import com.webstore.dto.response.CategoryResponseDto;
 import com.webstore.entity.Category;
 import com.webstore.repository.CategoryRepository;
+import com.webstore.service.whatsapp.business.CatalogVersion;
 import jakarta.persistence.EntityExistsException;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -31,6 +32,9 @@ class CategoryServiceImplementationTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CatalogVersion catalogVersion;
+
     private Category category;
     private CategoryRequestDto requestDto;
 
@@ -56,6 +60,7 @@ class CategoryServiceImplementationTest {
         CategoryResponseDto responseDto = categoryService.createCategory(requestDto);
 
         assertEquals("Books", responseDto.getCategoryName());
+        verify(catalogVersion).bump();
     }
 
     @Test
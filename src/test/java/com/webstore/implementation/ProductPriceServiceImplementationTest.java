@@ -9,6 +9,7 @@ import com.webstore.repository.CurrencyRepository;
 import com.webstore.repository.ProductPriceRepository;
 import com.webstore.repository.ProductRepository;
 import com.webstore.service.ProductPriceService;
+import com.webstore.service.whatsapp.business.CatalogVersion;
 import com.webstore.util.AuthUtils;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.BeforeEach;
@@ -39,6 +40,9 @@ public class ProductPriceServiceImplementationTest {
     @Mock
     private CurrencyRepository currencyRepository;
 
+    @Mock
+    private CatalogVersion catalogVersion;
+
     @InjectMocks
     private ProductPriceServiceImplementation productPriceService;
 
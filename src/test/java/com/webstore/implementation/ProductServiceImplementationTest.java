@@ -6,6 +6,7 @@ import com.webstore.entity.Category;
 import com.webstore.entity.Product;
 import com.webstore.repository.CategoryRepository;
 import com.webstore.repository.ProductRepository;
+import com.webstore.service.whatsapp.business.CatalogVersion;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -28,6 +29,9 @@ class ProductServiceImplementationTest {
     @Mock
     private CategoryRepository categoryRepository;
 
+    @Mock
+    private CatalogVersion catalogVersion;
+
     @InjectMocks
     private ProductServiceImplementation productService;
 
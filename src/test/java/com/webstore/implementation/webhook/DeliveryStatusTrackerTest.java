@@ -0,0 +1,91 @@
+package com.webstore.implementation.webhook;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeliveryStatusTrackerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AtomicLong now;
+    private DeliveryStatusTracker tracker;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        now = new AtomicLong(1_700_000_000L);
+        tracker = new DeliveryStatusTracker(2, Duration.ofMinutes(30), meterRegistry, now::get);
+    }
+
+    @Test
+    void testRecord_CountsPerPhoneNumberAndStatus() {
+        tracker.record(status("111", "wamid.1", "sent", 0));
+        tracker.record(status("111", "wamid.1", "read", 0));
+        tracker.record(status("222", "wamid.2", "sent", 0));
+        tracker.record(status(null, "wamid.3", "deleted", 0));
+
+        assertEquals(1, tracker.getCount("111", "sent"));
+        assertEquals(1, tracker.getCount("111", "read"));
+        assertEquals(1, tracker.getCount("222", "sent"));
+        assertEquals(1, tracker.getCount(DeliveryStatusTracker.UNKNOWN_PHONE_NUMBER, "other"));
+        assertEquals(1.0, meterRegistry.get("whatsapp.status.callbacks")
+                .tag("phone_number_id", "111").tag("status", "read").functionCounter().count());
+    }
+
+    @Test
+    void testRecord_MeasuresSentToDeliveredInEitherOrder() {
+        tracker.record(status("111", "wamid.1", "sent", 1_700_000_000L));
+        tracker.record(status("111", "wamid.1", "delivered", 1_700_000_003L));
+        tracker.record(status("111", "wamid.2", "delivered", 1_700_000_010L));
+        tracker.record(status("111", "wamid.2", "sent", 1_700_000_005L));
+
+        Timer latency = meterRegistry.get("whatsapp.delivery.latency").tag("phone_number_id", "111").timer();
+        assertEquals(2, latency.count());
+        assertEquals(8.0, latency.totalTime(TimeUnit.SECONDS));
+        assertEquals(0, tracker.getPendingCount());
+    }
+
+    @Test
+    void testRecord_IgnoresRedeliveredCallbacksAndFailures() {
+        tracker.record(status("111", "wamid.1", "sent", 1_700_000_000L));
+        tracker.record(status("111", "wamid.1", "sent", 1_700_000_000L));
+        assertEquals(1, tracker.getPendingCount());
+
+        tracker.record(status("111", "wamid.1", "failed", 1_700_000_001L));
+        assertEquals(0, tracker.getPendingCount());
+        assertEquals(0, meterRegistry.get("whatsapp.delivery.latency").timer().count());
+    }
+
+    @Test
+    void testRecord_StopsSamplingWhenPendingIsFull() {
+        tracker.record(status("111", "wamid.1", "sent", 1_700_000_000L));
+        tracker.record(status("111", "wamid.2", "sent", 1_700_000_000L));
+        tracker.record(status("111", "wamid.3", "sent", 1_700_000_000L));
+
+        assertEquals(2, tracker.getPendingCount());
+        tracker.record(status("111", "wamid.1", "delivered", 1_700_000_001L));
+        assertEquals(1, meterRegistry.get("whatsapp.delivery.latency").timer().count());
+    }
+
+    @Test
+    void testPurgeExpired_DropsStalePairs() {
+        tracker.record(status("111", "wamid.1", "sent", 1_700_000_000L));
+        tracker.record(status("111", "wamid.2", "sent", 1_700_001_500L));
+
+        now.set(1_700_002_000L);
+        tracker.purgeExpired();
+
+        assertEquals(1, tracker.getPendingCount());
+    }
+
+    private static InboundStatus status(String phoneNumberId, String messageId, String status, long timestamp) {
+        return new InboundStatus(phoneNumberId, messageId, "A", status, timestamp);
+    }
+}
@@ -0,0 +1,55 @@
+package com.webstore.implementation.webhook;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryMessageDeduplicationStoreTest {
+
+    private AtomicLong clock;
+    private InMemoryMessageDeduplicationStore store;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        store = new InMemoryMessageDeduplicationStore(1024, Duration.ofMinutes(5), clock::get);
+    }
+
+    @Test
+    void testMarkIfNew_RepeatInsideWindowIsDropped() {
+        assertTrue(store.markIfNew("wamid.HBgLOTE5OTk5OTk5OTk5FQIAEhgg"));
+        assertFalse(store.markIfNew("wamid.HBgLOTE5OTk5OTk5OTk5FQIAEhgg"));
+        assertTrue(store.markIfNew("wamid.HBgLOTE5OTk5OTk5OTk5FQIAEhgh"));
+    }
+
+    @Test
+    void testMarkIfNew_RepeatAfterWindowIsAccepted() {
+        assertTrue(store.markIfNew("wamid.1"));
+        clock.addAndGet(Duration.ofMinutes(6).toNanos());
+
+        assertTrue(store.markIfNew("wamid.1"));
+        assertFalse(store.markIfNew("wamid.1"));
+    }
+
+    @Test
+    void testMarkIfNew_NullIdIsNeverDropped() {
+        assertTrue(store.markIfNew(null));
+        assertTrue(store.markIfNew(null));
+    }
+
+    @Test
+    void testMarkIfNew_OldestIdsAreEvictedWhenFull() {
+        int capacity = store.getCapacity();
+        for (int i = 0; i < capacity * 4; i++) {
+            assertTrue(store.markIfNew("wamid." + i));
+        }
+
+        // Recent ids are still remembered, the earliest ones were evicted
+        assertFalse(store.markIfNew("wamid." + (capacity * 4 - 1)));
+        assertTrue(store.markIfNew("wamid.0"));
+    }
+}
@@ -0,0 +1,137 @@
+package com.webstore.implementation.webhook;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StripedExecutorTest {
+
+    private ExecutorService backing;
+
+    @BeforeEach
+    void setUp() {
+        backing = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        backing.shutdownNow();
+    }
+
+    @Test
+    void testExecute_SameKeyRunsInSubmissionOrder() throws InterruptedException {
+        StripedExecutor executor = new StripedExecutor(8, 1000, backing);
+        List<Integer> seen = new ArrayList<>();   // only touched by one lane at a time
+        CountDownLatch done = new CountDownLatch(500);
+
+        for (int i = 0; i < 500; i++) {
+            int value = i;
+            executor.execute("919999999999", () -> {
+                seen.add(value);
+                done.countDown();
+            });
+        }
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i, seen.get(i));
+        }
+    }
+
+    @Test
+    void testExecute_DifferentLanesRunInParallel() throws InterruptedException {
+        StripedExecutor executor = new StripedExecutor(8, 10, backing);
+        CountDownLatch bothRunning = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+
+        String first = "A";
+        String second = "B";
+        assertNotEquals(executor.laneIndex(first), executor.laneIndex(second));
+
+        for (String key : List.of(first, second)) {
+            executor.execute(key, () -> {
+                bothRunning.countDown();
+                await(release);
+            });
+        }
+
+        assertTrue(bothRunning.await(5, TimeUnit.SECONDS));
+        assertEquals(2, executor.getBusyLanes());
+        release.countDown();
+    }
+
+    @Test
+    void testExecute_RejectsWhenLaneIsFull() throws InterruptedException {
+        StripedExecutor executor = new StripedExecutor(1, 2, backing);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        executor.execute("A", () -> {
+            started.countDown();
+            await(release);
+        });
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        executor.execute("A", () -> { });
+
+        assertThrows(RejectedExecutionException.class, () -> executor.execute("A", () -> { }));
+        assertEquals(2, executor.getQueuedTasks());
+        release.countDown();
+    }
+
+    @Test
+    void testExecute_FailingTaskDoesNotStallLane() throws InterruptedException {
+        StripedExecutor executor = new StripedExecutor(1, 10, backing);
+        CountDownLatch done = new CountDownLatch(1);
+
+        executor.execute("A", () -> {
+            throw new IllegalStateException("boom");
+        });
+        executor.execute("A", done::countDown);
+
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testExecuteAsync_LaneWaitsForStageWithoutHoldingThread() throws InterruptedException {
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        try {
+            StripedExecutor executor = new StripedExecutor(8, 10, single);
+            CompletableFuture<Void> pending = new CompletableFuture<>();
+            CountDownLatch otherLane = new CountDownLatch(1);
+            CountDownLatch sameLane = new CountDownLatch(1);
+
+            executor.executeAsync("A", () -> pending);
+            executor.execute("A", sameLane::countDown);
+            executor.execute("B", otherLane::countDown);
+
+            // The only thread is free for lane B while A waits on its stage
+            assertTrue(otherLane.await(5, TimeUnit.SECONDS));
+            assertFalse(sameLane.await(50, TimeUnit.MILLISECONDS));
+            assertEquals(2, executor.getQueuedTasks());
+
+            pending.complete(null);
+            assertTrue(sameLane.await(5, TimeUnit.SECONDS));
+        } finally {
+            single.shutdownNow();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
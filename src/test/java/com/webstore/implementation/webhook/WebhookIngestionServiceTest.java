@@ -0,0 +1,302 @@
+package com.webstore.implementation.webhook;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.service.whatsapp.core.InteractionExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+class WebhookIngestionServiceTest {
+
+    @Mock
+    private WebhookValidator webhookValidator;
+
+    @TempDir
+    Path journalDir;
+
+    private WhatsAppConfiguration config;
+    private SimpleMeterRegistry meterRegistry;
+    private WebhookJournal journal;
+    private WebhookIngestionService ingestionService;
+    private byte[] payload;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        config = new WhatsAppConfiguration();
+        config.getWebhook().getIngestion().setWorkerThreads(2);
+        config.getWebhook().getIngestion().setStripes(4);
+        config.getWebhook().getIngestion().setLaneCapacity(2);
+
+        meterRegistry = new SimpleMeterRegistry();
+        journal = openJournal();
+        ingestionService = newIngestionService(journal);
+
+        payload = webhook(textMessage("919999999999", "wamid.1", "hi"));
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        ingestionService.shutdown();
+        journal.close();
+    }
+
+    @Test
+    void testSubmit_ProcessesOnWorkerThread() throws InterruptedException {
+        CountDownLatch processed = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            processed.countDown();
+            return CompletableFuture.completedFuture(null);
+        }).when(webhookValidator).dispatch(any());
+
+        assertTrue(ingestionService.submit(payload));
+        assertTrue(processed.await(5, TimeUnit.SECONDS));
+        assertEquals(1.0, meterRegistry.counter("whatsapp.webhook.accepted").count());
+    }
+
+    @Test
+    void testSubmit_PayloadWithoutMessagesIsAcknowledgedButNotQueued() {
+        assertTrue(ingestionService.submit(webhook()));
+        verify(webhookValidator, never()).dispatch(any());
+        assertEquals(0.0, meterRegistry.counter("whatsapp.webhook.accepted").count());
+    }
+
+    @Test
+    void testSubmit_StatusCallbacksAreCountedWithoutDispatch() {
+        byte[] statuses = """
+                {"entry":[{"changes":[{"value":{"metadata":{"phone_number_id":"123"},"statuses":[
+                  {"id":"wamid.9","status":"sent","timestamp":"1700000000","recipient_id":"A"},
+                  {"id":"wamid.9","status":"delivered","timestamp":"1700000002","recipient_id":"A"}]}}]}]}
+                """.getBytes(StandardCharsets.UTF_8);
+
+        assertTrue(ingestionService.submit(statuses));
+
+        verify(webhookValidator, never()).dispatch(any());
+        assertEquals(1.0, meterRegistry.get("whatsapp.status.callbacks")
+                .tag("phone_number_id", "123").tag("status", "delivered").functionCounter().count());
+        assertEquals(1, meterRegistry.get("whatsapp.delivery.latency").timer().count());
+    }
+
+    @Test
+    void testSubmit_MalformedPayloadIsRefused() {
+        byte[] truncated = "{\"entry\":[{\"changes\":[".getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> ingestionService.submit(truncated));
+        verify(webhookValidator, never()).dispatch(any());
+        assertEquals(1.0, meterRegistry.counter("whatsapp.webhook.invalid").count());
+    }
+
+    @Test
+    void testSubmit_RejectsWhenSenderLaneIsFull() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return CompletableFuture.completedFuture(null);
+        }).when(webhookValidator).dispatch(any());
+
+        assertTrue(ingestionService.submit(payload));   // running on the sender's lane
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        assertTrue(ingestionService.submit(payload));   // fills the lane
+        assertFalse(ingestionService.submit(payload));  // rejected
+
+        assertEquals(1.0, meterRegistry.counter("whatsapp.webhook.rejected").count());
+        release.countDown();
+    }
+
+    @Test
+    void testSubmit_DropsRedeliveredMessage() throws InterruptedException {
+        CountDownLatch processed = new CountDownLatch(2);
+        doAnswer(invocation -> {
+            processed.countDown();
+            return CompletableFuture.completedFuture(null);
+        }).when(webhookValidator).dispatch(any());
+
+        assertTrue(ingestionService.submit(payload));
+        assertTrue(ingestionService.submit(payload));
+
+        assertFalse(processed.await(500, TimeUnit.MILLISECONDS));
+        verify(webhookValidator, times(1)).dispatch(any());
+        assertEquals(1.0, meterRegistry.counter("whatsapp.webhook.duplicate").count());
+    }
+
+    @Test
+    void testSubmit_KeepsSenderOrderAcrossBatch() throws InterruptedException {
+        List<String> seenForA = new CopyOnWriteArrayList<>();
+        CountDownLatch processed = new CountDownLatch(3);
+
+        doAnswer(invocation -> {
+            InboundMessage m = invocation.getArgument(0);
+            if ("A".equals(m.getFrom())) {
+                seenForA.add(m.getMessageId());
+            }
+            processed.countDown();
+            return CompletableFuture.completedFuture(null);
+        }).when(webhookValidator).dispatch(any());
+
+        assertTrue(ingestionService.submit(webhook(textMessage("A", "wamid.1", "hi"),
+                textMessage("B", "wamid.2", "hi"), textMessage("A", "wamid.3", "cart"))));
+        assertTrue(processed.await(5, TimeUnit.SECONDS));
+        assertEquals(List.of("wamid.1", "wamid.3"), seenForA);
+    }
+
+    @Test
+    void testSubmit_SenderWaitsForRepliesWithoutHoldingAWorker() throws InterruptedException {
+        CompletableFuture<Void> repliesToA = new CompletableFuture<>();
+        CountDownLatch releaseB = new CountDownLatch(1);
+        CountDownLatch processedC = new CountDownLatch(1);
+        CountDownLatch secondForA = new CountDownLatch(1);
+        List<String> seenForA = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+            InboundMessage message = invocation.getArgument(0);
+            switch (message.getFrom()) {
+                case "A" -> {
+                    seenForA.add(message.getMessageId());
+                    if (seenForA.size() == 1) {
+                        return repliesToA;
+                    }
+                    secondForA.countDown();
+                }
+                case "B" -> releaseB.await();
+                default -> processedC.countDown();
+            }
+            return CompletableFuture.completedFuture(null);
+        }).when(webhookValidator).dispatch(any());
+
+        try {
+            assertTrue(ingestionService.submit(webhook(textMessage("A", "wamid.1", "hi"),
+                    textMessage("A", "wamid.2", "cart"), textMessage("B", "wamid.3", "hi"),
+                    textMessage("C", "wamid.4", "hi"))));
+
+            // Two workers and B holds one: C only runs if A gave its worker back while its replies are outstanding
+            assertTrue(processedC.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of("wamid.1"), seenForA);
+
+            repliesToA.complete(null);
+            assertTrue(secondForA.await(5, TimeUnit.SECONDS));
+            assertEquals(List.of("wamid.1", "wamid.2"), seenForA);
+        } finally {
+            releaseB.countDown();
+        }
+    }
+
+    @Test
+    void testReplayJournal_DispatchesMessagesLeftByPreviousRun() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return CompletableFuture.completedFuture(null);
+        }).when(webhookValidator).dispatch(any());
+
+        // The first message is stuck in its handler and the second is queued behind it when the process "dies"
+        assertTrue(ingestionService.submit(webhook(textMessage("A", "wamid.1", "hi"), textMessage("A", "wamid.2", "cart"))));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        journal.close();
+
+        WebhookJournal reopened = openJournal();
+        WebhookValidator restartedValidator = mock(WebhookValidator.class);
+        when(restartedValidator.dispatch(any())).thenReturn(CompletableFuture.completedFuture(null));
+        WebhookIngestionService restarted = new WebhookIngestionService(config,
+                new WebhookPayloadParser(new ObjectMapper()), restartedValidator,
+                new InMemoryMessageDeduplicationStore(config), new DeliveryStatusTracker(config, meterRegistry),
+                reopened, new InteractionExecutor(config), new SimpleMeterRegistry());
+        try {
+            restarted.replayJournal();
+
+            verify(restartedValidator, times(2)).dispatch(any());
+            assertTrue(reopened.drainRecovered().isEmpty());
+        } finally {
+            release.countDown();
+            restarted.shutdown();
+            reopened.close();
+        }
+    }
+
+    @Test
+    void testReplayJournal_DispatchesMessagesAlreadyMarkedInSharedStore() throws InterruptedException {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return CompletableFuture.completedFuture(null);
+        }).when(webhookValidator).dispatch(any());
+
+        assertTrue(ingestionService.submit(webhook(textMessage("A", "wamid.1", "hi"))));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        journal.close();
+
+        // processed_message already holds the id the crashed run committed: the insert touches no rows
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        when(jdbcTemplate.update(anyString(), any(Object[].class))).thenReturn(0);
+        JdbcMessageDeduplicationStore sharedStore = new JdbcMessageDeduplicationStore(jdbcTemplate, config);
+        WebhookJournal reopened = openJournal();
+        WebhookValidator restartedValidator = mock(WebhookValidator.class);
+        when(restartedValidator.dispatch(any())).thenReturn(CompletableFuture.completedFuture(null));
+        SimpleMeterRegistry restartedRegistry = new SimpleMeterRegistry();
+        WebhookIngestionService restarted = new WebhookIngestionService(config,
+                new WebhookPayloadParser(new ObjectMapper()), restartedValidator, sharedStore,
+                new DeliveryStatusTracker(config, restartedRegistry), reopened, new InteractionExecutor(config),
+                restartedRegistry);
+        try {
+            restarted.replayJournal();
+
+            verify(restartedValidator, times(1)).dispatch(any());
+            verify(jdbcTemplate).update(anyString(), any(Object[].class));
+            assertEquals(0.0, restartedRegistry.counter("whatsapp.webhook.duplicate").count());
+            assertTrue(reopened.drainRecovered().isEmpty());
+        } finally {
+            release.countDown();
+            restarted.shutdown();
+            reopened.close();
+        }
+    }
+
+    private WebhookJournal openJournal() {
+        return new WebhookJournal(true, journalDir, 64 * 1024, Duration.ofMillis(10), 256);
+    }
+
+    private WebhookIngestionService newIngestionService(WebhookJournal journal) {
+        return new WebhookIngestionService(config, new WebhookPayloadParser(new ObjectMapper()),
+                webhookValidator, new InMemoryMessageDeduplicationStore(config),
+                new DeliveryStatusTracker(config, meterRegistry), journal,
+                new InteractionExecutor(config), meterRegistry);
+    }
+
+    private static byte[] webhook(String... messages) {
+        String json = "{\"object\":\"whatsapp_business_account\",\"entry\":[{\"id\":\"waba\",\"changes\":[{"
+                + "\"field\":\"messages\",\"value\":{\"messaging_product\":\"whatsapp\","
+                + "\"metadata\":{\"display_phone_number\":\"15550000000\",\"phone_number_id\":\"123\"},"
+                + "\"messages\":[" + String.join(",", messages) + "]}}]}]}";
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String textMessage(String from, String id, String body) {
+        return "{\"from\":\"" + from + "\",\"id\":\"" + id + "\",\"timestamp\":\"1700000000\","
+                + "\"type\":\"text\",\"text\":{\"body\":\"" + body + "\"}}";
+    }
+}
@@ -0,0 +1,122 @@
+package com.webstore.implementation.webhook;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookJournalTest {
+
+    private static final int SEGMENT_SIZE = 1024;
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testRecover_ReturnsOnlyUncommittedMessagesInOrder() {
+        WebhookJournal journal = open();
+        long first = journal.append(message("wamid.1", "hi"));
+        journal.append(message("wamid.2", null));
+        journal.append(message("wamid.3", "cart"));
+        journal.commit(first);
+        journal.close();
+
+        WebhookJournal reopened = open();
+        List<WebhookJournal.Entry> entries = reopened.drainRecovered();
+
+        assertEquals(List.of("wamid.2", "wamid.3"),
+                entries.stream().map(entry -> entry.getMessage().getMessageId()).toList());
+        InboundMessage recovered = entries.get(0).getMessage();
+        assertEquals("111", recovered.getPhoneNumberId());
+        assertEquals("919999999999", recovered.getFrom());
+        assertNull(recovered.getTextBody());
+        assertTrue(reopened.drainRecovered().isEmpty());
+        reopened.close();
+    }
+
+    @Test
+    void testCommit_DeletesRolledSegmentsOnceFullyCommitted() throws IOException {
+        WebhookJournal journal = open();
+        long[] offsets = new long[40];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = journal.append(message("wamid." + i, "hello there"));
+        }
+        assertTrue(journal.getSegmentCount() > 2);
+
+        for (long offset : offsets) {
+            journal.commit(offset);
+        }
+
+        assertEquals(1, journal.getSegmentCount());
+        assertEquals(1, segmentFiles());
+        journal.close();
+    }
+
+    @Test
+    void testRecover_StopsAtTornRecord() throws IOException {
+        WebhookJournal journal = open();
+        journal.append(message("wamid.1", "hi"));
+        long second = journal.append(message("wamid.2", "cart"));
+        journal.close();
+
+        // Corrupt the body of the second record as if the write had been cut short
+        try (Stream<Path> files = Files.list(directory);
+             RandomAccessFile file = new RandomAccessFile(files.findFirst().orElseThrow().toFile(), "rw")) {
+            file.seek(second + 14);
+            file.write(0x7f);
+        }
+
+        WebhookJournal reopened = open();
+        List<WebhookJournal.Entry> entries = reopened.drainRecovered();
+        assertEquals(1, entries.size());
+        assertEquals("wamid.1", entries.get(0).getMessage().getMessageId());
+        reopened.close();
+    }
+
+    @Test
+    void testAppend_ContinuesAfterRecoveredSegments() {
+        WebhookJournal journal = open();
+        long before = journal.append(message("wamid.1", "hi"));
+        journal.close();
+
+        WebhookJournal reopened = open();
+        long after = reopened.append(message("wamid.2", "hi"));
+        assertTrue(after > before);
+
+        reopened.drainRecovered().forEach(entry -> reopened.commit(entry.getOffset()));
+        reopened.commit(after);
+        assertEquals(1, reopened.getSegmentCount());
+        reopened.close();
+    }
+
+    @Test
+    void testAppend_DisabledJournalWritesNothing() throws IOException {
+        WebhookJournal journal = new WebhookJournal(false, directory, SEGMENT_SIZE, Duration.ZERO, 1);
+
+        assertEquals(WebhookJournal.NOT_JOURNALED, journal.append(message("wamid.1", "hi")));
+        journal.commit(WebhookJournal.NOT_JOURNALED);
+        assertEquals(0, segmentFiles());
+    }
+
+    private WebhookJournal open() {
+        return new WebhookJournal(true, directory, SEGMENT_SIZE, Duration.ofMillis(5), 16);
+    }
+
+    private long segmentFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.count();
+        }
+    }
+
+    private static InboundMessage message(String id, String text) {
+        return new InboundMessage("111", "919999999999", id, "text", text, null, null);
+    }
+}
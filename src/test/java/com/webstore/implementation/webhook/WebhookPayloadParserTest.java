@@ -0,0 +1,139 @@
+package com.webstore.implementation.webhook;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookPayloadParserTest {
+
+    private WebhookPayloadParser parser;
+
+    @BeforeEach
+    void setUp() {
+        parser = new WebhookPayloadParser(new ObjectMapper());
+    }
+
+    @Test
+    void testParse_ExtractsTextMessage() throws IOException {
+        List<InboundMessage> messages = parser.parse(bytes("""
+                {"object":"whatsapp_business_account","entry":[{"id":"waba","changes":[{"field":"messages","value":{
+                  "messaging_product":"whatsapp",
+                  "metadata":{"display_phone_number":"15550000000","phone_number_id":"111"},
+                  "contacts":[{"profile":{"name":"Asha"},"wa_id":"919999999999"}],
+                  "messages":[{"from":"919999999999","id":"wamid.1","timestamp":"1700000000",
+                               "type":"text","text":{"body":"hi"}}]}}]}]}
+                """)).getMessages();
+
+        assertEquals(1, messages.size());
+        InboundMessage message = messages.get(0);
+        assertEquals("111", message.getPhoneNumberId());
+        assertEquals("919999999999", message.getFrom());
+        assertEquals("wamid.1", message.getMessageId());
+        assertEquals("text", message.getType());
+        assertEquals("hi", message.getTextBody());
+        assertNull(message.getReplyId());
+    }
+
+    @Test
+    void testParse_ExtractsButtonAndListReplyIds() throws IOException {
+        List<InboundMessage> messages = parser.parse(bytes("""
+                {"entry":[{"changes":[{"value":{"metadata":{"phone_number_id":"111"},"messages":[
+                  {"from":"A","id":"wamid.1","type":"interactive",
+                   "interactive":{"type":"button_reply","button_reply":{"id":"welcome_hi","title":"Hi"}}},
+                  {"from":"A","id":"wamid.2","type":"interactive",
+                   "interactive":{"type":"list_reply","list_reply":{"id":"cat_1","title":"Shoes","description":"x"}}}
+                ]}}]}]}
+                """)).getMessages();
+
+        assertEquals(2, messages.size());
+        assertEquals("button_reply", messages.get(0).getInteractiveType());
+        assertEquals("welcome_hi", messages.get(0).getReplyId());
+        assertEquals("list_reply", messages.get(1).getInteractiveType());
+        assertEquals("cat_1", messages.get(1).getReplyId());
+    }
+
+    @Test
+    void testParse_WalksEveryEntryAndChangeInOrder() throws IOException {
+        List<InboundMessage> messages = parser.parse(bytes("""
+                {"entry":[
+                  {"changes":[{"value":{"metadata":{"phone_number_id":"111"},"messages":[
+                    {"from":"A","id":"wamid.1","type":"text","text":{"body":"hi"}},
+                    {"from":"B","id":"wamid.2","type":"text","text":{"body":"menu"}}]}}]},
+                  {"changes":[{"value":{"metadata":{"phone_number_id":"222"},"messages":[
+                    {"from":"A","id":"wamid.3","type":"text","text":{"body":"cart"}}]}}]}
+                ]}
+                """)).getMessages();
+
+        assertEquals(List.of("wamid.1", "wamid.2", "wamid.3"),
+                messages.stream().map(InboundMessage::getMessageId).toList());
+        assertEquals("111", messages.get(1).getPhoneNumberId());
+        assertEquals("222", messages.get(2).getPhoneNumberId());
+    }
+
+    @Test
+    void testParse_AttachesMetadataThatFollowsMessages() throws IOException {
+        List<InboundMessage> messages = parser.parse(bytes("""
+                {"entry":[{"changes":[{"value":{
+                  "messages":[{"from":"A","id":"wamid.1","type":"text","text":{"body":"hi"}}],
+                  "metadata":{"phone_number_id":"111"}}}]}]}
+                """)).getMessages();
+
+        assertEquals("111", messages.get(0).getPhoneNumberId());
+    }
+
+    @Test
+    void testParse_ExtractsStatusCallbacks() throws IOException {
+        WebhookBatch batch = parser.parse(bytes("""
+                {"entry":[{"changes":[{"value":{"metadata":{"phone_number_id":"111"},
+                  "statuses":[{"id":"wamid.9","status":"delivered","timestamp":"1700000005","recipient_id":"A",
+                               "conversation":{"id":"c1","origin":{"type":"service"}},
+                               "pricing":{"billable":true,"category":"service"}}]}}]}]}
+                """));
+
+        assertTrue(batch.getMessages().isEmpty());
+        assertEquals(1, batch.getStatuses().size());
+        InboundStatus status = batch.getStatuses().get(0);
+        assertEquals("111", status.getPhoneNumberId());
+        assertEquals("wamid.9", status.getMessageId());
+        assertEquals("delivered", status.getStatus());
+        assertEquals("A", status.getRecipientId());
+        assertEquals(1700000005L, status.getTimestamp());
+    }
+
+    @Test
+    void testParse_SkipsUnknownFieldsAndEmptyPayloads() throws IOException {
+        assertTrue(parser.parse(bytes("""
+                {"entry":[{"changes":[{"value":{"metadata":{"phone_number_id":"111"},
+                  "extra":[1,[2,3],{"messages":[]}]}}]}]}
+                """)).isEmpty());
+        assertTrue(parser.parse(bytes("{}")).isEmpty());
+    }
+
+    @Test
+    void testParse_DropsMessagesWithoutSender() throws IOException {
+        List<InboundMessage> messages = parser.parse(bytes("""
+                {"entry":[{"changes":[{"value":{"messages":[{"id":"wamid.1","type":"text"},null,
+                  {"from":"A","id":"wamid.2","type":"text","text":{"body":"hi"}}]}}]}]}
+                """)).getMessages();
+
+        assertEquals(1, messages.size());
+        assertEquals("wamid.2", messages.get(0).getMessageId());
+    }
+
+    @Test
+    void testParse_RejectsMalformedJson() {
+        assertThrows(JsonProcessingException.class,
+                () -> parser.parse(bytes("{\"entry\":[{\"changes\":[{\"value\":{")));
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,45 @@
+package com.webstore.implementation.webhook;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WebhookPayloadSanitizerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void testSanitize_ReplacesCustomerDataButKeepsRouting() throws Exception {
+        JsonNode tree = objectMapper.readTree("""
+                {"entry":[{"changes":[{"value":{
+                  "metadata":{"display_phone_number":"15550783881","phone_number_id":"106540352242922"},
+                  "contacts":[{"profile":{"name":"Asha Rao"},"wa_id":"919812345678"}],
+                  "messages":[
+                    {"from":"919812345678","id":"wamid.1","type":"text",
+                     "text":{"body":"call me on 9812345678 or asha@mail.com"}},
+                    {"from":"919812345678","id":"wamid.2","type":"interactive",
+                     "interactive":{"type":"list_reply","list_reply":{"id":"cat_1","title":"Shoes"}}}]}}]}]}
+                """);
+
+        WebhookPayloadSanitizer.sanitize(tree);
+
+        JsonNode value = tree.at("/entry/0/changes/0/value");
+        String fakeSender = value.at("/messages/0/from").asText();
+        assertNotEquals("919812345678", fakeSender);
+        assertTrue(fakeSender.startsWith("1555"));
+        assertEquals(fakeSender, value.at("/messages/1/from").asText());
+        assertEquals(fakeSender, value.at("/contacts/0/wa_id").asText());
+        assertEquals("Customer", value.at("/contacts/0/profile/name").asText());
+        assertEquals("call me on 00000 or user@example.com", value.at("/messages/0/text/body").asText());
+        assertEquals("106540352242922", value.at("/metadata/phone_number_id").asText());
+        assertEquals("cat_1", value.at("/messages/1/interactive/list_reply/id").asText());
+    }
+
+    @Test
+    void testMaskFreeText_KeepsShortCommands() {
+        assertEquals("hi", WebhookPayloadSanitizer.maskFreeText("hi"));
+        assertEquals("2", WebhookPayloadSanitizer.maskFreeText("2"));
+    }
+}
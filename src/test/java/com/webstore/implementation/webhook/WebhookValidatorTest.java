@@ -0,0 +1,105 @@
+package com.webstore.implementation.webhook;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.dto.request.WebhookRequestDto;
+import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
+import com.webstore.service.whatsapp.handler.impl.ButtonInteractionHandler;
+import com.webstore.service.whatsapp.handler.impl.ListInteractionHandler;
+import com.webstore.service.whatsapp.handler.impl.TextMessageHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class WebhookValidatorTest {
+
+    @Mock
+    private WhatsAppConfiguration whatsAppConfig;
+
+    @Mock
+    private ButtonInteractionHandler buttonHandler;
+
+    @Mock
+    private ListInteractionHandler listHandler;
+
+    @Mock
+    private TextMessageHandler textHandler;
+
+    @Mock
+    private WhatsAppMessageSender messageSender;
+
+    @InjectMocks
+    private WebhookValidator webhookValidator;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+    }
+
+    @Test
+    void testExtractMessages_WalksEveryEntryChangeAndMessage() {
+        WebhookRequestDto payload = new WebhookRequestDto("whatsapp_business_account", List.of(
+                entry(change("111", textMessage("A", "wamid.1", "hi"), textMessage("B", "wamid.2", "menu"))),
+                entry(change("222", buttonMessage("A", "wamid.3", "welcome_hi")))
+        ));
+
+        List<InboundMessage> messages = webhookValidator.extractMessages(payload);
+
+        assertEquals(3, messages.size());
+        assertEquals("wamid.1", messages.get(0).getMessageId());
+        assertEquals("111", messages.get(1).getPhoneNumberId());
+        assertEquals("222", messages.get(2).getPhoneNumberId());
+        assertEquals("welcome_hi", messages.get(2).getReplyId());
+    }
+
+    @Test
+    void testExtractMessages_SkipsChangesWithoutMessages() {
+        WebhookRequestDto.Value statusOnly = new WebhookRequestDto.Value("whatsapp", null, null, null);
+        WebhookRequestDto payload = new WebhookRequestDto("whatsapp_business_account",
+                List.of(entry(new WebhookRequestDto.Change(statusOnly, "messages"))));
+
+        assertTrue(webhookValidator.extractMessages(payload).isEmpty());
+    }
+
+    @Test
+    void testProcessIncomingMessage_RoutesEveryMessage() {
+        WebhookRequestDto payload = new WebhookRequestDto("whatsapp_business_account", List.of(
+                entry(change("111", textMessage("A", "wamid.1", "hi"), buttonMessage("B", "wamid.2", "cat_1")))
+        ));
+
+        webhookValidator.processIncomingMessage(payload);
+
+        verify(textHandler).handle("111", "A", "hi");
+        verify(buttonHandler).handle("111", "B", "cat_1");
+        verifyNoInteractions(listHandler);
+        verify(messageSender).whenDelivered("A");
+        verify(messageSender).whenDelivered("B");
+    }
+
+    private WebhookRequestDto.Entry entry(WebhookRequestDto.Change... changes) {
+        return new WebhookRequestDto.Entry("waba", List.of(changes));
+    }
+
+    private WebhookRequestDto.Change change(String phoneNumberId, WebhookRequestDto.Message... messages) {
+        WebhookRequestDto.Metadata metadata = new WebhookRequestDto.Metadata("15550000000", phoneNumberId);
+        return new WebhookRequestDto.Change(
+                new WebhookRequestDto.Value("whatsapp", metadata, null, List.of(messages)), "messages");
+    }
+
+    private WebhookRequestDto.Message textMessage(String from, String id, String body) {
+        return new WebhookRequestDto.Message(from, id, "1700000000", "text",
+                new WebhookRequestDto.Text(body), null);
+    }
+
+    private WebhookRequestDto.Message buttonMessage(String from, String id, String buttonId) {
+        WebhookRequestDto.Interactive interactive = new WebhookRequestDto.Interactive("button_reply",
+                new WebhookRequestDto.ButtonReply(buttonId, "title"), null);
+        return new WebhookRequestDto.Message(from, id, "1700000000", "interactive", null, interactive);
+    }
+}
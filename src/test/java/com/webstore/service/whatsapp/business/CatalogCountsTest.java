@@ -0,0 +1,74 @@
+package com.webstore.service.whatsapp.business;
+
+import com.webstore.repository.CategoryRepository;
+import com.webstore.repository.ProductRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogCountsTest {
+
+    @Mock
+    private CategoryRepository categoryRepository;
+
+    @Mock
+    private ProductRepository productRepository;
+
+    private final CatalogVersion catalogVersion = new CatalogVersion();
+    private final AtomicLong now = new AtomicLong();
+    private CatalogCounts catalogCounts;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        catalogCounts = new CatalogCounts(categoryRepository, productRepository, catalogVersion,
+                Duration.ofMinutes(5), now::get);
+    }
+
+    @Test
+    void testProductCounts_MissesLoadedInOneGroupedQuery() {
+        when(productRepository.countByCategoryIds(List.of(1, 2, 3))).thenReturn(List.of(count(1, 40L), count(3, 2L)));
+
+        Map<Integer, Long> counts = catalogCounts.productCounts(List.of(1, 2, 3));
+
+        assertEquals(Map.of(1, 40L, 2, 0L, 3, 2L), counts);
+        assertEquals(40L, catalogCounts.productCount(1));
+        verify(productRepository, times(1)).countByCategoryIds(anyCollection());
+    }
+
+    @Test
+    void testCategoryCount_CachedUntilCatalogChanges() {
+        when(categoryRepository.count()).thenReturn(12L, 13L);
+
+        assertEquals(12L, catalogCounts.categoryCount());
+        assertEquals(12L, catalogCounts.categoryCount());
+        catalogVersion.bump();
+        assertEquals(13L, catalogCounts.categoryCount());
+        verify(categoryRepository, times(2)).count();
+    }
+
+    @Test
+    void testCategoryCount_ReloadedAfterMaxAge() {
+        when(categoryRepository.count()).thenReturn(12L, 14L);
+
+        assertEquals(12L, catalogCounts.categoryCount());
+        now.addAndGet(Duration.ofMinutes(5).toNanos());
+        assertEquals(14L, catalogCounts.categoryCount());
+    }
+
+    private static ProductRepository.CategoryProductCount count(int categoryId, long productCount) {
+        ProductRepository.CategoryProductCount count = mock(ProductRepository.CategoryProductCount.class);
+        when(count.getCategoryId()).thenReturn(categoryId);
+        when(count.getProductCount()).thenReturn(productCount);
+        return count;
+    }
+}
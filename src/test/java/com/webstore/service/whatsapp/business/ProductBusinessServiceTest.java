@@ -0,0 +1,136 @@
+package com.webstore.service.whatsapp.business;
+
+import com.webstore.dto.response.CategorySummaryDto;
+import com.webstore.dto.response.ProductListingView;
+import com.webstore.entity.Currency;
+import com.webstore.entity.ProductPrice;
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.repository.ProductPriceRepository;
+import com.webstore.repository.ProductRepository;
+import com.webstore.service.ProductService;
+import com.webstore.service.whatsapp.core.InteractionExecutor;
+import com.webstore.service.whatsapp.core.TaskScope;
+import com.webstore.util.PaginationUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.data.jpa.repository.Query;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ProductBusinessServiceTest {
+
+    @Mock
+    private ProductRepository productRepository;
+
+    @Mock
+    private ProductPriceRepository productPriceRepository;
+
+    @Mock
+    private ProductService productService;
+
+    @Mock
+    private CategoryBusinessService categoryBusinessService;
+
+    private ProductBusinessService productBusinessService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        productBusinessService = new ProductBusinessService(productRepository, productPriceRepository,
+                productService, categoryBusinessService, new PaginationUtil());
+    }
+
+    @Test
+    void testGetProductListingPage_OneKeysetQueryForTheRequestedPage() {
+        ProductListingView kettle = listing(12, "Kettle", new BigDecimal("249900"), "₹");
+        when(productRepository.findProductListingsAfter(4, 11, "INR", 8)).thenReturn(List.of(kettle));
+
+        PaginationUtil.PaginationResult<ProductListingView> page = productBusinessService.getProductListingPage(
+                new CategorySummaryDto(4, "Kitchen", 8L), new PaginationUtil.PageCursor(2, 11, 0));
+
+        assertEquals(List.of(kettle), page.getItems());
+        assertEquals(2, page.getCurrentPage());
+        assertEquals(2, page.getTotalPages());
+        assertFalse(page.hasNext());
+        assertEquals("₹ 2499.00", productBusinessService.getPriceDisplay(kettle));
+        verify(productRepository).findProductListingsAfter(4, 11, "INR", 8);
+        verifyNoMoreInteractions(productRepository);
+        verifyNoInteractions(productPriceRepository);
+    }
+
+    @Test
+    void testGetPriceDisplay_ProductWithoutPrice() {
+        assertEquals("Price not available",
+                productBusinessService.getPriceDisplay(listing(12, "Kettle", null, null)));
+    }
+
+    @Test
+    void testGetProductPrices_CurrencyLoadedOnWebhookWorkerThread() throws Exception {
+        // Workers have no open-in-view session, so a lazy currency could not be loaded after the query
+        Query query = ProductPriceRepository.class.getMethod("findByProductProductId", Integer.class)
+                .getAnnotation(Query.class);
+        assertNotNull(query);
+        assertTrue(query.value().contains("JOIN FETCH pp.currency"));
+
+        when(productPriceRepository.findByProductProductId(12))
+                .thenReturn(List.of(price("USD", "$", 2999), price("INR", "₹", 249900)));
+        ExecutorService worker = Executors.newSingleThreadExecutor(task -> new Thread(task, "webhook-worker-1"));
+        try {
+            List<ProductPrice> prices = worker.submit(() -> productBusinessService.getProductPrices(12))
+                    .get(5, TimeUnit.SECONDS);
+            assertEquals("INR", prices.get(1).getCurrency().getCurrencyCode());
+        } finally {
+            worker.shutdownNow();
+        }
+    }
+
+    @Test
+    void testGetProductPriceDisplay_ForkedLookupReadsProjection() throws Exception {
+        ProductListingView kettle = listing(12, "Kettle", new BigDecimal("249900"), "₹");
+        when(productRepository.findProductListing(12, "INR")).thenReturn(Optional.of(kettle));
+        when(productRepository.findProductListing(13, "INR")).thenReturn(Optional.empty());
+
+        InteractionExecutor interactionExecutor = new InteractionExecutor(new WhatsAppConfiguration());
+        try (TaskScope scope = interactionExecutor.openScope()) {
+            TaskScope.Subtask<String> price = scope.fork(() -> productBusinessService.getProductPriceDisplay(12));
+            TaskScope.Subtask<String> missing = scope.fork(() -> productBusinessService.getProductPriceDisplay(13));
+            scope.join();
+
+            assertEquals("₹ 2499.00", price.get());
+            assertEquals("Price not available", missing.get());
+        } finally {
+            interactionExecutor.shutdown();
+        }
+        verifyNoInteractions(productPriceRepository);
+    }
+
+    private static ProductPrice price(String currencyCode, String symbol, long minorUnits) {
+        Currency currency = new Currency();
+        currency.setCurrencyCode(currencyCode);
+        currency.setCurrencySymbol(symbol);
+        ProductPrice price = new ProductPrice();
+        price.setCurrency(currency);
+        price.setPriceAmount(BigInteger.valueOf(minorUnits));
+        return price;
+    }
+
+    private static ProductListingView listing(int id, String name, BigDecimal amount, String symbol) {
+        ProductListingView listing = mock(ProductListingView.class);
+        when(listing.getProductId()).thenReturn(id);
+        when(listing.getProductName()).thenReturn(name);
+        when(listing.getPriceAmount()).thenReturn(amount);
+        when(listing.getCurrencySymbol()).thenReturn(symbol);
+        return listing;
+    }
+}
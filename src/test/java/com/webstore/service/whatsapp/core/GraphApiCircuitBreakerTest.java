@@ -0,0 +1,197 @@
+package com.webstore.service.whatsapp.core;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.exception.GraphApiUnavailableException;
+import com.webstore.util.TimerWheel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphApiCircuitBreakerTest {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(5);
+
+    private WhatsAppConfiguration.CircuitBreaker config;
+    private SimpleMeterRegistry meterRegistry;
+    private TimerWheel timerWheel;
+    private GraphApiCircuitBreaker breaker;
+
+    @BeforeEach
+    void setUp() {
+        config = new WhatsAppConfiguration.CircuitBreaker();
+        config.setWindowSize(10);
+        config.setMinimumCalls(4);
+        config.setFailureRateThreshold(50);
+        config.setOpenDuration(Duration.ofMillis(100));
+        config.setProbeCalls(2);
+        config.setParkCapacity(3);
+        meterRegistry = new SimpleMeterRegistry();
+        timerWheel = new TimerWheel("test-circuit-timer", 1, TimeUnit.MILLISECONDS, 64);
+        breaker = new GraphApiCircuitBreaker(config, timerWheel, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        timerWheel.close();
+    }
+
+    @Test
+    void testOnResult_OpensAtFailureRateThreshold() {
+        report(false, false, true);
+        assertEquals(GraphApiCircuitBreaker.State.CLOSED, breaker.getState());
+
+        report(true);
+
+        assertEquals(GraphApiCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(1.0, meterRegistry.get("whatsapp.graph.circuit.state").tag("state", "open").gauge().value());
+        assertEquals(1.0, meterRegistry.get("whatsapp.graph.circuit.transitions").tag("state", "open").counter().count());
+    }
+
+    @Test
+    void testOnResult_SlowCallsCountAsFailures() {
+        config.setSlowCallThreshold(Duration.ofMillis(100));
+        breaker = new GraphApiCircuitBreaker(config, timerWheel, new SimpleMeterRegistry());
+        for (int i = 0; i < 4; i++) {
+            Recording call = submit();
+            breaker.onResult(call.epochs.peek(), false, TimeUnit.SECONDS.toNanos(1));
+        }
+
+        assertEquals(GraphApiCircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void testSubmit_ParksWhileOpenThenReleasesInOrderAfterProbes() {
+        open();
+        Recording first = submit();
+        Recording second = submit();
+        Recording third = submit();
+        assertTrue(first.epochs.isEmpty());
+        assertEquals(3.0, meterRegistry.get("whatsapp.graph.circuit.parked").gauge().value());
+
+        // Half-open lets the first two through as probes
+        await(() -> first.epochs.size() == 1 && second.epochs.size() == 1);
+        assertEquals(GraphApiCircuitBreaker.State.HALF_OPEN, breaker.getState());
+        assertTrue(third.epochs.isEmpty());
+
+        breaker.onResult(first.epochs.peek(), false, FAST);
+        breaker.onResult(second.epochs.peek(), false, FAST);
+
+        assertEquals(GraphApiCircuitBreaker.State.CLOSED, breaker.getState());
+        assertEquals(1, third.epochs.size());
+        assertEquals(0, breaker.getParkedCount());
+        assertEquals(0, breaker.getFailureRate());
+    }
+
+    @Test
+    void testOnResult_FailedProbeOpensAgain() {
+        open();
+        Recording probe = submit();
+        await(() -> probe.epochs.size() == 1);
+
+        breaker.onResult(probe.epochs.peek(), true, FAST);
+
+        assertEquals(GraphApiCircuitBreaker.State.OPEN, breaker.getState());
+        assertEquals(2.0, meterRegistry.get("whatsapp.graph.circuit.transitions").tag("state", "open").counter().count());
+    }
+
+    @Test
+    void testOnResult_IgnoresOutcomesFromEarlierEpoch() {
+        Recording slow = submit();
+        open();
+        Recording probe = submit();
+        await(() -> probe.epochs.size() == 1);
+
+        breaker.onResult(slow.epochs.peek(), false, FAST);
+        breaker.onResult(slow.epochs.peek(), false, FAST);
+
+        assertEquals(GraphApiCircuitBreaker.State.HALF_OPEN, breaker.getState());
+    }
+
+    @Test
+    void testSubmit_RejectsWhenParkIsFull() {
+        open();
+        for (int i = 0; i < 3; i++) {
+            submit();
+        }
+
+        Recording overflow = submit();
+
+        assertInstanceOf(GraphApiUnavailableException.class, overflow.rejections.peek());
+        assertEquals(1.0, meterRegistry.get("whatsapp.graph.circuit.rejected").tag("reason", "full").counter().count());
+    }
+
+    @Test
+    void testSubmit_ParkedCallExpires() {
+        config.setOpenDuration(Duration.ofMinutes(1));
+        config.setMaxParkTime(Duration.ofMillis(10));
+        open();
+
+        Recording parked = submit();
+
+        await(() -> !parked.rejections.isEmpty());
+        assertInstanceOf(GraphApiUnavailableException.class, parked.rejections.peek());
+        assertTrue(parked.epochs.isEmpty());
+        assertEquals(0, breaker.getParkedCount());
+    }
+
+    @Test
+    void testSubmit_DisabledBreakerAlwaysProceeds() {
+        config.setEnabled(false);
+        open();
+
+        assertEquals(1, submit().epochs.size());
+        assertEquals(GraphApiCircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    private void open() {
+        report(true, true, true, true);
+    }
+
+    private void report(boolean... failures) {
+        for (boolean failure : failures) {
+            Recording call = submit();
+            if (!call.epochs.isEmpty()) {
+                breaker.onResult(call.epochs.peek(), failure, FAST);
+            }
+        }
+    }
+
+    private Recording submit() {
+        Recording call = new Recording();
+        breaker.submit(call);
+        return call;
+    }
+
+    private static void await(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(2);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met in time");
+            Thread.onSpinWait();
+        }
+    }
+
+    private static final class Recording implements GraphApiCircuitBreaker.Call {
+
+        private final Queue<Long> epochs = new ConcurrentLinkedQueue<>();
+        private final Queue<Throwable> rejections = new ConcurrentLinkedQueue<>();
+
+        @Override
+        public void proceed(long epoch) {
+            epochs.add(epoch);
+        }
+
+        @Override
+        public void reject(Throwable cause) {
+            rejections.add(cause);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.webstore.service.whatsapp.core;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphApiRateLimiterTest {
+
+    private static final String PHONE = "106540352242922";
+
+    private final AtomicLong now = new AtomicLong();
+    private WhatsAppConfiguration.RateLimit config;
+    private SimpleMeterRegistry meterRegistry;
+    private GraphApiRateLimiter limiter;
+
+    @BeforeEach
+    void setUp() {
+        config = new WhatsAppConfiguration.RateLimit();
+        config.getDefaultTier().setMessagesPerSecond(10);
+        config.getDefaultTier().setBurst(5);
+        config.setMaxWait(Duration.ofSeconds(1));
+        meterRegistry = new SimpleMeterRegistry();
+        limiter = new GraphApiRateLimiter(config, meterRegistry, now::get);
+    }
+
+    @Test
+    void testReserve_BurstThenQueuesAtTierRate() {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(0, limiter.reserve(PHONE));
+        }
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(100), limiter.reserve(PHONE), 1000);
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(200), limiter.reserve(PHONE), 1000);
+        assertEquals(-2.0, limiter.getAvailableTokens(PHONE), 1e-9);
+    }
+
+    @Test
+    void testReserve_RejectsBeyondMaxWait() {
+        for (int i = 0; i < 15; i++) {
+            assertNotEquals(GraphApiRateLimiter.REJECTED, limiter.reserve(PHONE));
+        }
+
+        assertEquals(GraphApiRateLimiter.REJECTED, limiter.reserve(PHONE));
+        assertEquals(1.0, meterRegistry.get("whatsapp.graph.ratelimit.rejected").tag("phone_number_id", PHONE).counter().count());
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertNotEquals(GraphApiRateLimiter.REJECTED, limiter.reserve(PHONE));
+    }
+
+    @Test
+    void testReserve_TiersArePerPhoneNumber() {
+        WhatsAppConfiguration.Tier slow = new WhatsAppConfiguration.Tier();
+        slow.setMessagesPerSecond(1);
+        slow.setBurst(1);
+        config.getTiers().put("slow", slow);
+
+        assertEquals(0, limiter.reserve("slow"));
+        assertEquals(TimeUnit.SECONDS.toNanos(1), limiter.reserve("slow"), 1000);
+        assertEquals(0, limiter.reserve(PHONE));
+        assertEquals(10.0, limiter.getRate(PHONE));
+        assertEquals(1.0, limiter.getRate("slow"));
+    }
+
+    @Test
+    void testOnThrottled_PausesAndHalvesRateOncePerStep() {
+        limiter.onThrottled(PHONE, Duration.ofMillis(500));
+        limiter.onThrottled(PHONE, Duration.ofMillis(500));
+
+        assertEquals(5.0, limiter.getRate(PHONE));
+        // Five tokens of burst are gone and the pause is owed on top at the reduced rate
+        long wait = limiter.reserve(PHONE);
+        assertTrue(wait >= TimeUnit.MILLISECONDS.toNanos(500), "waited " + wait);
+        assertEquals(2.0, meterRegistry.get("whatsapp.graph.ratelimit.throttled").tag("phone_number_id", PHONE).counter().count());
+    }
+
+    @Test
+    void testOnThrottled_RateRecoversStepByStep() {
+        limiter.onThrottled(PHONE, Duration.ZERO);
+        assertEquals(5.0, limiter.getRate(PHONE));
+
+        now.addAndGet(config.getRecoveryStep().toNanos() * 2);
+        limiter.reserve(PHONE);
+        assertEquals(7.0, limiter.getRate(PHONE), 1e-9);
+
+        now.addAndGet(config.getRecoveryStep().toNanos() * 10);
+        limiter.reserve(PHONE);
+        assertEquals(10.0, limiter.getRate(PHONE), 1e-9);
+    }
+
+    @Test
+    void testReserve_DisabledNeverWaits() {
+        config.setEnabled(false);
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(0, limiter.reserve(PHONE));
+        }
+    }
+}
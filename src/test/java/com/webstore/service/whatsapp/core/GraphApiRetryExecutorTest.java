@@ -0,0 +1,141 @@
+package com.webstore.service.whatsapp.core;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.exception.GraphApiException;
+import com.webstore.exception.GraphApiUnavailableException;
+import com.webstore.util.TimerWheel;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphApiRetryExecutorTest {
+
+    private WhatsAppConfiguration.Retry config;
+    private SimpleMeterRegistry meterRegistry;
+    private TimerWheel timerWheel;
+    private GraphApiRetryExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        config = new WhatsAppConfiguration.Retry();
+        config.setInitialBackoff(Duration.ofMillis(4));
+        config.setMaxBackoff(Duration.ofMillis(20));
+        meterRegistry = new SimpleMeterRegistry();
+        timerWheel = new TimerWheel("test-retry-timer", 1, TimeUnit.MILLISECONDS, 64);
+        executor = new GraphApiRetryExecutor(config, timerWheel, meterRegistry, () -> 1.0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+        timerWheel.close();
+    }
+
+    @Test
+    void testExecute_RetriesUntilSuccess() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor.execute("Text message", () -> attempts.incrementAndGet() < 3
+                ? CompletableFuture.<String>failedFuture(new GraphApiException(500, "{}"))
+                : CompletableFuture.completedFuture("ok")).join();
+
+        assertEquals("ok", result);
+        assertEquals(3, attempts.get());
+        assertEquals(2.0, meterRegistry.get("whatsapp.graph.retries").tag("reason", "500").counter().count());
+    }
+
+    @Test
+    void testExecute_PermanentFailureIsNotRetried() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        CompletionException e = assertThrows(CompletionException.class, () -> executor.execute("Text message",
+                () -> {
+                    attempts.incrementAndGet();
+                    return CompletableFuture.<String>failedFuture(new GraphApiException(400, "{}"));
+                }).join());
+
+        assertEquals(400, ((GraphApiException) e.getCause()).getStatusCode());
+        assertEquals(1, attempts.get());
+        assertEquals(1.0, meterRegistry.get("whatsapp.graph.giveups")
+                .tags("message_type", "Text message", "reason", "permanent").counter().count());
+    }
+
+    @Test
+    void testExecute_GivesUpAfterMaxAttempts() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(CompletionException.class, () -> executor.execute("Product list", () -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.<String>failedFuture(new SocketTimeoutException("timeout"));
+        }).join());
+
+        assertEquals(config.getMaxAttempts(), attempts.get());
+        assertEquals(3.0, meterRegistry.get("whatsapp.graph.retries").tag("reason", "timeout").counter().count());
+        assertEquals(1.0, meterRegistry.get("whatsapp.graph.giveups").tag("reason", "exhausted").counter().count());
+    }
+
+    @Test
+    void testExecute_StopsAtMaxTotalDelay() {
+        config.setMaxTotalDelay(Duration.ofMillis(10));
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(CompletionException.class, () -> executor.execute("Text message", () -> {
+            attempts.incrementAndGet();
+            return CompletableFuture.<String>failedFuture(new GraphApiException(503, "{}"));
+        }).join());
+
+        // The first 4 ms backoff fits in 10 ms; the 8 ms one after it would not
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void testShutdown_FailsWaitingRetries() {
+        config.setInitialBackoff(Duration.ofSeconds(30));
+        config.setMaxBackoff(Duration.ofSeconds(30));
+        config.setMaxTotalDelay(Duration.ofMinutes(5));
+
+        CompletableFuture<String> result = executor.execute("Text message",
+                () -> CompletableFuture.failedFuture(new GraphApiException(502, "{}")));
+        executor.shutdown();
+
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertEquals(502, ((GraphApiException) e.getCause()).getStatusCode());
+    }
+
+    @Test
+    void testBackoff_GrowsExponentiallyWithinCap() {
+        GraphApiRetryExecutor halfJitter = new GraphApiRetryExecutor(config, timerWheel, new SimpleMeterRegistry(), () -> 0.0);
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(2), halfJitter.backoffNanos(1));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(4), halfJitter.backoffNanos(2));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(10), halfJitter.backoffNanos(5));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(20), executor.backoffNanos(5));
+    }
+
+    @Test
+    void testIsRetryable_ClassifiesFailures() {
+        assertTrue(GraphApiRetryExecutor.isRetryable(new GraphApiException(503, "")));
+        assertTrue(GraphApiRetryExecutor.isRetryable(new GraphApiException(429, "")));
+        assertTrue(GraphApiRetryExecutor.isRetryable(new GraphApiException(408, "")));
+        assertTrue(GraphApiRetryExecutor.isRetryable(new IOException("connection reset")));
+        assertTrue(GraphApiRetryExecutor.isRetryable(new RejectedExecutionException("full")));
+        assertTrue(GraphApiRetryExecutor.isRetryable(new GraphApiUnavailableException("circuit open")));
+        assertFalse(GraphApiRetryExecutor.isRetryable(new GraphApiException(400, "")));
+        assertFalse(GraphApiRetryExecutor.isRetryable(new GraphApiException(401, "")));
+        assertFalse(GraphApiRetryExecutor.isRetryable(new JsonParseException(null, "bad")));
+        assertFalse(GraphApiRetryExecutor.isRetryable(new IllegalStateException()));
+    }
+}
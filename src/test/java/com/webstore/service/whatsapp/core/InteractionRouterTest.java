@@ -0,0 +1,109 @@
+package com.webstore.service.whatsapp.core;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InteractionRouterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void testRoute_MatchesPrefixesAndExactIds() {
+        Route category = new Route(Set.of(), Set.of("cat_"));
+        Route back = new Route(Set.of("back_to_products"), Set.of());
+        Route backToProduct = new Route(Set.of(), Set.of("back_to_product_"));
+        InteractionRouter<Route> router = build(List.of(category, back, backToProduct));
+
+        assertEquals(Optional.of(category), router.route("cat_3"));
+        assertEquals(Optional.of(category), router.route("cat_"));
+        assertEquals(Optional.of(back), router.route("back_to_products"));
+        assertEquals(Optional.of(backToProduct), router.route("back_to_product_12"));
+        assertEquals(Optional.empty(), router.route("back_to_product"));
+        assertEquals(Optional.empty(), router.route("back_to_productsx"));
+        assertEquals(Optional.empty(), router.route("ca"));
+    }
+
+    @Test
+    void testRoute_DoesNotDependOnStrategyOrder() {
+        Route next = new Route(Set.of(), Set.of("next_", "prev_"));
+        Route product = new Route(Set.of(), Set.of("prod_p"));
+
+        assertEquals(Optional.of(next), build(List.of(next, product)).route("next_prod_p2_cQQ"));
+        assertEquals(Optional.of(next), build(List.of(product, next)).route("next_prod_p2_cQQ"));
+    }
+
+    @Test
+    void testRoute_CountsHitsPerRoute() {
+        Route category = new Route(Set.of(), Set.of("cat_"));
+        InteractionRouter<Route> router = build(List.of(category));
+
+        router.route("cat_1");
+        router.route("cat_2");
+        router.route("unknown");
+
+        assertEquals(2.0, meterRegistry.get("whatsapp.interaction.routes")
+                .tags("handler", "button", "route", "cat_*").counter().count());
+        assertEquals(1.0, meterRegistry.get("whatsapp.interaction.routes")
+                .tags("handler", "button", "route", "none").counter().count());
+    }
+
+    @Test
+    void testBuild_RejectsNestedPrefixes() {
+        List<Route> routes = List.of(new Route(Set.of(), Set.of("cat_")), new Route(Set.of(), Set.of("cat_page_")));
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> build(routes));
+
+        assertTrue(e.getMessage().contains("cat_*"));
+        assertTrue(e.getMessage().contains("cat_page_*"));
+    }
+
+    @Test
+    void testBuild_RejectsExactIdUnderAnotherPrefix() {
+        List<Route> routes = List.of(new Route(Set.of(), Set.of("back_to_product")),
+                new Route(Set.of("back_to_products"), Set.of()));
+
+        assertThrows(IllegalStateException.class, () -> build(routes));
+    }
+
+    @Test
+    void testBuild_RejectsDuplicateExactIdsAndEmptyStrategies() {
+        assertThrows(IllegalStateException.class, () -> build(List.of(
+                new Route(Set.of("back_to_categories"), Set.of()), new Route(Set.of("back_to_categories"), Set.of()))));
+        assertThrows(IllegalStateException.class, () -> build(List.of(new Route(Set.of(), Set.of()))));
+    }
+
+    private InteractionRouter<Route> build(List<Route> strategies) {
+        return InteractionRouter.build("button", strategies, Route::exactIds, Route::prefixes, meterRegistry);
+    }
+
+    // Identity matters, so a class rather than a record
+    private static final class Route {
+        private final Set<String> exactIds;
+        private final Set<String> prefixes;
+
+        Route(Set<String> exactIds, Set<String> prefixes) {
+            this.exactIds = exactIds;
+            this.prefixes = prefixes;
+        }
+
+        Set<String> exactIds() {
+            return exactIds;
+        }
+
+        Set<String> prefixes() {
+            return prefixes;
+        }
+    }
+}
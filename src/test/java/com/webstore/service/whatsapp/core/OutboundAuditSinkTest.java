@@ -0,0 +1,150 @@
+package com.webstore.service.whatsapp.core;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.exception.GraphApiException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundAuditSinkTest {
+
+    @TempDir
+    Path directory;
+
+    private WhatsAppConfiguration.Audit config;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundAuditSink sink;
+    private double nextRandom;
+
+    @BeforeEach
+    void setUp() {
+        config = new WhatsAppConfiguration.Audit();
+        config.setCapacity(4);
+        config.setMaxPayloadSize(DataSize.ofBytes(16));
+        config.setDirectory(directory.toString());
+        config.setFlushInterval(Duration.ofHours(1));
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (sink != null) {
+            sink.close();
+        }
+    }
+
+    @Test
+    void testFindByRecipient_NewestFirst() {
+        sink = newSink();
+        sink.record("919812345678", "Text message", bytes("{\"n\":1}"), sent("wamid.1"), null);
+        sink.record("447700900123", "Text message", bytes("{\"n\":2}"), sent("wamid.2"), null);
+        sink.record("919812345678", "Text message", bytes("{\"n\":3}"), null, new GraphApiException(503, "{}"));
+
+        List<OutboundAuditRecord> records = sink.findByRecipient("919812345678", 10);
+
+        assertEquals(2, records.size());
+        assertEquals(503, records.get(0).getStatus());
+        assertEquals("GraphApiException", records.get(0).getError());
+        assertEquals("wamid.1", records.get(1).getMessageId());
+        assertEquals("{\"n\":2}", sink.findByMessageId("wamid.2").orElseThrow().getPayloadText());
+    }
+
+    @Test
+    void testRecord_OverwritesOldestBeyondCapacity() {
+        sink = newSink();
+        for (int i = 0; i < 6; i++) {
+            sink.record("919812345678", "Text message", bytes("{}"), sent("wamid." + i), null);
+        }
+
+        assertTrue(sink.findByMessageId("wamid.1").isEmpty());
+        assertTrue(sink.findByMessageId("wamid.2").isPresent());
+        assertEquals(4, sink.findByRecipient("919812345678", 10).size());
+    }
+
+    @Test
+    void testRecord_TruncatesLargePayload() {
+        sink = newSink();
+        sink.record("919812345678", "Category list", bytes("{\"body\":\"0123456789abcdef\"}"), sent("wamid.1"), null);
+
+        OutboundAuditRecord record = sink.findByMessageId("wamid.1").orElseThrow();
+        assertTrue(record.isTruncated());
+        assertEquals(16, record.getPayload().length);
+    }
+
+    @Test
+    void testRecord_SamplesSuccessesButKeepsFailures() {
+        config.setSampleRate(0.1);
+        nextRandom = 0.5;
+        sink = newSink();
+
+        sink.record("919812345678", "Text message", bytes("{}"), sent("wamid.1"), null);
+        sink.record("919812345678", "Text message", bytes("{}"), null, new GraphApiException(400, "{}"));
+
+        assertEquals(1, sink.findByRecipient("919812345678", 10).size());
+        assertEquals(1.0, meterRegistry.get("whatsapp.audit.records").tag("result", "sampled_out").counter().count());
+    }
+
+    @Test
+    void testDrain_WritesRollingFiles() throws IOException {
+        config.setFileEnabled(true);
+        config.setSegmentSize(DataSize.ofBytes(1));
+        config.setMaxSegments(2);
+        sink = newSink();
+
+        for (int i = 0; i < 3; i++) {
+            sink.record("919812345678", "Text message", bytes("{\"n\":" + i + "}"), sent("wamid." + i), null);
+        }
+        sink.drain();
+
+        List<Path> segments = segments();
+        assertEquals(2, segments.size());
+        List<OutboundAuditRecord> last = OutboundAuditSink.read(segments.get(1));
+        assertEquals(1, last.size());
+        assertEquals("wamid.2", last.get(0).getMessageId());
+        assertEquals("{\"n\":2}", last.get(0).getPayloadText());
+    }
+
+    @Test
+    void testDrain_CountsRecordsOverwrittenBeforeWriting() {
+        config.setFileEnabled(true);
+        sink = newSink();
+
+        for (int i = 0; i < 10; i++) {
+            sink.record("919812345678", "Text message", bytes("{}"), sent("wamid." + i), null);
+        }
+        sink.drain();
+
+        assertEquals(6.0, meterRegistry.get("whatsapp.audit.dropped").counter().count());
+    }
+
+    private OutboundAuditSink newSink() {
+        return new OutboundAuditSink(config, meterRegistry, () -> nextRandom);
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private static SendResult sent(String messageId) {
+        return new SendResult(messageId, "919812345678", "Text message");
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,129 @@
+package com.webstore.service.whatsapp.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.dto.request.WhatsAppRequestDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutboundPayloadCacheTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger builds = new AtomicInteger();
+
+    private WhatsAppConfiguration.PayloadCache config;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboundPayloadCache cache;
+
+    @BeforeEach
+    void setUp() {
+        config = new WhatsAppConfiguration.PayloadCache();
+        config.setMaxAge(Duration.ofMinutes(5));
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new OutboundPayloadCache(config, objectMapper, meterRegistry, now::get);
+    }
+
+    @Test
+    void testPayload_SplicesRecipientIntoCachedBytes() throws Exception {
+        byte[] first = cache.payload("welcome", OutboundPayloadCache.STATIC, "919812345678", welcome());
+        byte[] second = cache.payload("welcome", OutboundPayloadCache.STATIC, "447700900123", welcome());
+
+        assertEquals(1, builds.get());
+        assertArrayEquals(objectMapper.writeValueAsBytes(
+                WhatsAppRequestDto.createTextMessage("447700900123", "Welcome")), second);
+        assertEquals("919812345678", objectMapper.readTree(first).path("to").asText());
+        assertEquals(1.0, meterRegistry.get("whatsapp.payload.cache.requests").tag("result", "hit").counter().count());
+    }
+
+    @Test
+    void testPayload_EscapesRecipient() throws Exception {
+        JsonNode message = objectMapper.readTree(
+                cache.payload("welcome", OutboundPayloadCache.STATIC, "91\"98", welcome()));
+
+        assertEquals("91\"98", message.path("to").asText());
+        assertEquals("Welcome", message.path("text").path("body").asText());
+    }
+
+    @Test
+    void testPayload_RebuildsWhenVersionChanges() {
+        cache.payload("category_list_page_1", 1, "919812345678", welcome());
+        cache.payload("category_list_page_1", 1, "919812345678", welcome());
+        cache.payload("category_list_page_1", 2, "919812345678", welcome());
+
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void testPayload_RebuildsAfterMaxAge() {
+        cache.payload("welcome", OutboundPayloadCache.STATIC, "919812345678", welcome());
+        now.addAndGet(Duration.ofMinutes(5).toNanos());
+
+        cache.payload("welcome", OutboundPayloadCache.STATIC, "919812345678", welcome());
+
+        assertEquals(2, builds.get());
+    }
+
+    @Test
+    void testPayload_DoesNotCacheWhenRecipientIsRepeated() throws Exception {
+        Function<String, WhatsAppRequestDto> echo = to -> {
+            builds.incrementAndGet();
+            return WhatsAppRequestDto.createTextMessage(to, "Sent to " + to);
+        };
+
+        byte[] payload = cache.payload("echo", OutboundPayloadCache.STATIC, "919812345678", echo);
+
+        assertEquals("Sent to 919812345678", objectMapper.readTree(payload).path("text").path("body").asText());
+        assertEquals(0.0, meterRegistry.get("whatsapp.payload.cache.size").gauge().value());
+    }
+
+    @Test
+    void testPayload_EvictsOlderCatalogVersionFirstAtMaxEntries() {
+        config.setMaxEntries(2);
+
+        cache.payload("welcome", OutboundPayloadCache.STATIC, "919812345678", welcome());
+        now.addAndGet(1);
+        cache.payload("category_list_page_1", 1, "919812345678", welcome());
+        now.addAndGet(1);
+        cache.payload("category_list_page_2", 2, "919812345678", welcome());
+        cache.payload("welcome", OutboundPayloadCache.STATIC, "919812345678", welcome());
+        cache.payload("category_list_page_2", 2, "919812345678", welcome());
+
+        assertEquals(3, builds.get());
+        assertEquals(2.0, meterRegistry.get("whatsapp.payload.cache.size").gauge().value());
+    }
+
+    @Test
+    void testPayload_EvictsLeastRecentlyUsedKindAtMaxEntries() {
+        config.setMaxEntries(2);
+
+        cache.payload("category_list_page_1", 1, "919812345678", welcome());
+        now.addAndGet(1);
+        cache.payload("category_list_page_2", 1, "919812345678", welcome());
+        now.addAndGet(1);
+        cache.payload("category_list_page_1", 1, "919812345678", welcome());
+        now.addAndGet(1);
+        cache.payload("category_list_page_3", 1, "919812345678", welcome());
+        cache.payload("category_list_page_1", 1, "919812345678", welcome());
+        cache.payload("category_list_page_3", 1, "919812345678", welcome());
+
+        assertEquals(3, builds.get());
+        assertEquals(2.0, meterRegistry.get("whatsapp.payload.cache.size").gauge().value());
+    }
+
+    private Function<String, WhatsAppRequestDto> welcome() {
+        return to -> {
+            builds.incrementAndGet();
+            return WhatsAppRequestDto.createTextMessage(to, "Welcome");
+        };
+    }
+}
@@ -0,0 +1,99 @@
+package com.webstore.service.whatsapp.core;
+
+import com.webstore.exception.CategoryNotFoundException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskScopeTest {
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testJoin_RunsSubtasksInParallel() throws InterruptedException {
+        CountDownLatch bothStarted = new CountDownLatch(2);
+
+        try (TaskScope scope = new TaskScope(executor)) {
+            TaskScope.Subtask<String> first = scope.fork(() -> {
+                bothStarted.countDown();
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+                return "product";
+            });
+            TaskScope.Subtask<Integer> second = scope.fork(() -> {
+                bothStarted.countDown();
+                assertTrue(bothStarted.await(5, TimeUnit.SECONDS));
+                return 42;
+            });
+            scope.join();
+
+            assertEquals("product", first.get());
+            assertEquals(42, second.get());
+        }
+    }
+
+    @Test
+    void testJoin_RethrowsFirstFailureAndCancelsSiblings() {
+        AtomicBoolean siblingInterrupted = new AtomicBoolean();
+        CountDownLatch siblingStarted = new CountDownLatch(1);
+
+        try (TaskScope scope = new TaskScope(executor)) {
+            scope.fork(() -> {
+                siblingStarted.countDown();
+                try {
+                    Thread.sleep(10_000);
+                } catch (InterruptedException e) {
+                    siblingInterrupted.set(true);
+                }
+                return null;
+            });
+            scope.fork(() -> {
+                siblingStarted.await();
+                throw new CategoryNotFoundException("Shoes");
+            });
+
+            assertThrows(CategoryNotFoundException.class, scope::join);
+        }
+        assertTrue(waitUntil(siblingInterrupted));
+    }
+
+    @Test
+    void testGet_BeforeJoinIsRejected() {
+        try (TaskScope scope = new TaskScope(executor)) {
+            TaskScope.Subtask<String> subtask = scope.fork(() -> "x");
+            assertThrows(IllegalStateException.class, subtask::get);
+        }
+    }
+
+    @Test
+    void testJoin_WithNoSubtasksReturnsImmediately() throws InterruptedException {
+        try (TaskScope scope = new TaskScope(executor)) {
+            scope.join();
+        }
+    }
+
+    private static boolean waitUntil(AtomicBoolean flag) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!flag.get() && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        return flag.get();
+    }
+}
@@ -0,0 +1,410 @@
+package com.webstore.service.whatsapp.core;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import com.webstore.configuration.GraphApiClientConfiguration;
+import com.webstore.configuration.GraphApiHttpClientCustomizer;
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.dto.request.WhatsAppRequestDto;
+import com.webstore.exception.GraphApiException;
+import com.webstore.exception.GraphApiUnavailableException;
+import com.webstore.util.TimerWheel;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import okhttp3.OkHttpClient;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class WhatsAppMessageSenderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Queue<Received> received = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger failuresLeft = new AtomicInteger();
+    private final AtomicInteger throttlesLeft = new AtomicInteger();
+    private final AtomicInteger outagesLeft = new AtomicInteger();
+    // Holds every response while set, e.g. to show a call returned before its round trip
+    private volatile CountDownLatch gate;
+
+    private HttpServer server;
+    private SimpleMeterRegistry meterRegistry;
+    private WhatsAppConfiguration config;
+    private OkHttpClient httpClient;
+    private GraphApiRateLimiter rateLimiter;
+    private GraphApiRetryExecutor retryExecutor;
+    private TimerWheel timerWheel;
+    private OutboundAuditSink auditSink;
+    private WhatsAppMessageSender sender;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            try (exchange; InputStream body = exchange.getRequestBody()) {
+                if (gate != null) {
+                    try {
+                        gate.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                received.add(new Received(exchange.getRequestURI().getPath(),
+                        exchange.getRequestHeaders().getFirst("Authorization"), objectMapper.readTree(body)));
+                boolean throttle = throttlesLeft.getAndDecrement() > 0;
+                boolean outage = !throttle && outagesLeft.getAndDecrement() > 0;
+                boolean fail = !throttle && !outage && failuresLeft.getAndDecrement() > 0;
+                byte[] response = (throttle ? "{\"error\":{\"code\":130429}}"
+                        : outage ? "{\"error\":{\"code\":131016}}"
+                        : fail ? "{\"error\":{\"code\":131009}}" : "{\"messages\":[{\"id\":\"wamid.1\"}]}")
+                        .getBytes(StandardCharsets.UTF_8);
+                if (throttle) {
+                    exchange.getResponseHeaders().set("Retry-After", "0");
+                }
+                exchange.sendResponseHeaders(throttle ? 429 : outage ? 503 : fail ? 400 : 200, response.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(response);
+                }
+            }
+        });
+        server.start();
+
+        config = new WhatsAppConfiguration();
+        config.getApi().setGraphUrl("http://127.0.0.1:" + server.getAddress().getPort());
+        config.getApi().setVersion("v22.0");
+        config.getApi().setAccessToken("token");
+        config.getApi().getRetry().setInitialBackoff(Duration.ofMillis(10));
+
+        ObjectProvider<GraphApiHttpClientCustomizer> customizers = mock(ObjectProvider.class);
+        when(customizers.orderedStream()).thenReturn(Stream.empty());
+        meterRegistry = new SimpleMeterRegistry();
+        httpClient = new GraphApiClientConfiguration().graphApiHttpClient(config, customizers, meterRegistry);
+        rateLimiter = new GraphApiRateLimiter(config, meterRegistry);
+        timerWheel = new TimerWheel("test-graph-api-timer", 1, TimeUnit.MILLISECONDS, 64);
+        retryExecutor = new GraphApiRetryExecutor(config.getApi().getRetry(), timerWheel, meterRegistry, () -> 0.5);
+        auditSink = new OutboundAuditSink(new WhatsAppConfiguration.Audit(), meterRegistry, () -> 0.0);
+        sender = newSender(meterRegistry);
+    }
+
+    private WhatsAppMessageSender newSender(MeterRegistry registry) {
+        GraphApiCircuitBreaker circuitBreaker = new GraphApiCircuitBreaker(config.getApi().getCircuitBreaker(),
+                timerWheel, registry);
+        return new WhatsAppMessageSender(config, httpClient, objectMapper, rateLimiter, retryExecutor,
+                circuitBreaker, auditSink, registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        retryExecutor.shutdown();
+        timerWheel.close();
+        httpClient.dispatcher().executorService().shutdown();
+        httpClient.connectionPool().evictAll();
+        server.stop(0);
+    }
+
+    @Test
+    void testSendTextMessage_PostsJsonWithBearerToken() {
+        sender.sendTextMessage("106540352242922", "919812345678", "hello");
+        sender.awaitDelivery("919812345678");
+
+        Received request = received.poll();
+        assertNotNull(request);
+        assertEquals("/v22.0/106540352242922/messages", request.path());
+        assertEquals("Bearer token", request.authorization());
+        assertEquals("919812345678", request.body().path("to").asText());
+        assertEquals("hello", request.body().path("text").path("body").asText());
+    }
+
+    @Test
+    void testSendMessage_ReusesPooledConnection() {
+        for (int i = 0; i < 3; i++) {
+            sender.sendTextMessage("106540352242922", "919812345678", "hello " + i);
+        }
+        sender.awaitDelivery("919812345678");
+
+        assertEquals(3, received.size());
+        assertEquals(1.0, meterRegistry.get("whatsapp.graph.connections.opened").functionCounter().count());
+        assertEquals(3.0, meterRegistry.get("whatsapp.graph.connections.acquired").functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("whatsapp.graph.pool.connections").tag("state", "idle").gauge().value());
+    }
+
+    @Test
+    void testSendMessage_ListFailureFallsBackToText() {
+        failuresLeft.set(1);
+
+        sender.sendMessage("106540352242922",
+                WhatsAppRequestDto.createTextMessage("919812345678", "list"), "Category list");
+        sender.awaitDelivery("919812345678");
+
+        List<Received> requests = List.copyOf(received);
+        assertEquals(2, requests.size());
+        assertTrue(requests.get(1).body().path("text").path("body").asText().contains("Technical Issue"));
+    }
+
+    @Test
+    void testSendMessageAsync_CompletesWithMessageId() {
+        SendResult result = sender.sendTextMessageAsync("106540352242922", "919812345678", "hello").join();
+
+        assertEquals("wamid.1", result.getMessageId());
+        assertEquals("919812345678", result.getRecipient());
+        assertEquals(0.0, meterRegistry.get("whatsapp.graph.sends.inflight").gauge().value());
+    }
+
+    @Test
+    void testSendMessageAsync_RecordsPayloadInAuditSink() {
+        failuresLeft.set(1);
+        assertThrows(CompletionException.class,
+                () -> sender.sendTextMessageAsync("106540352242922", "919812345678", "first").join());
+
+        sender.sendTextMessageAsync("106540352242922", "919812345678", "second").join();
+
+        List<OutboundAuditRecord> records = auditSink.findByRecipient("919812345678", 10);
+        assertEquals(2, records.size());
+        assertEquals("wamid.1", records.get(0).getMessageId());
+        assertTrue(records.get(0).getPayloadText().contains("second"));
+        assertEquals(400, records.get(1).getStatus());
+        assertEquals("GraphApiException", records.get(1).getError());
+    }
+
+    @Test
+    void testSendMessageAsync_FailsWithStatusCode() {
+        failuresLeft.set(1);
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> sender.sendTextMessageAsync("106540352242922", "919812345678", "hello").join());
+
+        assertInstanceOf(GraphApiException.class, e.getCause());
+        assertEquals(400, ((GraphApiException) e.getCause()).getStatusCode());
+    }
+
+    @Test
+    void testSendMessageAsync_RejectsWhenTooManyInFlight() {
+        config.getApi().getHttp().setMaxInFlight(0);
+        WhatsAppMessageSender saturated = newSender(new SimpleMeterRegistry());
+
+        CompletableFuture<SendResult> future = saturated.sendTextMessageAsync("106540352242922", "919812345678", "hello");
+
+        CompletionException e = assertThrows(CompletionException.class, future::join);
+        assertInstanceOf(RejectedExecutionException.class, e.getCause());
+        assertTrue(received.isEmpty());
+    }
+
+    @Test
+    void testSendMessageAsync_RequeuesThrottledSendAndSlowsDown() {
+        throttlesLeft.set(1);
+
+        SendResult result = sender.sendTextMessageAsync("106540352242922", "919812345678", "hello").join();
+
+        assertEquals("wamid.1", result.getMessageId());
+        assertEquals(2, received.size());
+        assertEquals(40.0, rateLimiter.getRate("106540352242922"));
+    }
+
+    @Test
+    void testSendMessageAsync_GivesUpAfterMaxThrottleRetries() {
+        config.getApi().getRateLimit().setMaxThrottleRetries(1);
+        config.getApi().getRetry().setEnabled(false);
+        WhatsAppMessageSender impatient = newSender(new SimpleMeterRegistry());
+        throttlesLeft.set(5);
+
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> impatient.sendTextMessageAsync("106540352242922", "919812345678", "hello").join());
+
+        assertEquals(429, ((GraphApiException) e.getCause()).getStatusCode());
+        assertEquals(2, received.size());
+    }
+
+    @Test
+    void testSendMessageAsync_RetriesServerErrors() {
+        outagesLeft.set(2);
+
+        SendResult result = sender.sendTextMessageAsync("106540352242922", "919812345678", "hello").join();
+
+        assertEquals("wamid.1", result.getMessageId());
+        assertEquals(3, received.size());
+        assertEquals(2.0, meterRegistry.get("whatsapp.graph.retries")
+                .tags("message_type", "Text message", "reason", "503").counter().count());
+    }
+
+    @Test
+    void testSendMessage_ListGivesUpThenSendsFallbackOnce() {
+        outagesLeft.set(100);
+
+        sender.sendMessage("106540352242922",
+                WhatsAppRequestDto.createTextMessage("919812345678", "list"), "Category list");
+        sender.awaitDelivery("919812345678");
+
+        // Four attempts for the list, four for its fallback, and no fallback of the fallback
+        assertEquals(8, received.size());
+        assertEquals(1.0, meterRegistry.get("whatsapp.graph.giveups")
+                .tags("message_type", "Category list", "reason", "exhausted").counter().count());
+        assertEquals(1.0, meterRegistry.get("whatsapp.graph.giveups")
+                .tags("message_type", "fallback text message", "reason", "exhausted").counter().count());
+    }
+
+    @Test
+    void testSendMessageAsync_FailsFastWhileCircuitIsOpen() {
+        config.getApi().getRetry().setEnabled(false);
+        config.getApi().getCircuitBreaker().setMinimumCalls(2);
+        config.getApi().getCircuitBreaker().setParkCapacity(0);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        WhatsAppMessageSender guarded = newSender(registry);
+        outagesLeft.set(2);
+
+        for (int i = 0; i < 2; i++) {
+            assertThrows(CompletionException.class,
+                    () -> guarded.sendTextMessageAsync("106540352242922", "919812345678", "hello").join());
+        }
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> guarded.sendTextMessageAsync("106540352242922", "919812345678", "hello").join());
+
+        assertInstanceOf(GraphApiUnavailableException.class, e.getCause());
+        assertEquals(2, received.size());
+        assertEquals(1.0, registry.get("whatsapp.graph.circuit.state").tag("state", "open").gauge().value());
+        assertEquals(0.0, registry.get("whatsapp.graph.sends.inflight").gauge().value());
+    }
+
+    @Test
+    void testWhenDelivered_PendingWhileSendsAreParked() throws Exception {
+        config.getApi().getRetry().setEnabled(false);
+        config.getApi().getCircuitBreaker().setMinimumCalls(2);
+        config.getApi().getCircuitBreaker().setOpenDuration(Duration.ofHours(1));
+        config.getApi().getCircuitBreaker().setMaxParkTime(Duration.ofMillis(200));
+        WhatsAppMessageSender guarded = newSender(new SimpleMeterRegistry());
+        outagesLeft.set(2);
+        for (int i = 0; i < 2; i++) {
+            assertThrows(CompletionException.class,
+                    () -> guarded.sendTextMessageAsync("106540352242922", "919812345678", "hello").join());
+        }
+
+        guarded.sendTextMessage("106540352242922", "919812345678", "parked");
+        CompletableFuture<Void> delivered = guarded.whenDelivered("919812345678");
+
+        assertFalse(delivered.isDone());
+        // Completes, without failing, once the parked send is dropped
+        delivered.get(5, TimeUnit.SECONDS);
+        assertEquals(2, received.size());
+    }
+
+    @Test
+    void testSendInOrder_KeepsQueueOrderPerRecipient() {
+        List<CompletableFuture<SendResult>> sends = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            sends.add(sender.sendInOrder("106540352242922",
+                    WhatsAppRequestDto.createTextMessage("919812345678", "part " + i), "Text message"));
+        }
+        sends.forEach(CompletableFuture::join);
+
+        List<String> bodies = received.stream().map(request -> request.body().path("text").path("body").asText()).toList();
+        assertEquals(List.of("part 0", "part 1", "part 2", "part 3", "part 4"), bodies);
+        assertEquals(0.0, meterRegistry.get("whatsapp.graph.sends.ordered.recipients").gauge().value());
+    }
+
+    @Test
+    void testSendConfirmation_MergedIntoNextInteractiveBody() {
+        sender.sendConfirmation("106540352242922", "919812345678", "✅ Selected: Shoes");
+        sender.sendMessage("106540352242922", WhatsAppRequestDto.createButtonMessage("919812345678",
+                "Shoes", "Pick a product", null, List.of()), "Product buttons message");
+        sender.awaitDelivery("919812345678");
+
+        assertEquals(1, received.size());
+        assertEquals("✅ Selected: Shoes\n\nPick a product",
+                received.poll().body().path("interactive").path("body").path("text").asText());
+        assertEquals(1.0, meterRegistry.get("whatsapp.graph.confirmations").tag("result", "merged").counter().count());
+    }
+
+    @Test
+    void testSendConfirmation_SentAheadWhenNextMessageIsText() {
+        sender.sendConfirmation("106540352242922", "919812345678", "✅ Selected: Shoes");
+        sender.sendTextMessage("106540352242922", "919812345678", "No products found.");
+        sender.awaitDelivery("919812345678");
+
+        List<String> bodies = received.stream().map(request -> request.body().path("text").path("body").asText()).toList();
+        assertEquals(List.of("✅ Selected: Shoes", "No products found."), bodies);
+    }
+
+    @Test
+    void testSendConfirmation_SentAheadWhenBodyWouldBeTooLong() {
+        sender.sendConfirmation("106540352242922", "919812345678", "✅ Selected: Shoes");
+        sender.sendMessage("106540352242922", WhatsAppRequestDto.createButtonMessage("919812345678",
+                "Shoes", "x".repeat(1020), null, List.of()), "Product buttons message");
+        sender.awaitDelivery("919812345678");
+
+        List<Received> requests = List.copyOf(received);
+        assertEquals(2, requests.size());
+        assertEquals("✅ Selected: Shoes", requests.get(0).body().path("text").path("body").asText());
+        assertEquals(1020, requests.get(1).body().path("interactive").path("body").path("text").asText().length());
+    }
+
+    @Test
+    void testSendPayload_MergesHeldConfirmationIntoCachedBytes() throws IOException {
+        byte[] payload = objectMapper.writeValueAsBytes(WhatsAppRequestDto.createButtonMessage("919812345678",
+                "Categories", "Choose a category", null, List.of()));
+
+        sender.sendConfirmation("106540352242922", "919812345678", "✅ Selected: Shoes");
+        sender.sendPayload("106540352242922", "919812345678", payload, "Category buttons message");
+        sender.awaitDelivery("919812345678");
+
+        assertEquals(1, received.size());
+        assertEquals("✅ Selected: Shoes\n\nChoose a category",
+                received.poll().body().path("interactive").path("body").path("text").asText());
+        assertEquals(1.0, meterRegistry.get("whatsapp.graph.confirmations").tag("result", "merged").counter().count());
+    }
+
+    @Test
+    void testFlushConfirmation_SendsHeldConfirmation() {
+        sender.sendConfirmation("106540352242922", "919812345678", "✅ Selected: Shoes");
+        assertTrue(received.isEmpty());
+
+        sender.flushConfirmation("919812345678");
+        sender.flushConfirmation("919812345678");
+        sender.sendTextMessage("106540352242922", "919812345678", "done");
+        sender.awaitDelivery("919812345678");
+
+        assertEquals(2, received.size());
+        assertEquals("✅ Selected: Shoes", received.poll().body().path("text").path("body").asText());
+    }
+
+    @Test
+    void testSendMessage_ReturnsBeforeTheRoundTrip() {
+        gate = new CountDownLatch(1);
+        for (int i = 0; i < 3; i++) {
+            sender.sendTextMessage("106540352242922", "919812345678", "part " + i);
+        }
+        assertTrue(received.isEmpty());
+
+        gate.countDown();
+        sender.awaitDelivery("919812345678");
+
+        List<String> bodies = received.stream().map(request -> request.body().path("text").path("body").asText()).toList();
+        assertEquals(List.of("part 0", "part 1", "part 2"), bodies);
+        assertEquals(0.0, meterRegistry.get("whatsapp.graph.sends.ordered.recipients").gauge().value());
+    }
+
+    private record Received(String path, String authorization, JsonNode body) {
+    }
+}
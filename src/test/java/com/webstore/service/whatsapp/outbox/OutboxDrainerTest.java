@@ -0,0 +1,139 @@
+package com.webstore.service.whatsapp.outbox;
+
+import com.webstore.configuration.WhatsAppConfiguration;
+import com.webstore.exception.GraphApiException;
+import com.webstore.service.whatsapp.core.SendResult;
+import com.webstore.service.whatsapp.core.WhatsAppMessageSender;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class OutboxDrainerTest {
+
+    private static final String PHONE = "106540352242922";
+    private static final Instant NOW = Instant.parse("2025-06-01T10:00:00Z");
+
+    @Mock
+    private OutboundMessageStore store;
+
+    @Mock
+    private WhatsAppMessageSender messageSender;
+
+    private WhatsAppConfiguration.Outbox config;
+    private SimpleMeterRegistry meterRegistry;
+    private OutboxDrainer drainer;
+    private ExecutorService testThread;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        config = new WhatsAppConfiguration.Outbox();
+        meterRegistry = new SimpleMeterRegistry();
+        drainer = new OutboxDrainer(store, messageSender, config, meterRegistry, Clock.fixed(NOW, ZoneOffset.UTC));
+        testThread = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        drainer.shutdown();
+        testThread.shutdownNow();
+    }
+
+    @Test
+    void testDrainBatch_KeepsOrderPerRecipientAndMarksSent() throws Exception {
+        when(store.claim(eq(config.getBatchSize()), eq(NOW), eq(NOW.plus(config.getLease()))))
+                .thenReturn(List.of(message(1, "A"), message(2, "B"), message(3, "A")));
+        CompletableFuture<SendResult> firstToA = new CompletableFuture<>();
+        when(messageSender.sendPayloadAsync(eq(PHONE), eq("A"), any(), eq("Cart update")))
+                .thenReturn(firstToA, CompletableFuture.completedFuture(new SendResult("wamid.3", "A", "Cart update")));
+        when(messageSender.sendPayloadAsync(eq(PHONE), eq("B"), any(), eq("Cart update")))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult("wamid.2", "B", "Cart update")));
+
+        Future<Integer> drained = testThread.submit(drainer::drainBatch);
+
+        // B goes out alongside A's first message; A's second waits for its first
+        verify(messageSender, timeout(5000)).sendPayloadAsync(eq(PHONE), eq("B"), any(), anyString());
+        verify(messageSender, times(1)).sendPayloadAsync(eq(PHONE), eq("A"), any(), anyString());
+        firstToA.complete(new SendResult("wamid.1", "A", "Cart update"));
+        assertEquals(3, drained.get(5, TimeUnit.SECONDS));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboundMessageStore.Delivery>> deliveries = ArgumentCaptor.forClass(List.class);
+        verify(store).markSent(deliveries.capture(), eq(NOW));
+        assertEquals(3, deliveries.getValue().size());
+        assertTrue(deliveries.getValue().contains(new OutboundMessageStore.Delivery(3, "wamid.3")));
+        assertEquals(3.0, meterRegistry.get("whatsapp.outbox.sent").counter().count());
+        assertEquals(3, meterRegistry.get("whatsapp.outbox.lag").timer().count());
+    }
+
+    @Test
+    void testDrainBatch_DefersRetryableAndParksPermanentFailures() {
+        OutboundMessage retryable = message(1, "A");
+        OutboundMessage permanent = message(2, "B");
+        OutboundMessage exhausted = new OutboundMessage(3, PHONE, "C", "Cart update", "{}", NOW, config.getMaxAttempts());
+        when(store.claim(anyInt(), any(), any())).thenReturn(List.of(retryable, permanent, exhausted));
+        when(messageSender.sendPayloadAsync(eq(PHONE), eq("A"), any(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new GraphApiException(503, "{}")));
+        when(messageSender.sendPayloadAsync(eq(PHONE), eq("B"), any(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new GraphApiException(400, "{}")));
+        when(messageSender.sendPayloadAsync(eq(PHONE), eq("C"), any(), anyString()))
+                .thenReturn(CompletableFuture.failedFuture(new GraphApiException(503, "{}")));
+
+        drainer.drainBatch();
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<OutboundMessageStore.Failure>> failures = ArgumentCaptor.forClass(List.class);
+        verify(store).markFailed(failures.capture());
+        List<OutboundMessageStore.Failure> recorded = failures.getValue();
+        assertEquals(3, recorded.size());
+        OutboundMessageStore.Failure deferred = recorded.stream().filter(f -> f.id() == 1).findFirst().orElseThrow();
+        assertFalse(deferred.permanent());
+        assertEquals(NOW.plus(config.getRetryDelay()), deferred.nextAttemptAt());
+        assertTrue(recorded.stream().filter(f -> f.id() != 1).allMatch(OutboundMessageStore.Failure::permanent));
+        assertEquals(1.0, meterRegistry.get("whatsapp.outbox.deferred").counter().count());
+        assertEquals(2.0, meterRegistry.get("whatsapp.outbox.failed").counter().count());
+    }
+
+    @Test
+    void testDrain_KeepsClaimingWhileBatchesAreFull() {
+        config.setBatchSize(1);
+        when(store.claim(anyInt(), any(), any()))
+                .thenReturn(List.of(message(1, "A")), List.of(message(2, "A")), List.of());
+        when(messageSender.sendPayloadAsync(any(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(new SendResult("wamid.1", "A", "Cart update")));
+        when(store.backlog()).thenReturn(new OutboundMessageStore.Backlog(4, NOW.minus(Duration.ofSeconds(30))));
+
+        drainer.drain();
+
+        verify(store, times(3)).claim(anyInt(), any(), any());
+        verify(store, times(2)).markSent(anyList(), eq(NOW));
+        assertEquals(4.0, meterRegistry.get("whatsapp.outbox.pending").gauge().value());
+        assertEquals(30.0, meterRegistry.get("whatsapp.outbox.oldest.age").gauge().value());
+    }
+
+    private static OutboundMessage message(long id, String recipient) {
+        return new OutboundMessage(id, PHONE, recipient, "Cart update", "{\"to\":\"" + recipient + "\"}", NOW, 1);
+    }
+}
@@ -0,0 +1,103 @@
+package com.webstore.service.whatsapp.session;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InMemoryConversationSessionStoreTest {
+
+    private static final String PHONE = "919999999999";
+
+    private AtomicLong clock;
+    private InMemoryConversationSessionStore store;
+
+    @BeforeEach
+    void setUp() {
+        clock = new AtomicLong();
+        store = new InMemoryConversationSessionStore(1024, Duration.ofMinutes(30), clock::get);
+    }
+
+    @Test
+    void testUpdate_StartsAndChangesSession() {
+        assertTrue(store.find(PHONE).isEmpty());
+
+        store.update(PHONE, session -> session.toBuilder().categoryId(4).categoryName("Shoes").page(2).build());
+        ConversationSession updated = store.update(PHONE, session -> session.toBuilder().lastProductId(31).build());
+
+        assertEquals(PHONE, updated.getPhone());
+        assertEquals(4, updated.getCategoryId());
+        assertEquals(2, updated.getPage());
+        assertEquals(31, updated.getLastProductId());
+        assertSame(updated, store.find(PHONE).orElseThrow());
+        assertEquals("Shoes", updated.categoryNameFor(4));
+        assertNull(updated.categoryNameFor(5));
+    }
+
+    @Test
+    void testFind_ExpiresAfterTtlWithoutUpdates() {
+        store.update(PHONE, session -> session.toBuilder().categoryId(4).build());
+        clock.addAndGet(Duration.ofMinutes(20).toNanos());
+        store.update(PHONE, session -> session.toBuilder().page(3).build());
+
+        clock.addAndGet(Duration.ofMinutes(20).toNanos());
+        assertEquals(3, store.find(PHONE).orElseThrow().getPage());
+
+        clock.addAndGet(Duration.ofMinutes(15).toNanos());
+        assertTrue(store.find(PHONE).isEmpty());
+        assertNull(store.update(PHONE, session -> session).getCategoryId());
+    }
+
+    @Test
+    void testUpdate_LeastRecentlyUsedSessionsAreDroppedWhenFull() {
+        store = new InMemoryConversationSessionStore(16, Duration.ofMinutes(30), clock::get);
+        for (int i = 0; i < 1000; i++) {
+            store.update("91" + i, session -> session);
+        }
+
+        assertTrue(store.size() <= 16);
+        assertTrue(store.find("91999").isPresent());
+        assertTrue(store.find("910").isEmpty());
+    }
+
+    @Test
+    void testPutIfAbsent_KeepsLiveSession() {
+        store.update(PHONE, session -> session.toBuilder().page(2).build());
+        store.putIfAbsent(ConversationSession.builder().phone(PHONE).page(5).build());
+        assertEquals(2, store.find(PHONE).orElseThrow().getPage());
+
+        store.remove(PHONE);
+        store.putIfAbsent(ConversationSession.builder().phone(PHONE).page(5).build());
+        assertEquals(5, store.find(PHONE).orElseThrow().getPage());
+    }
+
+    @Test
+    void testUpdate_ConcurrentUpdatesOfOnePhoneAreNotLost() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                futures.add(executor.submit(() -> {
+                    for (int j = 0; j < 1000; j++) {
+                        store.update(PHONE, session -> session.toBuilder().page(session.getPage() + 1).build());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(8001, store.find(PHONE).orElseThrow().getPage());
+    }
+}
@@ -0,0 +1,178 @@
+package com.webstore.service.whatsapp.stub;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.webstore.configuration.WhatsAppConfiguration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GraphApiStandInTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+
+    private WhatsAppConfiguration.GraphStub config;
+    private GraphApiStandIn standIn;
+    private double nextRandom;
+
+    @BeforeEach
+    void setUp() {
+        config = new WhatsAppConfiguration.GraphStub();
+        config.setPort(0);
+        config.setThreads(2);
+        config.setLatencyMedian(Duration.ZERO);
+        nextRandom = 0.5;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (standIn != null) {
+            standIn.close();
+        }
+    }
+
+    @Test
+    void testPost_AnswersWithMessageIdAndRecordsPayload() throws Exception {
+        standIn = newStandIn();
+
+        HttpResponse<String> response = post("/v22.0/106540352242922/messages", text("919812345678", "hello"));
+
+        assertEquals(200, response.statusCode());
+        JsonNode body = objectMapper.readTree(response.body());
+        assertTrue(body.path("messages").path(0).path("id").asText().startsWith("wamid."));
+        assertEquals("919812345678", body.path("contacts").path(0).path("wa_id").asText());
+        ReceivedMessage received = standIn.getReceived().get(0);
+        assertEquals("106540352242922", received.getPhoneNumberId());
+        assertEquals("919812345678", received.getRecipient());
+        assertEquals("hello", objectMapper.readTree(received.getPayload()).path("text").path("body").asText());
+    }
+
+    @Test
+    void testGetReceived_KeepsArrivalOrderPerRecipient() throws Exception {
+        standIn = newStandIn();
+
+        for (int i = 0; i < 3; i++) {
+            post("/v22.0/106540352242922/messages", text("919812345678", "a" + i));
+            post("/v22.0/106540352242922/messages", text("447700900123", "b" + i));
+        }
+
+        List<String> bodies = standIn.getReceived("919812345678").stream()
+                .map(message -> readText(message.getPayload()))
+                .toList();
+        assertEquals(List.of("a0", "a1", "a2"), bodies);
+        assertEquals(6, standIn.getReceivedCount());
+        assertTrue(standIn.getThroughput() > 0);
+    }
+
+    @Test
+    void testPost_InjectsServerErrorsAndThrottling() throws Exception {
+        config.setErrorRate(0.2);
+        config.setThrottleRate(0.2);
+        standIn = newStandIn();
+
+        nextRandom = 0.1;
+        HttpResponse<String> error = post("/v22.0/106540352242922/messages", text("919812345678", "x"));
+        nextRandom = 0.3;
+        HttpResponse<String> throttled = post("/v22.0/106540352242922/messages", text("919812345678", "y"));
+
+        assertEquals(500, error.statusCode());
+        assertEquals(429, throttled.statusCode());
+        assertTrue(throttled.body().contains("\"code\":130429"));
+        assertEquals("1", throttled.headers().firstValue("Retry-After").orElseThrow());
+    }
+
+    @Test
+    void testPost_SlowDripStillDeliversWholeBody() throws Exception {
+        config.setSlowDripRate(1.0);
+        config.setSlowDripChunks(4);
+        config.setSlowDripChunkDelay(Duration.ofMillis(20));
+        standIn = newStandIn();
+
+        long start = System.nanoTime();
+        HttpResponse<String> response = post("/v22.0/106540352242922/messages", text("919812345678", "hello"));
+
+        assertEquals(200, response.statusCode());
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(60).toNanos());
+        assertEquals("919812345678", objectMapper.readTree(response.body()).path("contacts").path(0).path("input").asText());
+    }
+
+    @Test
+    void testPost_SlowDripDrawnFromInjectedRandom() throws Exception {
+        config.setSlowDripRate(0.3);
+        config.setSlowDripChunks(4);
+        config.setSlowDripChunkDelay(Duration.ofSeconds(1));
+        standIn = newStandIn();
+
+        nextRandom = 0.5;
+        long start = System.nanoTime();
+        HttpResponse<String> whole = post("/v22.0/106540352242922/messages", text("919812345678", "x"));
+        long wholeNanos = System.nanoTime() - start;
+        nextRandom = 0.2;
+        start = System.nanoTime();
+        HttpResponse<String> dripped = post("/v22.0/106540352242922/messages", text("919812345678", "y"));
+        long drippedNanos = System.nanoTime() - start;
+
+        assertEquals(200, whole.statusCode());
+        assertEquals(200, dripped.statusCode());
+        assertTrue(wholeNanos < Duration.ofSeconds(1).toNanos());
+        assertTrue(drippedNanos >= Duration.ofSeconds(3).toNanos());
+    }
+
+    @Test
+    void testOnReceived_SeesEachRequestOnArrival() throws Exception {
+        standIn = newStandIn();
+        List<String> recipients = new CopyOnWriteArrayList<>();
+        standIn.onReceived(message -> recipients.add(message.getRecipient()));
+
+        post("/v22.0/106540352242922/messages", text("919812345678", "a"));
+        post("/v22.0/106540352242922/messages", text("447700900123", "b"));
+
+        assertEquals(List.of("919812345678", "447700900123"), recipients);
+    }
+
+    @Test
+    void testPost_UnknownPathIsNotRecorded() throws Exception {
+        standIn = newStandIn();
+
+        HttpResponse<String> response = post("/v22.0/106540352242922/media", text("919812345678", "x"));
+
+        assertEquals(404, response.statusCode());
+        assertEquals(0, standIn.getReceivedCount());
+    }
+
+    private GraphApiStandIn newStandIn() {
+        return new GraphApiStandIn(config, objectMapper, () -> nextRandom);
+    }
+
+    private HttpResponse<String> post(String path, String body) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://127.0.0.1:" + standIn.getPort() + path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString());
+    }
+
+    private static String text(String to, String body) {
+        return "{\"messaging_product\":\"whatsapp\",\"to\":\"" + to + "\",\"type\":\"text\",\"text\":{\"body\":\"" + body + "\"}}";
+    }
+
+    private String readText(byte[] payload) {
+        try {
+            return objectMapper.readTree(payload).path("text").path("body").asText();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.webstore.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InteractionIdCodecTest {
+
+    @Test
+    void testEncode_RoundTripsEveryKind() {
+        InteractionIdCodec.InteractionId category = InteractionIdCodec.decode(InteractionIdCodec.category(3, 42));
+        assertEquals(InteractionIdCodec.Kind.CATEGORY, category.getKind());
+        assertEquals(3, category.getPage());
+        assertEquals(42, category.getCategoryId());
+
+        InteractionIdCodec.InteractionId product = InteractionIdCodec.decode(InteractionIdCodec.product(2, 31, 10));
+        assertEquals(InteractionIdCodec.Kind.PRODUCT, product.getKind());
+        assertEquals(2, product.getPage());
+        assertEquals(31, product.getProductId());
+        assertEquals(10, product.getCategoryId());
+        assertNull(product.getCategoryName());
+
+        InteractionIdCodec.InteractionId categoryPage =
+                InteractionIdCodec.decode(InteractionIdCodec.categoryPage(7, 0, 43));
+        assertEquals(InteractionIdCodec.Kind.CATEGORY_PAGE, categoryPage.getKind());
+        assertEquals(new PaginationUtil.PageCursor(7, 0, 43), categoryPage.getPageCursor());
+
+        InteractionIdCodec.InteractionId productPage =
+                InteractionIdCodec.decode(InteractionIdCodec.productPage(5, 9, 120, 0));
+        assertEquals(InteractionIdCodec.Kind.PRODUCT_PAGE, productPage.getKind());
+        assertEquals(5, productPage.getPage());
+        assertEquals(9, productPage.getCategoryId());
+        assertEquals(120, productPage.getAfterId());
+        assertEquals(0, productPage.getBeforeId());
+    }
+
+    @Test
+    void testDecode_PageIdsWithoutCursor() {
+        InteractionIdCodec.InteractionId categoryPage = InteractionIdCodec.decode("~1C7");
+        assertEquals(new PaginationUtil.PageCursor(7, 0, 0), categoryPage.getPageCursor());
+
+        InteractionIdCodec.InteractionId productPage = InteractionIdCodec.decode("~1P5.9");
+        assertEquals(9, productPage.getCategoryId());
+        assertEquals(new PaginationUtil.PageCursor(5, 0, 0), productPage.getPageCursor());
+
+        assertThrows(IllegalArgumentException.class, () -> InteractionIdCodec.decode("~1P5"));
+        assertThrows(IllegalArgumentException.class, () -> InteractionIdCodec.decode("~1C1.2.3.4"));
+    }
+
+    @Test
+    void testEncode_IsCompactAndStartsWithRoutingPrefix() {
+        assertEquals("~1p2.v.a", InteractionIdCodec.product(2, 31, 10));
+        assertTrue(InteractionIdCodec.category(1, 1).startsWith(InteractionIdCodec.CATEGORY_PREFIX));
+        assertTrue(InteractionIdCodec.categoryPage(1, 0, 0).startsWith(InteractionIdCodec.CATEGORY_PAGE_PREFIX));
+        assertTrue(InteractionIdCodec.productPage(1, 1, 0, 0).startsWith(InteractionIdCodec.PRODUCT_PAGE_PREFIX));
+
+        String largest = InteractionIdCodec.product(Integer.MAX_VALUE, Integer.MAX_VALUE, Integer.MAX_VALUE);
+        assertEquals(23, largest.length());
+        assertEquals(Integer.MAX_VALUE, InteractionIdCodec.decode(largest).getCategoryId());
+
+        int max = Integer.MAX_VALUE;
+        String largestPage = InteractionIdCodec.productPage(max, max, max, max);
+        assertEquals(30, largestPage.length());
+        assertEquals(max, InteractionIdCodec.decode(largestPage).getBeforeId());
+    }
+
+    @Test
+    void testDecode_ReadsOldFormatIds() {
+        String shoes = Base64.getEncoder().encodeToString("Chaussures d'été".getBytes(StandardCharsets.UTF_8));
+
+        InteractionIdCodec.InteractionId category = InteractionIdCodec.decode("cat_page_2_item_9");
+        assertEquals(InteractionIdCodec.Kind.CATEGORY, category.getKind());
+        assertEquals(2, category.getPage());
+        assertEquals(9, category.getItem());
+        assertEquals(0, category.getCategoryId());
+
+        InteractionIdCodec.InteractionId product = InteractionIdCodec.decode("prod_p2_i31_c" + shoes);
+        assertEquals(InteractionIdCodec.Kind.PRODUCT, product.getKind());
+        assertEquals(31, product.getProductId());
+        assertEquals("Chaussures d'été", product.getCategoryName());
+
+        assertEquals(InteractionIdCodec.Kind.CATEGORY_PAGE, InteractionIdCodec.decode("next_cat_page_3").getKind());
+        assertEquals(1, InteractionIdCodec.decode("prev_cat_page_1").getPage());
+
+        InteractionIdCodec.InteractionId productPage = InteractionIdCodec.decode("prev_prod_p4_c" + shoes);
+        assertEquals(InteractionIdCodec.Kind.PRODUCT_PAGE, productPage.getKind());
+        assertEquals(4, productPage.getPage());
+        assertEquals("Chaussures d'été", productPage.getCategoryName());
+    }
+
+    @Test
+    void testDecode_RejectsMalformedIds() {
+        for (String id : new String[]{"~1p2.v", "~1p2.v.a.b", "~1c2..a", "~1c2.A", "~2c1.1", "~1x1", "~1C",
+                "~1Czzzzzzz", "~1C1é", "cat_page_x_item_1", "prod_p2_i31", "next_prod_p2", "next_foo", "hello"}) {
+            assertThrows(IllegalArgumentException.class, () -> InteractionIdCodec.decode(id), id);
+        }
+    }
+
+    @Test
+    void testEncode_RejectsNegativeFields() {
+        assertThrows(IllegalArgumentException.class, () -> InteractionIdCodec.category(1, -1));
+    }
+}
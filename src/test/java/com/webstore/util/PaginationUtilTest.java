@@ -0,0 +1,103 @@
+package com.webstore.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PaginationUtilTest {
+
+    private final PaginationUtil paginationUtil = new PaginationUtil();
+
+    // Ids 1..20; 7 per page, so pages hold 1-7, 8-14 and 15-20
+    private final List<Integer> ids = IntStream.rangeClosed(1, 20).boxed().toList();
+    private final List<String> queries = new ArrayList<>();
+
+    @Test
+    void testPaginate_NextPageStartsAfterKey() {
+        PaginationUtil.PaginationResult<Integer> result =
+                paginationUtil.paginate(20, new PaginationUtil.PageCursor(2, 7, 0), this::after, this::before);
+
+        assertEquals(List.of(8, 9, 10, 11, 12, 13, 14), result.getItems());
+        assertEquals(List.of("after 7 limit 8"), queries);
+        assertEquals(2, result.getCurrentPage());
+        assertEquals(3, result.getTotalPages());
+        assertTrue(result.hasNext());
+        assertTrue(result.hasPrevious());
+    }
+
+    @Test
+    void testPaginate_LastPageHasNoNext() {
+        PaginationUtil.PaginationResult<Integer> result =
+                paginationUtil.paginate(20, new PaginationUtil.PageCursor(3, 14, 0), this::after, this::before);
+
+        assertEquals(List.of(15, 16, 17, 18, 19, 20), result.getItems());
+        assertFalse(result.hasNext());
+        assertTrue(result.hasPrevious());
+    }
+
+    @Test
+    void testPaginate_PreviousPageEndsBeforeKeyInAscendingOrder() {
+        PaginationUtil.PaginationResult<Integer> result =
+                paginationUtil.paginate(20, new PaginationUtil.PageCursor(1, 0, 8), this::after, this::before);
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), result.getItems());
+        assertEquals(List.of("before 8 limit 8", "after 7 limit 1"), queries);
+        assertEquals(1, result.getCurrentPage());
+        assertTrue(result.hasNext());
+        assertFalse(result.hasPrevious());
+    }
+
+    @Test
+    void testPaginate_PreviousPageHasNoNextWhenLaterRowsAreGone() {
+        PaginationUtil.PaginationResult<Integer> result =
+                paginationUtil.paginate(20, new PaginationUtil.PageCursor(3, 0, 21), this::after, this::before);
+
+        assertEquals(List.of(14, 15, 16, 17, 18, 19, 20), result.getItems());
+        assertFalse(result.hasNext());
+        assertTrue(result.hasPrevious());
+    }
+
+    @Test
+    void testPaginate_PageWithoutKeySkipsAheadFromStart() {
+        PaginationUtil.PaginationResult<Integer> result =
+                paginationUtil.paginate(20, new PaginationUtil.PageCursor(9, 0, 0), this::after, this::before);
+
+        assertEquals(List.of(15, 16, 17, 18, 19, 20), result.getItems());
+        assertEquals(3, result.getCurrentPage());
+        assertFalse(result.hasNext());
+        assertTrue(result.hasPrevious());
+    }
+
+    @Test
+    void testPaginate_StaleKeyFallsBackToFirstPage() {
+        PaginationUtil.PaginationResult<Integer> result =
+                paginationUtil.paginate(20, new PaginationUtil.PageCursor(4, 20, 0), this::after, this::before);
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6, 7), result.getItems());
+        assertEquals(1, result.getCurrentPage());
+        assertFalse(result.hasPrevious());
+    }
+
+    @Test
+    void testPaginate_LaggingCountStillOffersNextPage() {
+        PaginationUtil.PaginationResult<Integer> result =
+                paginationUtil.paginate(7, PaginationUtil.PageCursor.first(), this::after, this::before);
+
+        assertTrue(result.hasNext());
+        assertEquals(2, result.getTotalPages());
+    }
+
+    private List<Integer> after(int key, int limit) {
+        queries.add("after " + key + " limit " + limit);
+        return ids.stream().filter(id -> id > key).limit(limit).toList();
+    }
+
+    private List<Integer> before(int key, int limit) {
+        queries.add("before " + key + " limit " + limit);
+        return ids.stream().filter(id -> id < key).sorted((a, b) -> b - a).limit(limit).toList();
+    }
+}